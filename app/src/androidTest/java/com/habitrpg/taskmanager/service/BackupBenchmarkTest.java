@@ -0,0 +1,124 @@
+package com.habitrpg.taskmanager.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.SyntheticDataGenerator;
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Backs up and restores a ~100 MB database on the device and logs the time of each half.
+ * Works on a database file of its own, so the app's local data is left alone.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BackupBenchmarkTest {
+
+    private static final String TAG = "BackupBenchmark";
+    private static final String USER_ID = "backup-benchmark";
+    private static final int TASKS = 100_000;
+    private static final int DESCRIPTION_LENGTH = 1_000;
+    private static final String DATABASE_NAME = "backup-benchmark.db";
+    private static final long SEED = 42L;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private AppDatabase database;
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(DATABASE_NAME);
+        context.deleteDatabase(DATABASE_NAME + ".pending-restore");
+    }
+
+    @Test
+    public void benchmark_backupAndRestore100MB() throws Exception {
+        context.deleteDatabase(DATABASE_NAME);
+        database = openDatabase();
+        fillDatabase();
+        long databaseSize = context.getDatabasePath(DATABASE_NAME).length();
+
+        File backupFile = new File(context.getCacheDir(), "backup-benchmark.db.gz");
+        BackupService backupService = new BackupService(context, database, DATABASE_NAME);
+
+        long backupMillis = run(callback -> backupService.backup(new FileOutputStream(backupFile), callback));
+
+        // Changes made after the backup must be gone after the restore
+        database.taskDao().deleteAllTasksForUser(USER_ID);
+        long restoreMillis = run(callback -> backupService.restore(new FileInputStream(backupFile), callback));
+
+        // The restore is staged; the app applies it at its next start, before opening the database
+        database.close();
+        BackupService.applyPendingRestore(context, DATABASE_NAME);
+        database = openDatabase();
+
+        assertEquals(TASKS, database.taskDao().getTasksByUserId(USER_ID).size());
+        Log.i(TAG, String.format("Database %d MB, backup %d MB: backup %d ms, restore %d ms",
+            databaseSize >> 20, backupFile.length() >> 20, backupMillis, restoreMillis));
+        assertTrue(backupFile.delete());
+    }
+
+    private AppDatabase openDatabase() {
+        return Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME).build();
+    }
+
+    private void fillDatabase() {
+        Random random = new Random(SEED);
+        database.runInTransaction(() -> {
+            for (int i = 0; i < TASKS; i++) {
+                // Prose-like text compresses like real descriptions do
+                Task task = new Task(USER_ID, 1, "Task " + i, "easy", "normal", 1);
+                task.setDescription(SyntheticDataGenerator.description(random, DESCRIPTION_LENGTH));
+                task.setStartDate("2025-01-01 09:00");
+                database.taskDao().insertTask(task);
+            }
+        });
+    }
+
+    private long run(Operation operation) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] elapsed = new long[1];
+        String[] error = new String[1];
+        operation.start(new BackupService.BackupCallback() {
+            @Override
+            public void onSuccess(String message, long elapsedMillis) {
+                elapsed[0] = elapsedMillis;
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                error[0] = message;
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        assertNull(error[0]);
+        return elapsed[0];
+    }
+
+    private interface Operation {
+        void start(BackupService.BackupCallback callback) throws Exception;
+    }
+}
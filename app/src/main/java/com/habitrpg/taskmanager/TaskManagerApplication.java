@@ -0,0 +1,102 @@
+package com.habitrpg.taskmanager;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.service.AuthService;
+import com.habitrpg.taskmanager.service.BackupService;
+import com.habitrpg.taskmanager.service.TaskService;
+import com.habitrpg.taskmanager.util.MainThreadWatchdog;
+import com.habitrpg.taskmanager.util.Metrics;
+import com.habitrpg.taskmanager.util.SlowQueryLogger;
+import com.habitrpg.taskmanager.util.StartupTimeline;
+import com.habitrpg.taskmanager.util.StrictDatabaseMode;
+import com.habitrpg.taskmanager.util.Tracing;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Start-up graph for the app process.
+ *
+ * The Room database is opened and the core service singletons are built on a background thread
+ * while the first activity inflates. Work that is not needed for the first frame (overdue task
+ * checks, Firestore listeners) is scheduled by the activities with
+ * {@link StartupTimeline#afterFirstDraw}.
+ */
+public class TaskManagerApplication extends Application {
+
+    private final ExecutorService startupExecutor = Executors.newSingleThreadExecutor();
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StartupTimeline.mark("application_create");
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        Metrics.setEnabled(debuggable);
+        Tracing.setEnabled(debuggable || Tracing.isRuntimeFlagSet());
+        // Must precede the database open below, which decides whether to install the query callback
+        SlowQueryLogger.setEnabled(debuggable || SlowQueryLogger.isRuntimeFlagSet());
+        if (StrictDatabaseMode.isRuntimeFlagSet()) {
+            StrictDatabaseMode.setMode(StrictDatabaseMode.Mode.THROW);
+        } else if (debuggable) {
+            StrictDatabaseMode.setMode(StrictDatabaseMode.Mode.LOG);
+        }
+        MainThreadWatchdog.getInstance(this).start(MainThreadWatchdog.DEFAULT_THRESHOLD_MS);
+        // A restore from the previous process is swapped in before anything opens the database
+        BackupService.applyPendingRestore(this);
+
+        startupExecutor.execute(() -> {
+            // Opening runs schema creation or migration, the slowest part of a cold start
+            AppDatabase.getDatabase(this).getOpenHelper().getWritableDatabase();
+            StartupTimeline.mark("database_open");
+
+            AuthService.getInstance(this);
+            TaskService.getInstance(this);
+            StartupTimeline.mark("services_ready");
+            startupExecutor.shutdown();
+        });
+
+        registerActivityLifecycleCallbacks(new FirstActivityCallbacks());
+        StartupTimeline.mark("application_ready");
+    }
+
+    // Marks the first activity's creation and first frame, then reports the timeline
+    private class FirstActivityCallbacks implements ActivityLifecycleCallbacks {
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            StartupTimeline.mark("activity_create");
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+            // The content view is set by now; the first frame follows this resume
+            unregisterActivityLifecycleCallbacks(this);
+            StartupTimeline.afterFirstDraw(activity, () -> {
+                StartupTimeline.mark("first_draw");
+                StartupTimeline.report();
+            });
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {}
+    }
+}
@@ -3,19 +3,29 @@ package com.habitrpg.taskmanager.data.database;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.annotation.NonNull;
 import android.content.Context;
 
 import com.habitrpg.taskmanager.data.database.dao.BossDao;
 import com.habitrpg.taskmanager.data.database.dao.CategoryDao;
+import com.habitrpg.taskmanager.data.database.dao.DailyXpDao;
 import com.habitrpg.taskmanager.data.database.dao.EquipmentDao;
+import com.habitrpg.taskmanager.data.database.dao.ExportDao;
 import com.habitrpg.taskmanager.data.database.dao.FriendDao;
 import com.habitrpg.taskmanager.data.database.dao.GuildDao;
+import com.habitrpg.taskmanager.data.database.dao.OutboxDao;
+import com.habitrpg.taskmanager.data.database.dao.SyncWatermarkDao;
 import com.habitrpg.taskmanager.data.database.dao.TaskCompletionDao;
 import com.habitrpg.taskmanager.data.database.dao.TaskDao;
 import com.habitrpg.taskmanager.data.database.dao.UserDao;
+import com.habitrpg.taskmanager.data.database.dao.UserStageDao;
 import com.habitrpg.taskmanager.data.database.dao.UserStatisticsDao;
 import com.habitrpg.taskmanager.data.database.entities.Boss;
 import com.habitrpg.taskmanager.data.database.entities.Category;
+import com.habitrpg.taskmanager.data.database.entities.DailyXp;
 import com.habitrpg.taskmanager.data.database.entities.Equipment;
 import com.habitrpg.taskmanager.data.database.entities.Friend;
 import com.habitrpg.taskmanager.data.database.entities.FriendRequest;
@@ -23,21 +33,73 @@ import com.habitrpg.taskmanager.data.database.entities.Guild;
 import com.habitrpg.taskmanager.data.database.entities.GuildInvite;
 import com.habitrpg.taskmanager.data.database.entities.GuildMember;
 import com.habitrpg.taskmanager.data.database.entities.GuildMessage;
+import com.habitrpg.taskmanager.data.database.entities.OutboxEntry;
+import com.habitrpg.taskmanager.data.database.entities.SyncWatermark;
 import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.data.database.entities.TaskCompletion;
+import com.habitrpg.taskmanager.data.database.entities.TaskFts;
 import com.habitrpg.taskmanager.data.database.entities.User;
+import com.habitrpg.taskmanager.data.database.entities.UserStage;
 import com.habitrpg.taskmanager.data.database.entities.UserStatistics;
+import com.habitrpg.taskmanager.util.SlowQueryLogger;
+import com.habitrpg.taskmanager.util.TimingOpenHelperFactory;
+import com.habitrpg.taskmanager.util.StrictDatabaseMode;
+
 
 @Database(
         entities = {User.class, Category.class, Task.class, TaskCompletion.class, UserStatistics.class, 
-                    Friend.class, FriendRequest.class, Guild.class, GuildMember.class, GuildInvite.class, GuildMessage.class, Boss.class, Equipment.class},
-    version = 8,
+                    Friend.class, FriendRequest.class, Guild.class, GuildMember.class, GuildInvite.class, GuildMessage.class, Boss.class, Equipment.class,
+                    OutboxEntry.class, SyncWatermark.class, TaskFts.class, DailyXp.class, UserStage.class},
+    version = 16,
     exportSchema = false
 )
 public abstract class AppDatabase extends RoomDatabase {
     
+    public static final String DATABASE_NAME = "habit_rpg_database";
+    
     private static volatile AppDatabase INSTANCE;
     
+    // Everything from 8 to 16 only adds tables, a column and indexes, so installs on 8 keep their
+    // local task history. Versions 9-15 were development steps and fall back to a fresh database.
+    static final Migration MIGRATION_8_16 = new Migration(8, 16) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `outbox` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`collection` TEXT NOT NULL, `document_id` TEXT NOT NULL, `operation` TEXT NOT NULL, "
+                + "`payload` TEXT, `created_at` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, "
+                + "`next_attempt_at` INTEGER NOT NULL, `last_error` TEXT)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_watermarks` (`user_id` TEXT NOT NULL, "
+                + "`collection` TEXT NOT NULL, `updated_at` INTEGER NOT NULL, PRIMARY KEY(`user_id`, `collection`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `daily_xp` (`user_id` TEXT NOT NULL, `day_number` INTEGER NOT NULL, "
+                + "`xp` INTEGER NOT NULL, `completions` INTEGER NOT NULL, PRIMARY KEY(`user_id`, `day_number`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `user_stages` (`user_id` TEXT NOT NULL, `level` INTEGER NOT NULL, "
+                + "`started_at` INTEGER NOT NULL, `ended_at` INTEGER, PRIMARY KEY(`user_id`, `level`))");
+            
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `series_id` TEXT");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_user_id_start_date` ON `tasks` (`user_id`, `start_date`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_series_id_start_date` ON `tasks` (`series_id`, `start_date`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_completions_task_id_completed_date` "
+                + "ON `task_completions` (`task_id`, `completed_date`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_guild_messages_guild_id_timestamp` "
+                + "ON `guild_messages` (`guild_id`, `timestamp`)");
+            
+            // tasks_fts with the content sync triggers Room creates for it, then indexed from tasks
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` USING FTS4("
+                + "`name` TEXT, `description` TEXT, tokenize=unicode61, content=`tasks`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE BEFORE UPDATE ON `tasks` "
+                + "BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_DELETE BEFORE DELETE ON `tasks` "
+                + "BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE AFTER UPDATE ON `tasks` "
+                + "BEGIN INSERT INTO `tasks_fts`(`docid`, `name`, `description`) "
+                + "VALUES (NEW.`rowid`, NEW.`name`, NEW.`description`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_INSERT AFTER INSERT ON `tasks` "
+                + "BEGIN INSERT INTO `tasks_fts`(`docid`, `name`, `description`) "
+                + "VALUES (NEW.`rowid`, NEW.`name`, NEW.`description`); END");
+            db.execSQL("INSERT INTO `tasks_fts`(`tasks_fts`) VALUES('rebuild')");
+        }
+    };
+    
     public abstract UserDao userDao();
     public abstract CategoryDao categoryDao();
     public abstract TaskDao taskDao();
@@ -47,24 +109,41 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract GuildDao guildDao();
     public abstract BossDao bossDao();
     public abstract EquipmentDao equipmentDao();
+    public abstract OutboxDao outboxDao();
+    public abstract SyncWatermarkDao syncWatermarkDao();
+    public abstract DailyXpDao dailyXpDao();
+    public abstract ExportDao exportDao();
+    public abstract UserStageDao userStageDao();
     
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
+                    RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(
                             context.getApplicationContext(),
                             AppDatabase.class,
-                            "habit_rpg_database"
+                            DATABASE_NAME
                     )
-                    .fallbackToDestructiveMigration()
-                    .build();
+                    .addMigrations(MIGRATION_8_16)
+                    .fallbackToDestructiveMigration();
+                    INSTANCE = installDiagnostics(builder).build();
                 }
             }
         }
         return INSTANCE;
     }
     
+    // Direct executor: the strict mode check has to run on the querying thread, before the statement
+    static RoomDatabase.Builder<AppDatabase> installDiagnostics(RoomDatabase.Builder<AppDatabase> builder) {
+        if (SlowQueryLogger.isEnabled()) {
+            builder.openHelperFactory(new TimingOpenHelperFactory(new FrameworkSQLiteOpenHelperFactory()));
+        }
+        if (StrictDatabaseMode.isActive()) {
+            builder.setQueryCallback((sql, bindArgs) -> StrictDatabaseMode.check(sql), Runnable::run);
+        }
+        return builder;
+    }
+    
     public static void destroyInstance() {
         INSTANCE = null;
     }
@@ -0,0 +1,412 @@
+package com.habitrpg.taskmanager.data.database;
+
+import com.habitrpg.taskmanager.data.database.entities.Boss;
+import com.habitrpg.taskmanager.data.database.entities.Category;
+import com.habitrpg.taskmanager.data.database.entities.DailyXp;
+import com.habitrpg.taskmanager.data.database.entities.Equipment;
+import com.habitrpg.taskmanager.data.database.entities.Guild;
+import com.habitrpg.taskmanager.data.database.entities.GuildMember;
+import com.habitrpg.taskmanager.data.database.entities.GuildMessage;
+import com.habitrpg.taskmanager.data.database.entities.Task;
+import com.habitrpg.taskmanager.data.database.entities.TaskCompletion;
+import com.habitrpg.taskmanager.data.database.entities.User;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Seeded generator of production-like data for load and performance testing: users with
+ * categories, single and recurring tasks with completions over several years, the matching
+ * daily XP rollups, equipment, bosses, and guilds with chat history.
+ *
+ * Everything, ids and dates included, is derived from the seed and a fixed anchor date, so the
+ * same config produces the same rows on every run and performance numbers stay comparable
+ * across commits. Rows are written through the list-insert DAO methods in one transaction per
+ * user, which keeps a million rows within seconds on a device.
+ */
+public final class SyntheticDataGenerator {
+
+    public static final String ID_PREFIX = "synthetic-";
+    // Tasks after this date are still active; everything before it has an outcome
+    public static final String ANCHOR_DATE = "2025-06-30";
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int FUTURE_DAYS = 30;
+    private static final int CATEGORIES_PER_USER = 5;
+    private static final double RECURRING_SHARE = 0.3;
+
+    private static final String[] CATEGORY_NAMES = {"Zdravlje", "Učenje", "Posao", "Sport", "Hobi"};
+    private static final String[] CATEGORY_COLORS = {"#4CAF50", "#2196F3", "#FF9800", "#9C27B0", "#F44336"};
+    private static final String[] TASK_NAMES = {"Trčanje", "Čitanje knjige", "Projekat", "Teretana", "Meditacija",
+        "Pisanje izveštaja", "Učenje jezika", "Kuvanje", "Šetnja", "Code review"};
+    private static final String[] DIFFICULTIES = {"very_easy", "easy", "hard", "extreme"};
+    private static final int[] DIFFICULTY_XP = {1, 3, 7, 20};
+    private static final String[] IMPORTANCES = {"normal", "important", "very_important", "special"};
+    private static final int[] IMPORTANCE_XP = {1, 3, 10, 100};
+    private static final String[] WORDS = {"zadatak", "danas", "sutra", "trening", "knjiga", "poglavlje",
+        "projekat", "sastanak", "izveštaj", "kilometara", "minuta", "ponoviti", "završiti", "proveriti",
+        "napisati", "pročitati", "vežbe", "recept", "kupovina", "review", "deadline", "draft", "notes",
+        "plan", "cilj", "nedelja", "jutro", "veče", "pauza", "fokus", "beleške", "lista"};
+    private static final String[] MESSAGES = {"Ko je za misiju?", "Bravo svima!", "Boss je skoro pao",
+        "Završio sam sve zadatke danas", "Good luck everyone", "Sutra nastavljamo"};
+
+    public static final class Config {
+        public final long seed;
+        public final int users;
+        public final int tasksPerUser;
+        public final int years;
+        public final int guilds;
+        public final int messagesPerGuild;
+        // When set, user 0 is this existing account. It only gets categories, tasks and their
+        // completions: its users row, bosses, equipment, daily XP and guilds are left untouched.
+        public final String ownerUserId;
+
+        public Config(long seed, int users, int tasksPerUser, int years, int guilds, int messagesPerGuild,
+                      String ownerUserId) {
+            this.seed = seed;
+            this.users = users;
+            this.tasksPerUser = tasksPerUser;
+            this.years = years;
+            this.guilds = guilds;
+            this.messagesPerGuild = messagesPerGuild;
+            this.ownerUserId = ownerUserId;
+        }
+
+        // About rows rows in total across 100 users: half tasks, a third completions and rollups,
+        // the rest guild messages
+        public static Config ofRows(long seed, int rows, String ownerUserId) {
+            int users = 100;
+            int guilds = 50;
+            return new Config(seed, users, Math.max(1, rows / 2 / users), 3, guilds,
+                Math.max(1, rows * 15 / 100 / guilds), ownerUserId);
+        }
+    }
+
+    public static final class Result {
+        public int users;
+        public int categories;
+        public int tasks;
+        public int completions;
+        public int dailyXp;
+        public int equipment;
+        public int bosses;
+        public int guilds;
+        public int guildMembers;
+        public int guildMessages;
+        public long elapsedMillis;
+
+        public int totalRows() {
+            return users + categories + tasks + completions + dailyXp + equipment + bosses
+                + guilds + guildMembers + guildMessages;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d rows in %d ms (%d tasks, %d completions, %d messages)",
+                totalRows(), elapsedMillis, tasks, completions, guildMessages);
+        }
+    }
+
+    private SyntheticDataGenerator() {
+    }
+
+    public static String userId(Config config, int index) {
+        return isOwner(config, index) ? config.ownerUserId : ID_PREFIX + "user-" + index;
+    }
+
+    public static String guildId(int index) {
+        return ID_PREFIX + "guild-" + index;
+    }
+
+    // Whether a dataset was already generated into database; a second one would duplicate the
+    // owner's categories and tasks
+    public static boolean isGenerated(AppDatabase database) {
+        return database.userDao().getUserById(ID_PREFIX + "user-0") != null
+            || database.userDao().getUserById(ID_PREFIX + "user-1") != null;
+    }
+
+    // Must run off the main thread, once per database
+    public static Result generate(AppDatabase database, Config config) {
+        if (isGenerated(database)) {
+            throw new IllegalStateException("Synthetic data already generated");
+        }
+        long started = System.nanoTime();
+        Result result = new Result();
+        LocalDate anchor = LocalDate.parse(ANCHOR_DATE);
+        LocalDate firstDay = anchor.minusYears(config.years);
+
+        Random userRandom = new Random(config.seed);
+        int[] levels = new int[config.users];
+        List<User> users = new ArrayList<>(config.users);
+        for (int index = 0; index < config.users; index++) {
+            levels[index] = 1 + userRandom.nextInt(20);
+            User user = new User(userId(config, index), "player" + index + "@example.com", "player" + index,
+                userRandom.nextInt(5));
+            user.setLevel(levels[index]);
+            user.setExperiencePoints(userRandom.nextInt(10_000));
+            user.setPowerPoints(40 + levels[index] * 10);
+            user.setCoins(userRandom.nextInt(5_000));
+            if (!isOwner(config, index)) {
+                users.add(user);
+            }
+        }
+        database.userDao().insertUsers(users);
+        result.users = users.size();
+
+        for (int user = 0; user < config.users; user++) {
+            // One stream per user, so a user's rows do not depend on how many users come before it
+            Random random = new Random(config.seed * 31 + user);
+            int index = user;
+            database.runInTransaction(() ->
+                generateUser(database, config, index, levels[index], random, firstDay, anchor, result));
+        }
+        Random random = new Random(config.seed * 31 - 1);
+        database.runInTransaction(() -> generateGuilds(database, config, random, firstDay, anchor, result));
+
+        result.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return result;
+    }
+
+    private static void generateUser(AppDatabase database, Config config, int index, int level, Random random,
+                                     LocalDate firstDay, LocalDate anchor, Result result) {
+        String userId = userId(config, index);
+
+        List<Category> categories = new ArrayList<>(CATEGORIES_PER_USER);
+        for (int i = 0; i < CATEGORIES_PER_USER; i++) {
+            categories.add(new Category(userId, CATEGORY_NAMES[i], CATEGORY_COLORS[i]));
+        }
+        List<Long> categoryIds = database.categoryDao().insertCategories(categories);
+        result.categories += categoryIds.size();
+
+        generateTasks(database, config, userId, categoryIds, random, firstDay, anchor, result);
+        if (isOwner(config, index)) {
+            return;
+        }
+        generateEquipment(database, userId, random, firstDay, result);
+
+        List<Boss> bosses = new ArrayList<>(level);
+        for (int bossLevel = 1; bossLevel <= level; bossLevel++) {
+            Boss boss = new Boss(userId, bossLevel, 200 * bossLevel);
+            boolean defeated = bossLevel < level;
+            boss.setCurrentHp(defeated ? 0 : 200 * bossLevel);
+            boss.setDefeated(defeated);
+            boss.setCreatedAt(epochMillis(firstDay.plusDays(bossLevel * 20L)));
+            bosses.add(boss);
+        }
+        database.bossDao().insertBosses(bosses);
+        result.bosses += bosses.size();
+    }
+
+    private static void generateTasks(AppDatabase database, Config config, String userId, List<Long> categoryIds,
+                                      Random random, LocalDate firstDay, LocalDate anchor, Result result) {
+        int days = (int) (anchor.toEpochDay() - firstDay.toEpochDay()) + FUTURE_DAYS;
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        // day number -> {xp, completions}, written once the user's tasks are in
+        TreeMap<Long, int[]> dailyXp = new TreeMap<>();
+
+        int generated = 0;
+        while (generated < config.tasksPerUser) {
+            String name = TASK_NAMES[random.nextInt(TASK_NAMES.length)];
+            int categoryId = categoryIds.get(random.nextInt(categoryIds.size())).intValue();
+            int difficulty = random.nextInt(DIFFICULTIES.length);
+            // Special tasks are rare, as their quota is one per month
+            int importance = random.nextInt(20) == 0 ? 3 : random.nextInt(3);
+            LocalDate day = firstDay.plusDays(random.nextInt(days));
+            String time = String.format(Locale.US, " %02d:%02d", 6 + random.nextInt(16), random.nextInt(4) * 15);
+
+            boolean recurring = random.nextDouble() < RECURRING_SHARE;
+            int instances = recurring ? Math.min(5 + random.nextInt(25), config.tasksPerUser - generated) : 1;
+            String unit = random.nextBoolean() ? "day" : "week";
+            int interval = 1 + random.nextInt(2);
+            // Deterministic, like everything else the generator writes
+            String seriesId = recurring ? userId + "/series-" + generated : null;
+            LocalDate lastDay = "day".equals(unit)
+                ? day.plusDays((long) interval * (instances - 1))
+                : day.plusWeeks((long) interval * (instances - 1));
+
+            for (int i = 0; i < instances; i++) {
+                LocalDate occurrence = "day".equals(unit)
+                    ? day.plusDays((long) interval * i)
+                    : day.plusWeeks((long) interval * i);
+                Task task = new Task(userId, categoryId, name, DIFFICULTIES[difficulty], IMPORTANCES[importance],
+                    DIFFICULTY_XP[difficulty] + IMPORTANCE_XP[importance]);
+                task.setStartDate(occurrence + time);
+                task.setStatus(statusFor(occurrence, anchor, random));
+                if (recurring) {
+                    task.setRecurring(true);
+                    task.setRecurrenceInterval(interval);
+                    task.setRecurrenceUnit(unit);
+                    task.setEndDate(lastDay.toString());
+                    task.setSeriesId(seriesId);
+                }
+                batch.add(task);
+                if (batch.size() == BATCH_SIZE) {
+                    insertTasks(database, batch, dailyXp, result);
+                }
+            }
+            generated += instances;
+        }
+        insertTasks(database, batch, dailyXp, result);
+        if (userId.equals(config.ownerUserId)) {
+            // REPLACE would overwrite the owner's real days
+            return;
+        }
+
+        List<DailyXp> rollups = new ArrayList<>(dailyXp.size());
+        for (Map.Entry<Long, int[]> entry : dailyXp.entrySet()) {
+            DailyXp day = new DailyXp(userId, entry.getKey());
+            day.setXp(entry.getValue()[0]);
+            day.setCompletions(entry.getValue()[1]);
+            rollups.add(day);
+        }
+        database.dailyXpDao().insertDays(rollups);
+        result.dailyXp += rollups.size();
+    }
+
+    // Inserts the batch, then one completion per completed task, and clears the batch
+    private static void insertTasks(AppDatabase database, List<Task> batch, TreeMap<Long, int[]> dailyXp, Result result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Long> ids = database.taskDao().insertTasks(batch);
+        List<TaskCompletion> completions = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Task task = batch.get(i);
+            if (!"completed".equals(task.getStatus())) {
+                continue;
+            }
+            String date = task.getStartDate().substring(0, 10);
+            completions.add(new TaskCompletion(ids.get(i).intValue(), date, task.getXpValue()));
+            int[] day = dailyXp.computeIfAbsent(DailyXp.dayNumber(date), key -> new int[2]);
+            day[0] += task.getXpValue();
+            day[1]++;
+        }
+        database.taskCompletionDao().insertTaskCompletions(completions);
+        result.tasks += batch.size();
+        result.completions += completions.size();
+        batch.clear();
+    }
+
+    // Prose-like text of about the given length from a small vocabulary. Compresses about as well
+    // as real descriptions, unlike repeated characters.
+    public static String description(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(random.nextInt(12) == 0 ? ". " : " ");
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            if (random.nextInt(20) == 0) {
+                text.append(' ').append(random.nextInt(10_000));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String statusFor(LocalDate day, LocalDate anchor, Random random) {
+        if (day.isAfter(anchor)) {
+            return "active";
+        }
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            return "completed";
+        } else if (roll < 80) {
+            return "incomplete";
+        } else if (roll < 90) {
+            return "cancelled";
+        } else if (roll < 95) {
+            return "paused";
+        }
+        return "active";
+    }
+
+    private static void generateEquipment(AppDatabase database, String userId, Random random,
+                                          LocalDate firstDay, Result result) {
+        String[][] catalog = {
+            {"Strength Potion (+20% PP)", "potion", "strength", "20", "single_use", "ic_potion1"},
+            {"Permanent Power (+10%)", "potion", "strength", "10", "permanent", "ic_potion4"},
+            {"Power Gloves", "clothing", "strength", "10", "permanent", "ic_gloves"},
+            {"Defense Shield", "clothing", "attack_chance", "10", "permanent", "ic_shield"},
+            {"Speed Boots", "clothing", "extra_attack", "40", "permanent", "ic_boots"},
+            {"Sword", "weapon", "strength", "5", "permanent", "ic_sword"}
+        };
+        int count = 3 + random.nextInt(4);
+        List<Equipment> equipment = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] item = catalog[random.nextInt(catalog.length)];
+            boolean weapon = "weapon".equals(item[1]);
+            boolean permanentPotion = "potion".equals(item[1]) && "permanent".equals(item[4]);
+            int durability = weapon || permanentPotion ? -1 : "potion".equals(item[1]) ? 1 : 2;
+            equipment.add(new Equipment(userId + "-equipment-" + i, userId, item[1], item[0], item[0],
+                50 + random.nextInt(200), item[5], item[2], Double.parseDouble(item[3]), item[4],
+                epochMillis(firstDay.plusDays(random.nextInt(365))), weapon, durability));
+        }
+        database.equipmentDao().insertEquipmentList(equipment);
+        result.equipment += equipment.size();
+    }
+
+    private static void generateGuilds(AppDatabase database, Config config, Random random,
+                                       LocalDate firstDay, LocalDate anchor, Result result) {
+        // Guilds are made of synthetic users only
+        int firstUser = config.ownerUserId != null ? 1 : 0;
+        int pool = config.users - firstUser;
+        if (pool == 0) {
+            return;
+        }
+        long firstMillis = epochMillis(firstDay);
+        long spanMillis = epochMillis(anchor) - firstMillis;
+        List<Guild> guilds = new ArrayList<>(config.guilds);
+        List<GuildMember> members = new ArrayList<>();
+        List<GuildMessage> messages = new ArrayList<>(BATCH_SIZE);
+
+        for (int g = 0; g < config.guilds; g++) {
+            String guildId = guildId(g);
+            int leader = firstUser + g % pool;
+            int memberCount = Math.min(pool, 5 + random.nextInt(6));
+            Guild guild = new Guild(guildId, "Savez " + g, "Synthetic guild " + g, userId(config, leader),
+                "player" + leader, 10);
+            guild.setCurrentMembers(memberCount);
+            guild.setCreatedAt(firstMillis);
+            guilds.add(guild);
+
+            for (int m = 0; m < memberCount; m++) {
+                int user = firstUser + (leader - firstUser + m) % pool;
+                members.add(new GuildMember(guildId + "-member-" + m, guildId, userId(config, user), "player" + user,
+                    "player" + user + "@example.com", String.valueOf(user % 5), m == 0));
+            }
+
+            // Chat history spread evenly over the years, oldest first
+            for (int i = 0; i < config.messagesPerGuild; i++) {
+                int user = firstUser + (leader - firstUser + random.nextInt(memberCount)) % pool;
+                long timestamp = firstMillis + spanMillis / config.messagesPerGuild * i + random.nextInt(60_000);
+                messages.add(new GuildMessage(guildId + "-message-" + i, guildId, userId(config, user),
+                    "player" + user, MESSAGES[random.nextInt(MESSAGES.length)], timestamp, false));
+                if (messages.size() == BATCH_SIZE) {
+                    database.guildDao().insertGuildMessages(messages);
+                    result.guildMessages += messages.size();
+                    messages.clear();
+                }
+            }
+        }
+        database.guildDao().insertGuilds(guilds);
+        database.guildDao().insertGuildMembers(members);
+        database.guildDao().insertGuildMessages(messages);
+        result.guilds += guilds.size();
+        result.guildMembers += members.size();
+        result.guildMessages += messages.size();
+    }
+
+    private static boolean isOwner(Config config, int index) {
+        return index == 0 && config.ownerUserId != null;
+    }
+
+    private static long epochMillis(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+}
@@ -15,6 +15,9 @@ public interface BossDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertBoss(Boss boss);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertBosses(List<Boss> bosses);
     
     @Update
     void updateBoss(Boss boss);
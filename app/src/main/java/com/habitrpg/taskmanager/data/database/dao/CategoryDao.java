@@ -14,6 +14,9 @@ public interface CategoryDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertCategory(Category category);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertCategories(List<Category> categories);
     
     @Update
     void updateCategory(Category category);
@@ -0,0 +1,33 @@
+package com.habitrpg.taskmanager.data.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.habitrpg.taskmanager.data.database.entities.DailyXp;
+import java.util.List;
+
+@Dao
+public interface DailyXpDao {
+
+    // Creates the day's row if missing; addCompletion then updates it in place.
+    // (The platform SQLite on minSdk 28 predates INSERT ... ON CONFLICT DO UPDATE.)
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertDay(DailyXp day);
+
+    // Bulk load of precomputed rollups, e.g. by the synthetic data generator
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertDays(List<DailyXp> days);
+
+    @Query("UPDATE daily_xp SET xp = xp + :xp, completions = completions + 1 " +
+           "WHERE user_id = :userId AND day_number = :dayNumber")
+    void addCompletion(String userId, long dayNumber, int xp);
+
+    // Days without completions have no row
+    @Query("SELECT * FROM daily_xp WHERE user_id = :userId AND day_number >= :fromDay AND day_number <= :toDay " +
+           "ORDER BY day_number ASC")
+    List<DailyXp> getDailyXp(String userId, long fromDay, long toDay);
+
+    @Query("DELETE FROM daily_xp WHERE user_id = :userId")
+    void deleteDailyXpForUser(String userId);
+}
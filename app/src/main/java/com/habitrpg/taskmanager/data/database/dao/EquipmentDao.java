@@ -16,6 +16,9 @@ public interface EquipmentDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertEquipment(Equipment equipment);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertEquipmentList(List<Equipment> equipment);
+
     @Update
     void updateEquipment(Equipment equipment);
 
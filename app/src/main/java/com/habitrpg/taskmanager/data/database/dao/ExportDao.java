@@ -0,0 +1,35 @@
+package com.habitrpg.taskmanager.data.database.dao;
+
+import android.database.Cursor;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+// Raw cursors over one user's history, for streaming export. Callers must close them.
+@Dao
+public interface ExportDao {
+
+    @Query("SELECT * FROM tasks WHERE user_id = :userId ORDER BY id ASC")
+    Cursor getTasksCursor(String userId);
+
+    @Query("SELECT tc.* FROM task_completions tc " +
+           "INNER JOIN tasks t ON tc.task_id = t.id " +
+           "WHERE t.user_id = :userId ORDER BY tc.id ASC")
+    Cursor getCompletionsCursor(String userId);
+
+    @Query("SELECT * FROM user_statistics WHERE userId = :userId")
+    Cursor getUserStatisticsCursor(String userId);
+
+    @Query("SELECT * FROM equipment WHERE user_id = :userId ORDER BY equipment_id ASC")
+    Cursor getEquipmentCursor(String userId);
+
+    @Query("SELECT * FROM bosses WHERE user_id = :userId ORDER BY id ASC")
+    Cursor getBossesCursor(String userId);
+
+    @Query("SELECT (SELECT COUNT(*) FROM tasks WHERE user_id = :userId) + " +
+           "(SELECT COUNT(*) FROM task_completions tc INNER JOIN tasks t ON tc.task_id = t.id WHERE t.user_id = :userId) + " +
+           "(SELECT COUNT(*) FROM user_statistics WHERE userId = :userId) + " +
+           "(SELECT COUNT(*) FROM equipment WHERE user_id = :userId) + " +
+           "(SELECT COUNT(*) FROM bosses WHERE user_id = :userId)")
+    int getExportRowCount(String userId);
+}
@@ -29,6 +29,9 @@ public interface GuildDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertGuild(Guild guild);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertGuilds(List<Guild> guilds);
     
     @Update
     void updateGuild(Guild guild);
@@ -63,6 +66,9 @@ public interface GuildDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertGuildMember(GuildMember guildMember);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertGuildMembers(List<GuildMember> guildMembers);
     
     @Update
     void updateGuildMember(GuildMember guildMember);
@@ -113,6 +119,9 @@ public interface GuildDao {
     // Guild Message operations
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertGuildMessage(GuildMessage message);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertGuildMessages(List<GuildMessage> messages);
     
     @Query("SELECT * FROM guild_messages WHERE guild_id = :guildId ORDER BY timestamp ASC")
     List<GuildMessage> getGuildMessages(String guildId);
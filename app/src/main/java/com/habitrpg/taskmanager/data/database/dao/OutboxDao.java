@@ -0,0 +1,27 @@
+package com.habitrpg.taskmanager.data.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import com.habitrpg.taskmanager.data.database.entities.OutboxEntry;
+import java.util.List;
+
+@Dao
+public interface OutboxDao {
+
+    @Insert
+    long insertEntry(OutboxEntry entry);
+
+    // Oldest first so mutations reach Firestore in the order they were made locally
+    @Query("SELECT * FROM outbox ORDER BY id ASC LIMIT :limit")
+    List<OutboxEntry> getPendingEntries(int limit);
+
+    @Query("SELECT COUNT(*) FROM outbox")
+    int getPendingCount();
+
+    @Query("DELETE FROM outbox WHERE id IN (:ids)")
+    void deleteEntries(List<Long> ids);
+
+    @Query("UPDATE outbox SET attempts = attempts + 1, next_attempt_at = :nextAttemptAt, last_error = :error WHERE id IN (:ids)")
+    void markFailed(List<Long> ids, long nextAttemptAt, String error);
+}
@@ -0,0 +1,20 @@
+package com.habitrpg.taskmanager.data.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.habitrpg.taskmanager.data.database.entities.SyncWatermark;
+
+@Dao
+public interface SyncWatermarkDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertWatermark(SyncWatermark watermark);
+
+    @Query("SELECT updated_at FROM sync_watermarks WHERE user_id = :userId AND collection = :collection")
+    Long getWatermark(String userId, String collection);
+
+    @Query("DELETE FROM sync_watermarks WHERE user_id = :userId")
+    void deleteWatermarksForUser(String userId);
+}
@@ -13,6 +13,9 @@ public interface TaskCompletionDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertTaskCompletion(TaskCompletion taskCompletion);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertTaskCompletions(List<TaskCompletion> taskCompletions);
     
     @Query("SELECT * FROM task_completions WHERE task_id = :taskId ORDER BY completed_date DESC")
     List<TaskCompletion> getCompletionsByTaskId(int taskId);
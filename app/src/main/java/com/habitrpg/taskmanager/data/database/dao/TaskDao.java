@@ -14,6 +14,10 @@ public interface TaskDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertTask(Task task);
+
+    // One compiled statement for the whole list; ids are returned in list order
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertTasks(List<Task> tasks);
     
     @Update
     void updateTask(Task task);
@@ -48,8 +52,44 @@ public interface TaskDao {
     @Query("SELECT * FROM tasks WHERE user_id = :userId AND DATE(start_date) >= :startDate AND DATE(start_date) <= :endDate ORDER BY start_date ASC")
     List<Task> getTasksInDateRange(String userId, String startDate, String endDate);
     
+    // Plain string bounds on start_date keep this on the (user_id, start_date) index
+    @Query("SELECT * FROM tasks WHERE user_id = :userId AND start_date >= :fromDate AND start_date < :toDate ORDER BY start_date ASC")
+    List<Task> getTasksStartingBetween(String userId, String fromDate, String toDate);
+
     @Query("DELETE FROM tasks WHERE id = :taskId")
     void deleteTaskById(int taskId);
+
+    // Bulk variants for multi-select; each id is one bind variable, so callers keep lists well
+    // under SQLite's limit of 999
+    @Query("SELECT * FROM tasks WHERE id IN (:taskIds)")
+    List<Task> getTasksByIds(List<Integer> taskIds);
+
+    @Query("UPDATE tasks SET status = :status WHERE id IN (:taskIds)")
+    void updateTaskStatuses(List<Integer> taskIds, String status);
+
+    @Query("DELETE FROM tasks WHERE id IN (:taskIds)")
+    void deleteTasksByIds(List<Integer> taskIds);
+
+    // Series edits from fromDate (YYYY-MM-DD) onward, one statement on the (series_id, start_date)
+    // index however long the series. Completed occurrences are history and stay as they are.
+    // Instance names carry their date, as createRecurringInstances names them.
+    @Query("UPDATE tasks SET name = :name || ' (' || substr(start_date, 1, 10) || ')', " +
+           "category_id = :categoryId, difficulty = :difficulty, importance = :importance, xp_value = :xpValue " +
+           "WHERE series_id = :seriesId AND start_date >= :fromDate AND status != 'completed'")
+    int updateSeriesFrom(String seriesId, String fromDate, String name, int categoryId,
+                         String difficulty, String importance, int xpValue);
+
+    @Query("DELETE FROM tasks WHERE series_id = :seriesId AND start_date >= :fromDate AND status != 'completed'")
+    int deleteSeriesFrom(String seriesId, String fromDate);
+
+    // :query is an FTS4 MATCH expression. FTS4 has no bm25(), so rows are ranked by term hits,
+    // most recent first among equals. offsets() lists four space-separated integers per hit, so
+    // the hit count is (spaces + 1) / 4; its string length would favour hits at larger offsets.
+    @Query("SELECT tasks.* FROM tasks JOIN tasks_fts ON tasks.id = tasks_fts.rowid " +
+           "WHERE tasks_fts MATCH :query AND tasks.user_id = :userId " +
+           "ORDER BY (length(offsets(tasks_fts)) - length(replace(offsets(tasks_fts), ' ', '')) + 1) / 4 DESC, " +
+           "tasks.start_date DESC LIMIT :limit OFFSET :offset")
+    List<Task> searchTasks(String userId, String query, int limit, int offset);
     
     
     @Query("SELECT COUNT(*) FROM tasks WHERE user_id = :userId AND difficulty = :difficulty AND importance = :importance AND DATE(start_date) = :date AND status = 'active'")
@@ -6,12 +6,16 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
 import com.habitrpg.taskmanager.data.database.entities.User;
+import java.util.List;
 
 @Dao
 public interface UserDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertUser(User user);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertUsers(List<User> users);
     
     @Update
     void updateUser(User user);
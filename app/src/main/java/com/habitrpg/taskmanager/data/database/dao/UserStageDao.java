@@ -0,0 +1,28 @@
+package com.habitrpg.taskmanager.data.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.habitrpg.taskmanager.data.database.entities.UserStage;
+import java.util.List;
+
+@Dao
+public interface UserStageDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertStage(UserStage stage);
+
+    // Returns the number of stages closed, 0 when none was open
+    @Query("UPDATE user_stages SET ended_at = :endedAt WHERE user_id = :userId AND ended_at IS NULL")
+    int closeOpenStage(String userId, long endedAt);
+
+    @Query("SELECT * FROM user_stages WHERE user_id = :userId AND level = :level LIMIT 1")
+    UserStage getStage(String userId, int level);
+
+    @Query("SELECT * FROM user_stages WHERE user_id = :userId ORDER BY level ASC")
+    List<UserStage> getStages(String userId);
+
+    @Query("DELETE FROM user_stages WHERE user_id = :userId")
+    void deleteStagesForUser(String userId);
+}
@@ -0,0 +1,71 @@
+package com.habitrpg.taskmanager.data.database.entities;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+
+// XP earned per user and day, rolled up as completions are recorded so that progress charts
+// read one row per day instead of scanning task_completions.
+@Entity(tableName = "daily_xp", primaryKeys = {"user_id", "day_number"})
+public class DailyXp {
+    @ColumnInfo(name = "user_id")
+    @NonNull
+    private String userId;
+
+    @ColumnInfo(name = "day_number")
+    private long dayNumber; // Days since 1970-01-01
+
+    private int xp;
+
+    private int completions;
+
+    public DailyXp() {}
+
+    @Ignore
+    public DailyXp(@NonNull String userId, long dayNumber) {
+        this.userId = userId;
+        this.dayNumber = dayNumber;
+    }
+
+    // date is "yyyy-MM-dd", as stored in task_completions.completed_date
+    public static long dayNumber(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(@NonNull String userId) {
+        this.userId = userId;
+    }
+
+    public long getDayNumber() {
+        return dayNumber;
+    }
+
+    public void setDayNumber(long dayNumber) {
+        this.dayNumber = dayNumber;
+    }
+
+    public int getXp() {
+        return xp;
+    }
+
+    public void setXp(int xp) {
+        this.xp = xp;
+    }
+
+    public int getCompletions() {
+        return completions;
+    }
+
+    public void setCompletions(int completions) {
+        this.completions = completions;
+    }
+}
@@ -3,12 +3,13 @@ package com.habitrpg.taskmanager.data.database.entities;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.annotation.NonNull;
 
 import java.util.UUID;
 
-@Entity(tableName = "guild_messages")
+@Entity(tableName = "guild_messages", indices = {@Index(value = {"guild_id", "timestamp"})})
 public class GuildMessage {
     @PrimaryKey
     @NonNull
@@ -0,0 +1,135 @@
+package com.habitrpg.taskmanager.data.database.entities;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+@Entity(tableName = "outbox")
+public class OutboxEntry {
+    public static final String OP_SET = "set";
+    public static final String OP_MERGE = "merge";
+    public static final String OP_UPDATE = "update";
+    public static final String OP_DELETE = "delete";
+    // Updates every document of the collection whose WHERE_FIELD equals document_id,
+    // looked up when the entry is sent
+    public static final String OP_UPDATE_WHERE = "update_where";
+    public static final String WHERE_FIELD = "_where";
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    @NonNull
+    private String collection;
+
+    @ColumnInfo(name = "document_id")
+    @NonNull
+    private String documentId;
+
+    @NonNull
+    private String operation; // 'set', 'merge', 'update', 'delete', 'update_where'
+
+    private String payload; // JSON object with the document fields, null for deletes
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    private int attempts;
+
+    @ColumnInfo(name = "next_attempt_at")
+    private long nextAttemptAt;
+
+    @ColumnInfo(name = "last_error")
+    private String lastError;
+
+    public OutboxEntry() {}
+
+    @Ignore
+    public OutboxEntry(@NonNull String collection, @NonNull String documentId,
+                       @NonNull String operation, String payload) {
+        this.collection = collection;
+        this.documentId = documentId;
+        this.operation = operation;
+        this.payload = payload;
+        this.createdAt = System.currentTimeMillis();
+        this.attempts = 0;
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(@NonNull String collection) {
+        this.collection = collection;
+    }
+
+    @NonNull
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(@NonNull String documentId) {
+        this.documentId = documentId;
+    }
+
+    @NonNull
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(@NonNull String operation) {
+        this.operation = operation;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,57 @@
+package com.habitrpg.taskmanager.data.database.entities;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.annotation.NonNull;
+
+// Newest remote updatedAt applied locally, per user and synced collection. Kept in Room
+// rather than SharedPreferences so a destructive migration resets it together with the data.
+@Entity(tableName = "sync_watermarks", primaryKeys = {"user_id", "collection"})
+public class SyncWatermark {
+    @ColumnInfo(name = "user_id")
+    @NonNull
+    private String userId;
+
+    @NonNull
+    private String collection;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public SyncWatermark() {}
+
+    @Ignore
+    public SyncWatermark(@NonNull String userId, @NonNull String collection, long updatedAt) {
+        this.userId = userId;
+        this.collection = collection;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(@NonNull String userId) {
+        this.userId = userId;
+    }
+
+    @NonNull
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(@NonNull String collection) {
+        this.collection = collection;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
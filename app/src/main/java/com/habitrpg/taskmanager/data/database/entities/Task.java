@@ -3,10 +3,11 @@ package com.habitrpg.taskmanager.data.database.entities;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.annotation.NonNull;
 
-@Entity(tableName = "tasks")
+@Entity(tableName = "tasks", indices = {@Index(value = {"user_id", "start_date"}), @Index(value = {"series_id", "start_date"})})
 public class Task {
     @PrimaryKey(autoGenerate = true)
     private int id;
@@ -47,6 +48,10 @@ public class Task {
     @ColumnInfo(name = "end_date")
     private String endDate; // Format: YYYY-MM-DD
 
+    // Shared by all instances of one recurring task; null for single tasks
+    @ColumnInfo(name = "series_id")
+    private String seriesId;
+
     @NonNull
     private String status = "active"; // 'active', 'completed', 'incomplete', 'paused', 'cancelled'
 
@@ -172,6 +177,14 @@ public class Task {
         this.endDate = endDate;
     }
 
+    public String getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(String seriesId) {
+        this.seriesId = seriesId;
+    }
+
     @NonNull
     public String getStatus() {
         return status;
@@ -3,9 +3,10 @@ package com.habitrpg.taskmanager.data.database.entities;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "task_completions")
+@Entity(tableName = "task_completions", indices = {@Index(value = {"task_id", "completed_date"})})
 public class TaskCompletion {
     @PrimaryKey(autoGenerate = true)
     private int id;
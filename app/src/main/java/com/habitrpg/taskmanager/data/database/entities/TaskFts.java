@@ -0,0 +1,32 @@
+package com.habitrpg.taskmanager.data.database.entities;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+// External-content FTS index over tasks.name and tasks.description. Room creates the triggers
+// that keep it in sync with the tasks table; its rowid is the task id.
+@Fts4(contentEntity = Task.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "tasks_fts")
+public class TaskFts {
+
+    private String name;
+
+    private String description;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,70 @@
+package com.habitrpg.taskmanager.data.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+
+// The span a user spent at one level, written in the same transaction as the level change.
+// The boss fought on reaching level L judges the tasks of stage L - 1.
+@Entity(tableName = "user_stages", primaryKeys = {"user_id", "level"})
+public class UserStage {
+    @ColumnInfo(name = "user_id")
+    @NonNull
+    private String userId;
+
+    private int level;
+
+    @ColumnInfo(name = "started_at")
+    private long startedAt; // Epoch millis; 0 when the stage began before stages were recorded
+
+    @ColumnInfo(name = "ended_at")
+    @Nullable
+    private Long endedAt; // Epoch millis; null for the current stage
+
+    public UserStage() {}
+
+    @Ignore
+    public UserStage(@NonNull String userId, int level, long startedAt, @Nullable Long endedAt) {
+        this.userId = userId;
+        this.level = level;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(@NonNull String userId) {
+        this.userId = userId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    @Nullable
+    public Long getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(@Nullable Long endedAt) {
+        this.endedAt = endedAt;
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 
 import com.habitrpg.taskmanager.data.database.AppDatabase;
 import com.habitrpg.taskmanager.data.database.entities.UserStatistics;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,7 +36,7 @@ public class UserStatisticsRepository {
     public void insertUserStatistics(UserStatistics userStatistics, UserStatisticsCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserStatisticsRepository.insertUserStatistics", () -> {
             try {
                 database.userStatisticsDao().insertUserStatistics(userStatistics);
                 if (callback != null) {
@@ -46,13 +47,13 @@ public class UserStatisticsRepository {
                     callback.onError("Failed to save user statistics: " + e.getMessage());
                 }
             }
-        });
+        }));
     }
     
     public void updateUserStatistics(UserStatistics userStatistics, UserStatisticsCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserStatisticsRepository.updateUserStatistics", () -> {
             try {
                 database.userStatisticsDao().updateUserStatistics(userStatistics);
                 if (callback != null) {
@@ -63,13 +64,13 @@ public class UserStatisticsRepository {
                     callback.onError("Failed to update user statistics: " + e.getMessage());
                 }
             }
-        });
+        }));
     }
     
     public void getUserStatisticsByUserId(String userId, UserStatisticsCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserStatisticsRepository.getUserStatisticsByUserId", () -> {
             try {
                 UserStatistics statistics = database.userStatisticsDao().getUserStatisticsByUserId(userId);
                 if (callback != null) {
@@ -80,13 +81,13 @@ public class UserStatisticsRepository {
                     callback.onError("Failed to get user statistics: " + e.getMessage());
                 }
             }
-        });
+        }));
     }
     
     public void deleteUserStatisticsByUserId(String userId, UserStatisticsCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserStatisticsRepository.deleteUserStatisticsByUserId", () -> {
             try {
                 database.userStatisticsDao().deleteUserStatisticsByUserId(userId);
                 if (callback != null) {
@@ -97,7 +98,7 @@ public class UserStatisticsRepository {
                     callback.onError("Failed to delete user statistics: " + e.getMessage());
                 }
             }
-        });
+        }));
     }
     
     public void shutdown() {
@@ -1,20 +1,30 @@
 package com.habitrpg.taskmanager.data.firebase;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FirebaseFirestoreSettings;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.habitrpg.taskmanager.data.database.entities.OutboxEntry;
 import com.habitrpg.taskmanager.data.database.entities.User;
 import com.habitrpg.taskmanager.data.database.entities.Category;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Date;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.google.firebase.firestore.QuerySnapshot;
 
@@ -52,9 +62,16 @@ public class FirebaseManager {
         return getCurrentUser() != null;
     }
     
-    public void createUserDocument(User user, OnCompleteListener listener) {
-        Map<String, Object> userData = new HashMap<>();
+    // Document payload builders, shared by the direct writes below and the outbox
+    public static Map<String, Object> userDocumentData(User user) {
+        Map<String, Object> userData = userUpdateData(user);
         userData.put("email", user.getEmail());
+        userData.put("createdAt", System.currentTimeMillis());
+        return userData;
+    }
+    
+    public static Map<String, Object> userUpdateData(User user) {
+        Map<String, Object> userData = new HashMap<>();
         userData.put("username", user.getUsername());
         userData.put("avatarId", user.getAvatarId());
         userData.put("level", user.getLevel());
@@ -62,11 +79,270 @@ public class FirebaseManager {
         userData.put("powerPoints", user.getPowerPoints());
         userData.put("experiencePoints", user.getExperiencePoints());
         userData.put("coins", user.getCoins());
-        userData.put("createdAt", System.currentTimeMillis());
+        return userData;
+    }
+    
+    public static Map<String, Object> guildDocumentData(String guildId, String guildName, String description,
+                                                        String leaderId, String leaderUsername, int maxMembers) {
+        Map<String, Object> guildData = new HashMap<>();
+        guildData.put("guildId", guildId);
+        guildData.put("guildName", guildName);
+        guildData.put("description", description);
+        guildData.put("leaderId", leaderId);
+        guildData.put("leaderUsername", leaderUsername);
+        guildData.put("maxMembers", maxMembers);
+        guildData.put("memberCount", 1);
+        guildData.put("isActive", true);
+        guildData.put("missionStarted", false);
+        guildData.put("createdAt", System.currentTimeMillis());
+        return guildData;
+    }
+    
+    public static Map<String, Object> guildMemberData(String memberId, String guildId, String userId,
+                                                      String username, String email, int avatarId,
+                                                      boolean isLeader) {
+        Map<String, Object> memberData = new HashMap<>();
+        memberData.put("memberId", memberId);
+        memberData.put("guildId", guildId);
+        memberData.put("userId", userId);
+        memberData.put("username", username);
+        memberData.put("email", email);
+        memberData.put("avatarId", avatarId);
+        memberData.put("isLeader", isLeader);
+        memberData.put("isActive", true);
+        memberData.put("joinedAt", System.currentTimeMillis());
+        return memberData;
+    }
+    
+    public static Map<String, Object> inactiveData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("isActive", false);
+        return data;
+    }
+    
+    public static Map<String, Object> guildMessageData(String messageId, String guildId, String userId,
+                                                       String username, String messageText, long timestamp) {
+        Map<String, Object> messageData = new HashMap<>();
+        messageData.put("messageId", messageId);
+        messageData.put("guildId", guildId);
+        messageData.put("userId", userId);
+        messageData.put("username", username);
+        messageData.put("messageText", messageText);
+        messageData.put("timestamp", timestamp);
+        messageData.put("systemMessage", false);
+        return messageData;
+    }
+    
+    public static Map<String, Object> guildInviteData(String inviteId, String guildId, String guildName,
+                                                      String fromUserId, String fromUsername,
+                                                      String toUserId, String toUsername) {
+        Map<String, Object> inviteData = new HashMap<>();
+        inviteData.put("inviteId", inviteId);
+        inviteData.put("guildId", guildId);
+        inviteData.put("guildName", guildName);
+        inviteData.put("fromUserId", fromUserId);
+        inviteData.put("fromUsername", fromUsername);
+        inviteData.put("toUserId", toUserId);
+        inviteData.put("toUsername", toUsername);
+        inviteData.put("status", "pending");
+        inviteData.put("createdAt", System.currentTimeMillis());
+        return inviteData;
+    }
+    
+    public static Map<String, Object> statusUpdateData(String status) {
+        Map<String, Object> updateData = new HashMap<>();
+        updateData.put("status", status);
+        updateData.put("respondedAt", System.currentTimeMillis());
+        return updateData;
+    }
+    
+    // Friend documents are keyed by the sorted user ID pair, so both users derive the same IDs
+    // and every friend operation can address its documents directly instead of querying for them
+    public static String friendPairId(String userId, String otherUserId) {
+        return userId.compareTo(otherUserId) <= 0
+            ? userId + "_" + otherUserId
+            : otherUserId + "_" + userId;
+    }
+    
+    // At most one request per pair; a request sent again after a decline reuses the document
+    public static String friendRequestId(String fromUserId, String toUserId) {
+        return friendPairId(fromUserId, toUserId);
+    }
+    
+    // One friendship document per side, owned by userId
+    public static String friendshipId(String userId, String friendUserId) {
+        return friendPairId(userId, friendUserId) + "_" + userId;
+    }
+    
+    public static Map<String, Object> friendRequestData(String requestId, String fromUserId, String fromUsername,
+                                                        String fromEmail, int fromAvatarId,
+                                                        String toUserId, String toUsername) {
+        Map<String, Object> requestData = new HashMap<>();
+        requestData.put("requestId", requestId);
+        requestData.put("fromUserId", fromUserId);
+        requestData.put("fromUsername", fromUsername);
+        requestData.put("fromEmail", fromEmail);
+        requestData.put("fromAvatarId", fromAvatarId);
+        requestData.put("toUserId", toUserId);
+        requestData.put("toUsername", toUsername);
+        requestData.put("status", "pending");
+        requestData.put("createdAt", System.currentTimeMillis());
+        return requestData;
+    }
+    
+    public static Map<String, Object> friendData(String friendshipId, String userId, String friendUserId,
+                                                 String friendUsername, String friendEmail, int friendAvatarId) {
+        Map<String, Object> friendData = new HashMap<>();
+        friendData.put("friendshipId", friendshipId);
+        friendData.put("userId", userId);
+        friendData.put("friendUserId", friendUserId);
+        friendData.put("friendUsername", friendUsername);
+        friendData.put("friendEmail", friendEmail);
+        friendData.put("friendAvatarId", friendAvatarId);
+        friendData.put("status", "accepted");
+        friendData.put("createdAt", System.currentTimeMillis());
+        return friendData;
+    }
+    
+    // Applies queued outbox mutations as one atomic WriteBatch. Every entry targets an explicit
+    // document ID or, for update_where, the documents a query finds when the batch is built, so
+    // replaying a batch after a lost acknowledgement is harmless. Written documents get a
+    // server-side updatedAt, which delta sync uses as its watermark.
+    public void commitOutboxBatch(List<OutboxEntry> entries, OnCompleteListener listener) {
+        List<Task<QuerySnapshot>> lookups = new ArrayList<>();
+        for (OutboxEntry entry : entries) {
+            if (OutboxEntry.OP_UPDATE_WHERE.equals(entry.getOperation())) {
+                String field;
+                try {
+                    field = (String) OutboxPayload.decode(entry.getPayload()).get(OutboxEntry.WHERE_FIELD);
+                } catch (Exception e) {
+                    if (listener != null) {
+                        listener.onComplete(false, e);
+                    }
+                    return;
+                }
+                lookups.add(db.collection(entry.getCollection())
+                    .whereEqualTo(field, entry.getDocumentId())
+                    .get()
+                    .addOnCompleteListener(Metrics.firestore("commitOutboxBatch.lookup")));
+            }
+        }
+        
+        if (lookups.isEmpty()) {
+            commitOutboxBatch(entries, new ArrayList<>(), listener);
+            return;
+        }
+        Tasks.whenAllComplete(lookups).addOnCompleteListener(done -> {
+            List<QuerySnapshot> snapshots = new ArrayList<>();
+            for (Task<QuerySnapshot> lookup : lookups) {
+                if (!lookup.isSuccessful()) {
+                    if (listener != null) {
+                        listener.onComplete(false, lookup.getException());
+                    }
+                    return;
+                }
+                snapshots.add(lookup.getResult());
+            }
+            commitOutboxBatch(entries, snapshots, listener);
+        });
+    }
+    
+    // snapshots holds the lookup results of the update_where entries, in entry order
+    private void commitOutboxBatch(List<OutboxEntry> entries, List<QuerySnapshot> snapshots,
+                                   OnCompleteListener listener) {
+        WriteBatch batch = db.batch();
+        int lookup = 0;
+        try {
+            for (OutboxEntry entry : entries) {
+                DocumentReference ref = db.collection(entry.getCollection()).document(entry.getDocumentId());
+                switch (entry.getOperation()) {
+                    case OutboxEntry.OP_SET:
+                        batch.set(ref, withUpdatedAt(OutboxPayload.decode(entry.getPayload())));
+                        break;
+                    case OutboxEntry.OP_MERGE:
+                        batch.set(ref, withUpdatedAt(OutboxPayload.decode(entry.getPayload())), SetOptions.merge());
+                        break;
+                    case OutboxEntry.OP_UPDATE:
+                        batch.update(ref, withUpdatedAt(OutboxPayload.decode(entry.getPayload())));
+                        break;
+                    case OutboxEntry.OP_DELETE:
+                        batch.delete(ref);
+                        break;
+                    case OutboxEntry.OP_UPDATE_WHERE:
+                        for (QueryDocumentSnapshot doc : snapshots.get(lookup++)) {
+                            Map<String, Object> data = OutboxPayload.decode(entry.getPayload());
+                            data.remove(OutboxEntry.WHERE_FIELD);
+                            batch.update(doc.getReference(), withUpdatedAt(data));
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown outbox operation: " + entry.getOperation());
+                }
+            }
+        } catch (Exception e) {
+            if (listener != null) {
+                listener.onComplete(false, e);
+            }
+            return;
+        }
+        
+        batch.commit()
+            .addOnCompleteListener(Metrics.firestore("commitOutboxBatch"))
+            .addOnCompleteListener(task -> {
+                if (listener != null) {
+                    listener.onComplete(task.isSuccessful(), task.getException());
+                }
+            });
+    }
+    
+    private static Map<String, Object> withUpdatedAt(Map<String, Object> data) {
+        data.put("updatedAt", FieldValue.serverTimestamp());
+        return data;
+    }
+    
+    // Documents whose field equals value and that changed after sinceMillis. A zero watermark
+    // fetches everything, which also covers documents written before updatedAt existed.
+    public void getChangedDocuments(String collection, String field, String value, long sinceMillis,
+                                    ChangedDocumentsListener listener) {
+        Query query = db.collection(collection).whereEqualTo(field, value);
+        if (sinceMillis > 0) {
+            query = query.whereGreaterThan("updatedAt", new Timestamp(new Date(sinceMillis)));
+        }
+        
+        query.get()
+            .addOnCompleteListener(Metrics.firestore("getChangedDocuments"))
+            .addOnCompleteListener(task -> {
+                if (!task.isSuccessful()) {
+                    listener.onError("Failed to fetch " + collection + ": " +
+                        (task.getException() != null ? task.getException().getMessage() : "Unknown error"));
+                    return;
+                }
+                
+                List<Map<String, Object>> documents = new ArrayList<>();
+                long newestUpdate = sinceMillis;
+                for (QueryDocumentSnapshot document : task.getResult()) {
+                    documents.add(document.getData());
+                    Timestamp updatedAt = document.getTimestamp("updatedAt");
+                    if (updatedAt != null) {
+                        newestUpdate = Math.max(newestUpdate, updatedAt.toDate().getTime());
+                    }
+                }
+                listener.onDocumentsRetrieved(documents, newestUpdate);
+            });
+    }
+    
+    public interface ChangedDocumentsListener {
+        void onDocumentsRetrieved(List<Map<String, Object>> documents, long newestUpdate);
+        void onError(String error);
+    }
+    
+    public void createUserDocument(User user, OnCompleteListener listener) {
+        Map<String, Object> userData = userDocumentData(user);
         
         db.collection("users")
             .document(user.getId())
             .set(userData)
+            .addOnCompleteListener(Metrics.firestore("createUserDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -75,18 +351,12 @@ public class FirebaseManager {
     }
     
     public void updateUserDocument(User user, OnCompleteListener listener) {
-        Map<String, Object> userData = new HashMap<>();
-        userData.put("username", user.getUsername());
-        userData.put("avatarId", user.getAvatarId());
-        userData.put("level", user.getLevel());
-        userData.put("title", user.getTitle());
-        userData.put("powerPoints", user.getPowerPoints());
-        userData.put("experiencePoints", user.getExperiencePoints());
-        userData.put("coins", user.getCoins());
+        Map<String, Object> userData = userUpdateData(user);
         
         db.collection("users")
             .document(user.getId())
             .update(userData)
+            .addOnCompleteListener(Metrics.firestore("updateUserDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -98,6 +368,7 @@ public class FirebaseManager {
         db.collection("users")
             .document(userId)
             .get()
+            .addOnCompleteListener(Metrics.firestore("getUserDocument"))
             .addOnSuccessListener(documentSnapshot -> {
                 if (documentSnapshot.exists()) {
                     Map<String, Object> data = documentSnapshot.getData();
@@ -133,6 +404,7 @@ public class FirebaseManager {
     public void searchUsersByUsername(String username, UserSearchListener listener) {
         db.collection("users")
             .get()
+            .addOnCompleteListener(Metrics.firestore("searchUsersByUsername"))
             .addOnCompleteListener(task -> {
                 if (task.isSuccessful()) {
                     List<User> users = new ArrayList<>();
@@ -164,6 +436,7 @@ public class FirebaseManager {
             .whereEqualTo("username", username)
             .limit(1)
             .get()
+            .addOnCompleteListener(Metrics.firestore("getUserByUsername"))
             .addOnCompleteListener(task -> {
                 if (task.isSuccessful() && !task.getResult().isEmpty()) {
                     QueryDocumentSnapshot document = (QueryDocumentSnapshot) task.getResult().getDocuments().get(0);
@@ -204,21 +477,13 @@ public class FirebaseManager {
     public void createGuildDocument(String guildId, String guildName, String description, 
                                    String leaderId, String leaderUsername, int maxMembers, 
                                    OnCompleteListener listener) {
-        Map<String, Object> guildData = new HashMap<>();
-        guildData.put("guildId", guildId);
-        guildData.put("guildName", guildName);
-        guildData.put("description", description);
-        guildData.put("leaderId", leaderId);
-        guildData.put("leaderUsername", leaderUsername);
-        guildData.put("maxMembers", maxMembers);
-        guildData.put("memberCount", 1);
-        guildData.put("isActive", true);
-        guildData.put("missionStarted", false);
-        guildData.put("createdAt", System.currentTimeMillis());
+        Map<String, Object> guildData = guildDocumentData(guildId, guildName, description,
+            leaderId, leaderUsername, maxMembers);
         
         db.collection("guilds")
             .document(guildId)
             .set(guildData)
+            .addOnCompleteListener(Metrics.firestore("createGuildDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -230,6 +495,7 @@ public class FirebaseManager {
         db.collection("guilds")
             .document(guildId)
             .get()
+            .addOnCompleteListener(Metrics.firestore("getGuildDocument"))
             .addOnSuccessListener(documentSnapshot -> {
                 if (documentSnapshot.exists()) {
                     Map<String, Object> data = documentSnapshot.getData();
@@ -257,20 +523,13 @@ public class FirebaseManager {
     public void addGuildMemberDocument(String memberId, String guildId, String userId, 
                                       String username, String email, int avatarId, 
                                       boolean isLeader, OnCompleteListener listener) {
-        Map<String, Object> memberData = new HashMap<>();
-        memberData.put("memberId", memberId);
-        memberData.put("guildId", guildId);
-        memberData.put("userId", userId);
-        memberData.put("username", username);
-        memberData.put("email", email);
-        memberData.put("avatarId", avatarId);
-        memberData.put("isLeader", isLeader);
-        memberData.put("isActive", true);
-        memberData.put("joinedAt", System.currentTimeMillis());
+        Map<String, Object> memberData = guildMemberData(memberId, guildId, userId,
+            username, email, avatarId, isLeader);
         
         db.collection("guild_members")
             .document(memberId)
             .set(memberData)
+            .addOnCompleteListener(Metrics.firestore("addGuildMemberDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -336,6 +595,7 @@ public class FirebaseManager {
         db.collection("guild_members")
             .document(memberId)
             .update("isActive", false)
+            .addOnCompleteListener(Metrics.firestore("removeGuildMemberDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -348,12 +608,14 @@ public class FirebaseManager {
         db.collection("guilds")
             .document(guildId)
             .update("isActive", false)
+            .addOnCompleteListener(Metrics.firestore("disbandGuildDocument"))
             .addOnCompleteListener(task -> {
                 if (task.isSuccessful()) {
                     // Deactivate all members
                     db.collection("guild_members")
                         .whereEqualTo("guildId", guildId)
                         .get()
+                        .addOnCompleteListener(Metrics.firestore("disbandGuildDocument.members"))
                         .addOnSuccessListener(querySnapshot -> {
                             for (QueryDocumentSnapshot doc : querySnapshot) {
                                 doc.getReference().update("isActive", false);
@@ -378,18 +640,13 @@ public class FirebaseManager {
     public void sendGuildMessageDocument(String messageId, String guildId, String userId, 
                                         String username, String messageText, long timestamp,
                                         OnCompleteListener listener) {
-        Map<String, Object> messageData = new HashMap<>();
-        messageData.put("messageId", messageId);
-        messageData.put("guildId", guildId);
-        messageData.put("userId", userId);
-        messageData.put("username", username);
-        messageData.put("messageText", messageText);
-        messageData.put("timestamp", timestamp);
-        messageData.put("systemMessage", false);
+        Map<String, Object> messageData = guildMessageData(messageId, guildId, userId,
+            username, messageText, timestamp);
         
         db.collection("guild_messages")
             .document(messageId)
             .set(messageData)
+            .addOnCompleteListener(Metrics.firestore("sendGuildMessageDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -446,20 +703,13 @@ public class FirebaseManager {
                                        String fromUserId, String fromUsername,
                                        String toUserId, String toUsername,
                                        OnCompleteListener listener) {
-        Map<String, Object> inviteData = new HashMap<>();
-        inviteData.put("inviteId", inviteId);
-        inviteData.put("guildId", guildId);
-        inviteData.put("guildName", guildName);
-        inviteData.put("fromUserId", fromUserId);
-        inviteData.put("fromUsername", fromUsername);
-        inviteData.put("toUserId", toUserId);
-        inviteData.put("toUsername", toUsername);
-        inviteData.put("status", "pending");
-        inviteData.put("createdAt", System.currentTimeMillis());
+        Map<String, Object> inviteData = guildInviteData(inviteId, guildId, guildName,
+            fromUserId, fromUsername, toUserId, toUsername);
         
         db.collection("guild_invites")
             .document(inviteId)
             .set(inviteData)
+            .addOnCompleteListener(Metrics.firestore("sendGuildInviteDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -468,13 +718,12 @@ public class FirebaseManager {
     }
     
     public void updateGuildInviteStatus(String inviteId, String status, OnCompleteListener listener) {
-        Map<String, Object> updateData = new HashMap<>();
-        updateData.put("status", status);
-        updateData.put("respondedAt", System.currentTimeMillis());
+        Map<String, Object> updateData = statusUpdateData(status);
         
         db.collection("guild_invites")
             .document(inviteId)
             .update(updateData)
+            .addOnCompleteListener(Metrics.firestore("updateGuildInviteStatus"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -520,20 +769,13 @@ public class FirebaseManager {
                                          String fromEmail, int fromAvatarId,
                                          String toUserId, String toUsername,
                                          OnCompleteListener listener) {
-        Map<String, Object> requestData = new HashMap<>();
-        requestData.put("requestId", requestId);
-        requestData.put("fromUserId", fromUserId);
-        requestData.put("fromUsername", fromUsername);
-        requestData.put("fromEmail", fromEmail);
-        requestData.put("fromAvatarId", fromAvatarId);
-        requestData.put("toUserId", toUserId);
-        requestData.put("toUsername", toUsername);
-        requestData.put("status", "pending");
-        requestData.put("createdAt", System.currentTimeMillis());
+        Map<String, Object> requestData = friendRequestData(requestId, fromUserId, fromUsername,
+            fromEmail, fromAvatarId, toUserId, toUsername);
         
         db.collection("friend_requests")
             .document(requestId)
             .set(requestData)
+            .addOnCompleteListener(Metrics.firestore("sendFriendRequestDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -542,13 +784,12 @@ public class FirebaseManager {
     }
     
     public void updateFriendRequestStatus(String requestId, String status, OnCompleteListener listener) {
-        Map<String, Object> updateData = new HashMap<>();
-        updateData.put("status", status);
-        updateData.put("respondedAt", System.currentTimeMillis());
+        Map<String, Object> updateData = statusUpdateData(status);
         
         db.collection("friend_requests")
             .document(requestId)
             .update(updateData)
+            .addOnCompleteListener(Metrics.firestore("updateFriendRequestStatus"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -559,19 +800,13 @@ public class FirebaseManager {
     public void createFriendDocument(String friendshipId, String userId, String friendUserId,
                                     String friendUsername, String friendEmail, int friendAvatarId,
                                     OnCompleteListener listener) {
-        Map<String, Object> friendData = new HashMap<>();
-        friendData.put("friendshipId", friendshipId);
-        friendData.put("userId", userId);
-        friendData.put("friendUserId", friendUserId);
-        friendData.put("friendUsername", friendUsername);
-        friendData.put("friendEmail", friendEmail);
-        friendData.put("friendAvatarId", friendAvatarId);
-        friendData.put("status", "accepted");
-        friendData.put("createdAt", System.currentTimeMillis());
+        Map<String, Object> friendData = friendData(friendshipId, userId, friendUserId,
+            friendUsername, friendEmail, friendAvatarId);
         
         db.collection("friends")
             .document(friendshipId)
             .set(friendData)
+            .addOnCompleteListener(Metrics.firestore("createFriendDocument"))
             .addOnCompleteListener(task -> {
                 if (listener != null) {
                     listener.onComplete(task.isSuccessful(), task.getException());
@@ -579,43 +814,6 @@ public class FirebaseManager {
             });
     }
     
-    public void removeFriendDocument(String userId, String friendUserId, OnCompleteListener listener) {
-        // Remove friendship from both sides
-        db.collection("friends")
-            .whereEqualTo("userId", userId)
-            .whereEqualTo("friendUserId", friendUserId)
-            .get()
-            .addOnSuccessListener(querySnapshot -> {
-                for (QueryDocumentSnapshot doc : querySnapshot) {
-                    doc.getReference().delete();
-                }
-                
-                // Remove reverse friendship
-                db.collection("friends")
-                    .whereEqualTo("userId", friendUserId)
-                    .whereEqualTo("friendUserId", userId)
-                    .get()
-                    .addOnSuccessListener(reverseSnapshot -> {
-                        for (QueryDocumentSnapshot doc : reverseSnapshot) {
-                            doc.getReference().delete();
-                        }
-                        if (listener != null) {
-                            listener.onComplete(true, null);
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        if (listener != null) {
-                            listener.onComplete(false, e);
-                        }
-                    });
-            })
-            .addOnFailureListener(e -> {
-                if (listener != null) {
-                    listener.onComplete(false, e);
-                }
-            });
-    }
-    
     public void listenForFriendRequests(String userId, FriendRequestListener listener) {
         db.collection("friend_requests")
             .whereEqualTo("toUserId", userId)
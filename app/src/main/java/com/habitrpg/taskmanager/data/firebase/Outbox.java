@@ -0,0 +1,220 @@
+package com.habitrpg.taskmanager.data.firebase;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.entities.OutboxEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable queue of pending Firestore mutations.
+ *
+ * Repositories record an entry inside the same Room transaction as the local change and then
+ * return immediately; a single background drainer sends queued entries to Firestore in
+ * WriteBatches of up to 500, oldest first, retrying failed batches with exponential backoff.
+ */
+public class Outbox {
+
+    private static final String TAG = "Outbox";
+
+    private static final int MAX_BATCH_SIZE = 500; // Firestore WriteBatch limit
+    private static final long BASE_BACKOFF_MS = 2_000;
+    private static final long MAX_BACKOFF_MS = 10 * 60 * 1000;
+    private static final long COMMIT_TIMEOUT_MS = 30_000;
+    // After this many failed attempts the head entry is sent alone, so one bad write
+    // cannot keep failing the whole batch behind it
+    private static final int ISOLATE_AFTER_ATTEMPTS = 3;
+    private static final int MAX_ATTEMPTS = 10;
+
+    private static Outbox instance;
+    private final AppDatabase database;
+    private final FirebaseManager firebaseManager;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean batchInFlight = new AtomicBoolean(false);
+    private ScheduledFuture<?> scheduledDrain;
+    private volatile boolean stopped;
+
+    private Outbox(Context context) {
+        database = AppDatabase.getDatabase(context);
+        firebaseManager = FirebaseManager.getInstance();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        // Pick up anything left over from a previous process
+        requestDrain();
+    }
+
+    public static synchronized Outbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new Outbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // The enqueue methods write to Room on the calling thread, so calling them inside
+    // database.runInTransaction() commits the entry atomically with the local change.
+    public void set(String collection, String documentId, Map<String, Object> data) {
+        enqueue(new OutboxEntry(collection, documentId, OutboxEntry.OP_SET, OutboxPayload.encode(data)));
+    }
+
+    public void merge(String collection, String documentId, Map<String, Object> data) {
+        enqueue(new OutboxEntry(collection, documentId, OutboxEntry.OP_MERGE, OutboxPayload.encode(data)));
+    }
+
+    // For documents that must already exist: unlike merge it never creates a partial document
+    public void update(String collection, String documentId, Map<String, Object> data) {
+        enqueue(new OutboxEntry(collection, documentId, OutboxEntry.OP_UPDATE, OutboxPayload.encode(data)));
+    }
+
+    // Updates the documents where field equals value, as Firestore has them when the entry is sent,
+    // including those this device never downloaded
+    public void updateWhere(String collection, String field, String value, Map<String, Object> data) {
+        Map<String, Object> payload = new HashMap<>(data);
+        payload.put(OutboxEntry.WHERE_FIELD, field);
+        enqueue(new OutboxEntry(collection, value, OutboxEntry.OP_UPDATE_WHERE, OutboxPayload.encode(payload)));
+    }
+
+    public void delete(String collection, String documentId) {
+        enqueue(new OutboxEntry(collection, documentId, OutboxEntry.OP_DELETE, null));
+    }
+
+    private void enqueue(OutboxEntry entry) {
+        database.outboxDao().insertEntry(entry);
+    }
+
+    public void requestDrain() {
+        scheduleDrain(0);
+    }
+
+    // Stops draining for the rest of the process, e.g. before a restore replaces the database.
+    // A batch already in flight is not acknowledged locally; its entries go with the old file.
+    public synchronized void stop() {
+        stopped = true;
+        if (scheduledDrain != null) {
+            scheduledDrain.cancel(false);
+        }
+    }
+
+    public int getPendingCountSync() {
+        return database.outboxDao().getPendingCount();
+    }
+
+    private synchronized void scheduleDrain(long delayMs) {
+        if (stopped) {
+            return;
+        }
+        if (scheduledDrain != null && !scheduledDrain.isDone()) {
+            if (scheduledDrain.getDelay(TimeUnit.MILLISECONDS) <= delayMs) {
+                return;
+            }
+            scheduledDrain.cancel(false);
+        }
+        scheduledDrain = scheduler.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        // Only one batch at a time; its completion schedules the next drain
+        if (stopped || !batchInFlight.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<OutboxEntry> entries;
+        try {
+            entries = database.outboxDao().getPendingEntries(MAX_BATCH_SIZE);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read outbox: " + e.getMessage(), e);
+            batchInFlight.set(false);
+            return;
+        }
+
+        if (entries.isEmpty()) {
+            batchInFlight.set(false);
+            return;
+        }
+
+        OutboxEntry head = entries.get(0);
+        long now = System.currentTimeMillis();
+        if (head.getNextAttemptAt() > now) {
+            // Never overtake a backed-off entry, so writes reach Firestore in local order
+            batchInFlight.set(false);
+            scheduleDrain(head.getNextAttemptAt() - now);
+            return;
+        }
+
+        List<OutboxEntry> batch = head.getAttempts() >= ISOLATE_AFTER_ATTEMPTS
+            ? new ArrayList<>(entries.subList(0, 1))
+            : entries;
+
+        AtomicBoolean finished = new AtomicBoolean(false);
+        ScheduledFuture<?> timeout = scheduler.schedule(
+            () -> onBatchComplete(batch, finished, false,
+                new TimeoutException("No acknowledgement after " + COMMIT_TIMEOUT_MS + " ms")),
+            COMMIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        firebaseManager.commitOutboxBatch(batch, (success, exception) ->
+            scheduler.execute(() -> {
+                timeout.cancel(false);
+                onBatchComplete(batch, finished, success, exception);
+            }));
+    }
+
+    private void onBatchComplete(List<OutboxEntry> batch, AtomicBoolean finished,
+                                 boolean success, Exception exception) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        if (stopped) {
+            batchInFlight.set(false);
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEntry entry : batch) {
+            ids.add(entry.getId());
+        }
+
+        try {
+            if (success) {
+                database.outboxDao().deleteEntries(ids);
+            } else {
+                int attempts = batch.get(0).getAttempts() + 1;
+                String error = exception != null ? exception.getMessage() : "Unknown error";
+                // Retrying cannot create the document an update needs
+                if (batch.size() == 1 && (attempts >= MAX_ATTEMPTS || isMissingDocument(exception))) {
+                    OutboxEntry entry = batch.get(0);
+                    Log.e(TAG, "Dropping " + entry.getOperation() + " " + entry.getCollection() + "/"
+                        + entry.getDocumentId() + " after " + attempts + " attempts: " + error);
+                    database.outboxDao().deleteEntries(ids);
+                } else {
+                    Log.w(TAG, "Outbox batch of " + batch.size() + " failed (attempt " + attempts + "): " + error);
+                    database.outboxDao().markFailed(ids, System.currentTimeMillis() + backoffDelay(attempts), error);
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to update outbox: " + e.getMessage(), e);
+        }
+
+        batchInFlight.set(false);
+        scheduleDrain(0);
+    }
+
+    private static boolean isMissingDocument(Exception exception) {
+        return exception instanceof FirebaseFirestoreException
+            && ((FirebaseFirestoreException) exception).getCode() == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
+
+    private static long backoffDelay(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << shift);
+    }
+}
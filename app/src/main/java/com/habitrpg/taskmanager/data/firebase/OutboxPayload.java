@@ -0,0 +1,43 @@
+package com.habitrpg.taskmanager.data.firebase;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Converts Firestore document fields to and from the JSON stored in the outbox table.
+// Only flat documents with primitive values are written by this app, which JSON covers.
+public class OutboxPayload {
+
+    public static String encode(Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+        JSONObject json = new JSONObject();
+        try {
+            for (Map.Entry<String, Object> field : data.entrySet()) {
+                json.put(field.getKey(), field.getValue() != null ? field.getValue() : JSONObject.NULL);
+            }
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Unsupported outbox payload: " + e.getMessage(), e);
+        }
+        return json.toString();
+    }
+
+    public static Map<String, Object> decode(String payload) throws JSONException {
+        Map<String, Object> data = new HashMap<>();
+        if (payload == null) {
+            return data;
+        }
+        JSONObject json = new JSONObject(payload);
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = json.get(key);
+            data.put(key, value == JSONObject.NULL ? null : value);
+        }
+        return data;
+    }
+}
@@ -95,33 +95,6 @@ public class UserPreferences {
         return sharedPreferences.getLong(KEY_LAST_SYNC_TIME, 0);
     }
     
-    // Stage tracking methods
-    public void setCurrentStageStartTime(long timestamp) {
-        System.out.println("DEBUG: Setting current stage start time to: " + timestamp);
-        sharedPreferences.edit()
-            .putLong(KEY_CURRENT_STAGE_START_TIME, timestamp)
-            .apply();
-    }
-    
-    public long getCurrentStageStartTime() {
-        long value = sharedPreferences.getLong(KEY_CURRENT_STAGE_START_TIME, 0);
-        System.out.println("DEBUG: Getting current stage start time: " + value);
-        return value;
-    }
-    
-    public void setPreviousStageStartTime(long timestamp) {
-        System.out.println("DEBUG: Setting previous stage start time to: " + timestamp);
-        sharedPreferences.edit()
-            .putLong(KEY_PREVIOUS_STAGE_START_TIME, timestamp)
-            .apply();
-    }
-    
-    public long getPreviousStageStartTime() {
-        long value = sharedPreferences.getLong(KEY_PREVIOUS_STAGE_START_TIME, 0);
-        System.out.println("DEBUG: Getting previous stage start time: " + value);
-        return value;
-    }
-    
     // Clear all preferences (logout)
     public void clearAllPreferences() {
         sharedPreferences.edit().clear().apply();
@@ -133,6 +106,7 @@ public class UserPreferences {
             .remove(KEY_IS_LOGGED_IN)
             .remove(KEY_CURRENT_USER_ID)
             .remove(KEY_LAST_SYNC_TIME)
+            // Stage times moved to the user_stages table; this removes values left by older versions
             .remove(KEY_CURRENT_STAGE_START_TIME)
             .remove(KEY_PREVIOUS_STAGE_START_TIME)
             .apply();
@@ -4,10 +4,12 @@ import android.content.Context;
 import com.habitrpg.taskmanager.data.database.AppDatabase;
 import com.habitrpg.taskmanager.data.database.entities.Category;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CategoryRepository {
     
@@ -15,6 +17,10 @@ public class CategoryRepository {
     private AppDatabase database;
     private UserPreferences userPreferences;
     private ExecutorService executor;
+    // Categories change rarely but are read for every task row, so reads go through one shared
+    // snapshot. Writes bump the version, which discards the snapshot and any load racing them.
+    private volatile CategorySnapshot snapshot;
+    private final AtomicInteger version = new AtomicInteger();
     
     private CategoryRepository(Context context) {
         database = AppDatabase.getDatabase(context);
@@ -38,33 +44,35 @@ public class CategoryRepository {
     public void insertCategory(Category category, CategoryCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("CategoryRepository.insertCategory", () -> {
             try {
                 database.categoryDao().insertCategory(category);
+                invalidateSnapshot();
                 callback.onSuccess("Category created successfully");
             } catch (Exception e) {
                 callback.onError("Failed to create category: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void updateCategory(Category category, CategoryCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("CategoryRepository.updateCategory", () -> {
             try {
                 database.categoryDao().updateCategory(category);
+                invalidateSnapshot();
                 callback.onSuccess("Category updated successfully");
             } catch (Exception e) {
                 callback.onError("Failed to update category: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void deleteCategory(long categoryId, CategoryCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("CategoryRepository.deleteCategory", () -> {
             try {
                 Category category = database.categoryDao().getCategoryById((int) categoryId);
                 if (category == null) {
@@ -79,59 +87,104 @@ public class CategoryRepository {
                 }
 
                 database.categoryDao().deleteCategory(category);
+                invalidateSnapshot();
                 callback.onSuccess("Category deleted successfully");
             } catch (Exception e) {
                 callback.onError("Failed to delete category: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getCategoryById(long categoryId, CategoryCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("CategoryRepository.getCategoryById", () -> {
             try {
                 Category category = database.categoryDao().getCategoryById((int) categoryId);
                 callback.onCategoryRetrieved(category);
             } catch (Exception e) {
                 callback.onError("Failed to get category: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getCategoriesByUserId(String userId, CategoryCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("CategoryRepository.getCategoriesByUserId", () -> {
             try {
-                List<Category> categories = database.categoryDao().getCategoriesByUserId(userId);
-                callback.onCategoriesRetrieved(categories);
+                callback.onCategoriesRetrieved(getSnapshotSync(userId).getCategories());
             } catch (Exception e) {
                 callback.onError("Failed to get categories: " + e.getMessage());
             }
-        });
+        }));
+    }
+
+    public void getSnapshot(String userId, SnapshotCallback callback) {
+        CategorySnapshot current = snapshot;
+        if (current != null && userId.equals(current.getUserId())) {
+            callback.onSnapshotRetrieved(current);
+            return;
+        }
+        
+        ensureExecutorActive();
+        executor.execute(Metrics.timed("CategoryRepository.getSnapshot", () -> {
+            try {
+                callback.onSnapshotRetrieved(getSnapshotSync(userId));
+            } catch (Exception e) {
+                android.util.Log.e("CategoryRepository", "Failed to load categories: " + e.getMessage());
+                callback.onSnapshotRetrieved(CategorySnapshot.EMPTY);
+            }
+        }));
+    }
+    
+    // Must not be called on the main thread when the snapshot is not loaded yet
+    public CategorySnapshot getSnapshotSync(String userId) {
+        CategorySnapshot current = snapshot;
+        if (current != null && userId.equals(current.getUserId())) {
+            return current;
+        }
+        
+        int loadVersion = version.get();
+        CategorySnapshot loaded = new CategorySnapshot(userId, database.categoryDao().getCategoriesByUserId(userId));
+        synchronized (this) {
+            if (version.get() == loadVersion) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+    
+    public synchronized void invalidateSnapshot() {
+        version.incrementAndGet();
+        snapshot = null;
     }
 
     public void getCategoryByColor(String userId, String color, CategoryCallback callback) {
-        executor.execute(() -> {
+        ensureExecutorActive();
+        executor.execute(Metrics.timed("CategoryRepository.getCategoryByColor", () -> {
             try {
-                Category category = database.categoryDao().getCategoryByColor(userId, color);
+                Category category = getSnapshotSync(userId).getByColor(color);
                 callback.onCategoryRetrieved(category);
             } catch (Exception e) {
                 callback.onError("Failed to get category by color: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getCategoryByName(String userId, String name, CategoryCallback callback) {
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("CategoryRepository.getCategoryByName", () -> {
             try {
                 Category category = database.categoryDao().getCategoryByName(userId, name);
                 callback.onCategoryRetrieved(category);
             } catch (Exception e) {
                 callback.onError("Failed to get category by name: " + e.getMessage());
             }
-        });
+        }));
+    }
+    
+    public interface SnapshotCallback {
+        void onSnapshotRetrieved(CategorySnapshot snapshot);
     }
     
     public interface CategoryCallback {
@@ -0,0 +1,52 @@
+package com.habitrpg.taskmanager.data.repository;
+
+import com.habitrpg.taskmanager.data.database.entities.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of one user's categories, indexed by id and by color. A new snapshot is built
+// after every category write, so holders never observe a partial update.
+public final class CategorySnapshot {
+
+    public static final CategorySnapshot EMPTY = new CategorySnapshot(null, Collections.emptyList());
+
+    private final String userId;
+    private final List<Category> categories;
+    private final Map<Integer, Category> byId;
+    private final Map<String, Category> byColor;
+
+    CategorySnapshot(String userId, List<Category> categories) {
+        this.userId = userId;
+        Map<Integer, Category> idIndex = new HashMap<>();
+        Map<String, Category> colorIndex = new HashMap<>();
+        for (Category category : categories) {
+            idIndex.put(category.getId(), category);
+            if (category.getColor() != null) {
+                colorIndex.putIfAbsent(category.getColor(), category);
+            }
+        }
+        this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+        this.byId = Collections.unmodifiableMap(idIndex);
+        this.byColor = Collections.unmodifiableMap(colorIndex);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public Category getById(int categoryId) {
+        return byId.get(categoryId);
+    }
+
+    public Category getByColor(String color) {
+        return byColor.get(color);
+    }
+}
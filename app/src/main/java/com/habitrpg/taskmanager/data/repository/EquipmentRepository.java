@@ -5,6 +5,7 @@ import android.content.Context;
 import com.habitrpg.taskmanager.data.database.AppDatabase;
 import com.habitrpg.taskmanager.data.database.dao.EquipmentDao;
 import com.habitrpg.taskmanager.data.database.entities.Equipment;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.util.List;
 import java.util.UUID;
@@ -40,19 +41,19 @@ public class EquipmentRepository {
 
     public void getUserEquipment(String userId, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.getUserEquipment", () -> {
             try {
                 List<Equipment> equipment = equipmentDao.getUserEquipment(userId);
                 callback.onSuccess("Equipment loaded successfully", equipment);
             } catch (Exception e) {
                 callback.onError("Failed to load equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getEquipmentById(String equipmentId, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.getEquipmentById", () -> {
             try {
                 Equipment equipment = equipmentDao.getEquipmentById(equipmentId);
                 List<Equipment> equipmentList = equipment != null ? List.of(equipment) : List.of();
@@ -60,43 +61,43 @@ public class EquipmentRepository {
             } catch (Exception e) {
                 callback.onError("Failed to load equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getUserEquipmentByType(String userId, String equipmentType, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.getUserEquipmentByType", () -> {
             try {
                 List<Equipment> equipment = equipmentDao.getUserEquipmentByType(userId, equipmentType);
                 callback.onSuccess("Equipment loaded successfully", equipment);
             } catch (Exception e) {
                 callback.onError("Failed to load equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getActiveEquipment(String userId, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.getActiveEquipment", () -> {
             try {
                 List<Equipment> equipment = equipmentDao.getActiveEquipment(userId);
                 callback.onSuccess("Active equipment loaded successfully", equipment);
             } catch (Exception e) {
                 callback.onError("Failed to load active equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getActiveEquipmentByBonusType(String userId, String bonusType, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.getActiveEquipmentByBonusType", () -> {
             try {
                 List<Equipment> equipment = equipmentDao.getActiveEquipmentByBonusType(userId, bonusType);
                 callback.onSuccess("Active equipment loaded successfully", equipment);
             } catch (Exception e) {
                 callback.onError("Failed to load active equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void purchaseEquipment(String userId, String equipmentName, String equipmentType, 
@@ -104,7 +105,7 @@ public class EquipmentRepository {
                                 String bonusType, double bonusValue, String bonusDuration, 
                                 EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.purchaseEquipment", () -> {
             try {
                 Equipment equipment = new Equipment();
                 equipment.setEquipmentId(UUID.randomUUID().toString());
@@ -141,48 +142,48 @@ public class EquipmentRepository {
             } catch (Exception e) {
                 callback.onError("Failed to purchase equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void activateEquipment(String equipmentId, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.activateEquipment", () -> {
             try {
                 equipmentDao.updateEquipmentActiveStatus(equipmentId, true);
                 callback.onSuccess("Equipment activated successfully", null);
             } catch (Exception e) {
                 callback.onError("Failed to activate equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void deactivateEquipment(String equipmentId, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.deactivateEquipment", () -> {
             try {
                 equipmentDao.updateEquipmentActiveStatus(equipmentId, false);
                 callback.onSuccess("Equipment deactivated successfully", null);
             } catch (Exception e) {
                 callback.onError("Failed to deactivate equipment: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getEquipmentCount(String userId, String equipmentName, EquipmentCountCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.getEquipmentCount", () -> {
             try {
                 int count = equipmentDao.getEquipmentCount(userId, equipmentName);
                 callback.onSuccess("Equipment count retrieved successfully", count);
             } catch (Exception e) {
                 callback.onError("Failed to get equipment count: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void reduceEquipmentDurability(List<Equipment> activeEquipment, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.reduceEquipmentDurability", () -> {
             try {
                 for (Equipment equipment : activeEquipment) {
                     if (equipment.isActive() && equipment.getDurability() != -1) {
@@ -198,12 +199,12 @@ public class EquipmentRepository {
             } catch (Exception e) {
                 callback.onError("Failed to update equipment durability: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void updateEquipmentBonus(String equipmentId, double newBonusValue, EquipmentCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("EquipmentRepository.updateEquipmentBonus", () -> {
             try {
                 equipmentDao.updateEquipmentBonus(equipmentId, newBonusValue);
                 android.util.Log.d("EquipmentRepository", "Equipment bonus updated: " + equipmentId + " to " + newBonusValue + "%");
@@ -211,7 +212,7 @@ public class EquipmentRepository {
             } catch (Exception e) {
                 callback.onError("Failed to update equipment bonus: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void shutdown() {
@@ -6,6 +6,8 @@ import com.habitrpg.taskmanager.data.database.entities.Friend;
 import com.habitrpg.taskmanager.data.database.entities.FriendRequest;
 import com.habitrpg.taskmanager.data.database.entities.User;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
+import com.habitrpg.taskmanager.data.firebase.Outbox;
+import com.habitrpg.taskmanager.util.Metrics;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -14,12 +16,12 @@ public class FriendRepository {
     
     private static FriendRepository instance;
     private AppDatabase database;
-    private FirebaseManager firebaseManager;
+    private Outbox outbox;
     private ExecutorService executor;
     
     private FriendRepository(Context context) {
         database = AppDatabase.getDatabase(context);
-        firebaseManager = FirebaseManager.getInstance();
+        outbox = Outbox.getInstance(context);
         executor = Executors.newFixedThreadPool(2);
     }
     
@@ -39,124 +41,133 @@ public class FriendRepository {
     public void getFriends(String userId, FriendCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.getFriends", () -> {
             try {
                 List<Friend> friends = database.friendDao().getFriendsByUserId(userId);
                 callback.onFriendsRetrieved(friends);
             } catch (Exception e) {
                 callback.onError("Failed to get friends: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getPendingRequests(String userId, FriendRequestCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.getPendingRequests", () -> {
             try {
                 List<FriendRequest> requests = database.friendDao().getPendingRequestsByUserId(userId);
                 callback.onFriendRequestsRetrieved(requests);
             } catch (Exception e) {
                 callback.onError("Failed to get pending requests: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getSentRequests(String userId, FriendRequestCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.getSentRequests", () -> {
             try {
                 List<FriendRequest> requests = database.friendDao().getSentRequestsByUserId(userId);
                 callback.onFriendRequestsRetrieved(requests);
             } catch (Exception e) {
                 callback.onError("Failed to get sent requests: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void addFriend(Friend friend, FriendCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.addFriend", () -> {
             try {
                 database.friendDao().insertFriend(friend);
                 callback.onSuccess("Friend added successfully");
             } catch (Exception e) {
                 callback.onError("Failed to add friend: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void removeFriend(String userId, String friendUserId, FriendCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.removeFriend", () -> {
             try {
-                // Remove friend relationship from both sides
-                // Remove User1 -> User2 relationship
-                database.friendDao().deleteFriendByUserIdAndFriendId(userId, friendUserId);
-                
-                // Remove User2 -> User1 relationship
-                database.friendDao().deleteFriendByUserIdAndFriendId(friendUserId, userId);
-                
-                // Sync with Firebase
-                firebaseManager.removeFriendDocument(userId, friendUserId, 
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to remove friend from Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    String forwardId = FirebaseManager.friendshipId(userId, friendUserId);
+                    String reverseId = FirebaseManager.friendshipId(friendUserId, userId);
+                    String requestId = FirebaseManager.friendRequestId(userId, friendUserId);
+                    
+                    // Friendships created before pair IDs were introduced still use random IDs
+                    Friend forward = database.friendDao().getFriendByUserIdAndFriendId(userId, friendUserId);
+                    Friend reverse = database.friendDao().getFriendByUserIdAndFriendId(friendUserId, userId);
+                    
+                    // Remove friend relationship from both sides
+                    // Remove User1 -> User2 relationship
+                    database.friendDao().deleteFriendByUserIdAndFriendId(userId, friendUserId);
+                    
+                    // Remove User2 -> User1 relationship
+                    database.friendDao().deleteFriendByUserIdAndFriendId(friendUserId, userId);
+                    database.friendDao().deleteFriendRequestById(requestId);
+                    
+                    // Queue sync with Firebase - the drainer commits these as one batch
+                    outbox.delete("friends", forwardId);
+                    outbox.delete("friends", reverseId);
+                    outbox.delete("friend_requests", requestId);
+                    if (forward != null && !forward.getId().equals(forwardId)) {
+                        outbox.delete("friends", forward.getId());
+                    }
+                    if (reverse != null && !reverse.getId().equals(reverseId)) {
+                        outbox.delete("friends", reverse.getId());
+                    }
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Friend removed successfully");
             } catch (Exception e) {
                 callback.onError("Failed to remove friend: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void sendFriendRequest(FriendRequest request, FriendRequestCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.sendFriendRequest", () -> {
             try {
-                database.friendDao().insertFriendRequest(request);
-                
-                // Sync with Firebase
-                firebaseManager.sendFriendRequestDocument(
-                    request.getId(),
-                    request.getFromUserId(),
-                    request.getFromUsername(),
-                    request.getFromEmail(),
-                    request.getFromAvatarId(),
-                    request.getToUserId(),
-                    "",
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to sync friend request to Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    database.friendDao().insertFriendRequest(request);
+                    
+                    // Queue sync with Firebase
+                    outbox.set("friend_requests", request.getId(), FirebaseManager.friendRequestData(
+                        request.getId(),
+                        request.getFromUserId(),
+                        request.getFromUsername(),
+                        request.getFromEmail(),
+                        request.getFromAvatarId(),
+                        request.getToUserId(),
+                        ""));
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Friend request sent successfully");
             } catch (Exception e) {
                 callback.onError("Failed to send friend request: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void acceptFriendRequest(String requestId, FriendCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.acceptFriendRequest", () -> {
             try {
                 android.util.Log.d("FriendRepository", "acceptFriendRequest: " + requestId);
                 FriendRequest request = database.friendDao().getFriendRequestById(requestId);
                 if (request != null) {
                     android.util.Log.d("FriendRepository", "Found request: " + request.getFromUsername() + " -> " + request.getToUserId());
-                    request.setStatus("accepted");
-                    database.friendDao().updateFriendRequest(request);
                     
                     // Get toUser information from database
                     User toUser = database.userDao().getUserById(request.getToUserId());
@@ -165,7 +176,7 @@ public class FriendRepository {
                     if (toUser != null) {
                         // Create Friend record for the person who accepted (toUserId)
                         Friend friend1 = new Friend(
-                            requestId + "_friend1",
+                            FirebaseManager.friendshipId(request.getToUserId(), request.getFromUserId()),
                             request.getToUserId(),
                             request.getFromUserId(),
                             request.getFromUsername(),
@@ -174,12 +185,10 @@ public class FriendRepository {
                             "accepted",
                             System.currentTimeMillis()
                         );
-                        database.friendDao().insertFriend(friend1);
-                        android.util.Log.d("FriendRepository", "Created friend1: " + friend1.getFriendUsername());
                         
                         // Create Friend record for the person who sent the request (fromUserId)
                         Friend friend2 = new Friend(
-                            requestId + "_friend2",
+                            FirebaseManager.friendshipId(request.getFromUserId(), request.getToUserId()),
                             request.getFromUserId(),
                             request.getToUserId(),
                             toUser.getUsername(),
@@ -188,46 +197,32 @@ public class FriendRepository {
                             "accepted",
                             System.currentTimeMillis()
                         );
-                        database.friendDao().insertFriend(friend2);
-                        android.util.Log.d("FriendRepository", "Created friend2: " + friend2.getFriendUsername());
-                        
-                        // Sync with Firebase - update request status
-                        firebaseManager.updateFriendRequestStatus(requestId, "accepted",
-                            (success, exception) -> {
-                                if (!success) {
-                                    System.out.println("Failed to update friend request status in Firebase: " + 
-                                        (exception != null ? exception.getMessage() : "Unknown error"));
-                                }
-                            });
-                        
-                        // Sync with Firebase - create friendship records
-                        firebaseManager.createFriendDocument(
-                            requestId + "_friend1",
-                            request.getToUserId(),
-                            request.getFromUserId(),
-                            request.getFromUsername(),
-                            request.getFromEmail(),
-                            request.getFromAvatarId(),
-                            (success, exception) -> {
-                                if (!success) {
-                                    System.out.println("Failed to sync friend1 to Firebase: " + 
-                                        (exception != null ? exception.getMessage() : "Unknown error"));
-                                }
-                            });
                         
-                        firebaseManager.createFriendDocument(
-                            requestId + "_friend2",
-                            request.getFromUserId(),
-                            request.getToUserId(),
-                            toUser.getUsername(),
-                            toUser.getEmail(),
-                            toUser.getAvatarId(),
-                            (success, exception) -> {
-                                if (!success) {
-                                    System.out.println("Failed to sync friend2 to Firebase: " + 
-                                        (exception != null ? exception.getMessage() : "Unknown error"));
-                                }
-                            });
+                        database.runInTransaction(() -> {
+                            request.setStatus("accepted");
+                            database.friendDao().updateFriendRequest(request);
+                            database.friendDao().insertFriend(friend1);
+                            database.friendDao().insertFriend(friend2);
+                            
+                            // Queue sync with Firebase - request status and both friendship records
+                            outbox.update("friend_requests", requestId, FirebaseManager.statusUpdateData("accepted"));
+                            outbox.set("friends", friend1.getId(), FirebaseManager.friendData(
+                                friend1.getId(),
+                                friend1.getUserId(),
+                                friend1.getFriendUserId(),
+                                friend1.getFriendUsername(),
+                                friend1.getFriendEmail(),
+                                friend1.getFriendAvatarId()));
+                            outbox.set("friends", friend2.getId(), FirebaseManager.friendData(
+                                friend2.getId(),
+                                friend2.getUserId(),
+                                friend2.getFriendUserId(),
+                                friend2.getFriendUsername(),
+                                friend2.getFriendEmail(),
+                                friend2.getFriendAvatarId()));
+                        });
+                        outbox.requestDrain();
+                        android.util.Log.d("FriendRepository", "Created friends: " + friend1.getFriendUsername() + ", " + friend2.getFriendUsername());
                         
                         callback.onSuccess("Friend request accepted");
                     } else {
@@ -242,27 +237,24 @@ public class FriendRepository {
                 android.util.Log.e("FriendRepository", "Exception in acceptFriendRequest: " + e.getMessage(), e);
                 callback.onError("Failed to accept friend request: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void declineFriendRequest(String requestId, FriendCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.declineFriendRequest", () -> {
             try {
                 FriendRequest request = database.friendDao().getFriendRequestById(requestId);
                 if (request != null) {
-                    request.setStatus("declined");
-                    database.friendDao().updateFriendRequest(request);
-                    
-                    // Sync with Firebase
-                    firebaseManager.updateFriendRequestStatus(requestId, "declined",
-                        (success, exception) -> {
-                            if (!success) {
-                                System.out.println("Failed to update friend request status in Firebase: " + 
-                                    (exception != null ? exception.getMessage() : "Unknown error"));
-                            }
-                        });
+                    database.runInTransaction(() -> {
+                        request.setStatus("declined");
+                        database.friendDao().updateFriendRequest(request);
+                        
+                        // Queue sync with Firebase
+                        outbox.update("friend_requests", requestId, FirebaseManager.statusUpdateData("declined"));
+                    });
+                    outbox.requestDrain();
                     
                     callback.onSuccess("Friend request declined");
                 } else {
@@ -271,29 +263,51 @@ public class FriendRepository {
             } catch (Exception e) {
                 callback.onError("Failed to decline friend request: " + e.getMessage());
             }
-        });
+        }));
     }
     
+    // Reports a pending request, or an accepted one when the users are already friends, so that
+    // sending again cannot replace it with a new pending request
     public void checkExistingRequest(String fromUserId, String toUserId, FriendRequestCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.checkExistingRequest", () -> {
             try {
-                FriendRequest existingRequest = database.friendDao().getPendingRequestByUsers(fromUserId, toUserId);
-                callback.onFriendRequestChecked(existingRequest);
+                // Requests in either direction share the pair ID, so this is a primary key lookup
+                String requestId = FirebaseManager.friendRequestId(fromUserId, toUserId);
+                FriendRequest existingRequest = database.friendDao().getFriendRequestById(requestId);
+                if (existingRequest == null) {
+                    // Requests created before pair IDs were introduced
+                    existingRequest = database.friendDao().getPendingRequestByUsers(fromUserId, toUserId);
+                }
+                if (existingRequest != null && ("pending".equals(existingRequest.getStatus())
+                        || "accepted".equals(existingRequest.getStatus()))) {
+                    callback.onFriendRequestChecked(existingRequest);
+                    return;
+                }
+                
+                // Friendships can predate their request, e.g. after the requests were cleaned up
+                Friend friend = database.friendDao().getFriendByUserIdAndFriendId(fromUserId, toUserId);
+                if (friend != null && "accepted".equals(friend.getStatus())) {
+                    callback.onFriendRequestChecked(new FriendRequest(requestId, fromUserId, toUserId,
+                        null, null, 0, "accepted", friend.getCreatedAt()));
+                    return;
+                }
+                callback.onFriendRequestChecked(null);
             } catch (Exception e) {
                 callback.onError("Failed to check existing request: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void insertFriendRequestFromFirebase(FriendRequest request, FriendRequestCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("FriendRepository.insertFriendRequestFromFirebase", () -> {
             try {
                 FriendRequest existingRequest = database.friendDao().getFriendRequestById(request.getId());
-                if (existingRequest == null) {
+                // A pair ID is reused when a declined request is sent again
+                if (existingRequest == null || "declined".equals(existingRequest.getStatus())) {
                     database.friendDao().insertFriendRequest(request);
                     callback.onSuccess("Friend request saved from Firebase");
                 } else {
@@ -302,7 +316,7 @@ public class FriendRepository {
             } catch (Exception e) {
                 callback.onError("Failed to save friend request: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public Friend getFriendByIdSync(String friendshipId) {
@@ -11,6 +11,8 @@ import com.habitrpg.taskmanager.data.database.entities.GuildMember;
 import com.habitrpg.taskmanager.data.database.entities.GuildMessage;
 import com.habitrpg.taskmanager.data.database.entities.User;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
+import com.habitrpg.taskmanager.data.firebase.Outbox;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.util.List;
 import java.util.Map;
@@ -21,16 +23,19 @@ import java.util.concurrent.Executors;
 public class GuildRepository {
     
     private static GuildRepository instance;
+    private final AppDatabase database;
     private final GuildDao guildDao;
     private final UserDao userDao;
     private final FirebaseManager firebaseManager;
+    private final Outbox outbox;
     private ExecutorService executor;
     
     private GuildRepository(Context context) {
-        AppDatabase database = AppDatabase.getDatabase(context);
+        this.database = AppDatabase.getDatabase(context);
         this.guildDao = database.guildDao();
         this.userDao = database.userDao();
         this.firebaseManager = FirebaseManager.getInstance();
+        this.outbox = Outbox.getInstance(context);
         this.executor = Executors.newSingleThreadExecutor();
     }
     
@@ -51,7 +56,7 @@ public class GuildRepository {
     public void createGuild(String guildName, String description, String leaderId, 
                            String leaderUsername, int maxMembers, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.createGuild", () -> {
             try {
                 // Check if user is already in a guild
                 GuildMember existingMember = guildDao.getGuildMemberByUserId(leaderId);
@@ -63,7 +68,6 @@ public class GuildRepository {
                 // Create guild
                 String guildId = UUID.randomUUID().toString();
                 Guild guild = new Guild(guildId, guildName, description, leaderId, leaderUsername, maxMembers);
-                guildDao.insertGuild(guild);
                 
                 // Add leader as first member
                 String memberId = UUID.randomUUID().toString();
@@ -72,41 +76,32 @@ public class GuildRepository {
                     leader != null ? leader.getUsername() : leaderUsername, 
                     leader != null ? leader.getEmail() : "", 
                     leader != null ? String.valueOf(leader.getAvatarId()) : "", true);
-                guildDao.insertGuildMember(leaderMember);
                 
-                // Sync guild with Firebase
-                firebaseManager.createGuildDocument(guildId, guildName, description, 
-                    leaderId, leaderUsername, maxMembers, 
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to sync guild to Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
-                
-                // Sync leader member with Firebase
-                firebaseManager.addGuildMemberDocument(memberId, guildId, leaderId,
-                    leader != null ? leader.getUsername() : leaderUsername,
-                    leader != null ? leader.getEmail() : "",
-                    leader != null ? leader.getAvatarId() : 0,
-                    true,
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to sync leader member to Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    guildDao.insertGuild(guild);
+                    guildDao.insertGuildMember(leaderMember);
+                    
+                    // Queue guild and leader member for Firebase
+                    outbox.set("guilds", guildId, FirebaseManager.guildDocumentData(guildId, guildName,
+                        description, leaderId, leaderUsername, maxMembers));
+                    outbox.set("guild_members", memberId, FirebaseManager.guildMemberData(memberId, guildId, leaderId,
+                        leader != null ? leader.getUsername() : leaderUsername,
+                        leader != null ? leader.getEmail() : "",
+                        leader != null ? leader.getAvatarId() : 0,
+                        true));
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Guild created successfully", guild);
             } catch (Exception e) {
                 callback.onError("Failed to create guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getGuildByLeaderId(String leaderId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getGuildByLeaderId", () -> {
             try {
                 Guild guild = guildDao.getGuildByLeaderId(leaderId);
                 if (guild != null) {
@@ -117,12 +112,12 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to get guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getGuildById(String guildId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getGuildById", () -> {
             try {
                 Guild guild = guildDao.getGuildById(guildId);
                 if (guild != null) {
@@ -133,24 +128,24 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to get guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getAllActiveGuilds(GuildListCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getAllActiveGuilds", () -> {
             try {
                 List<Guild> guilds = guildDao.getAllActiveGuilds();
                 callback.onSuccess("Guilds retrieved", guilds);
             } catch (Exception e) {
                 callback.onError("Failed to get guilds: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void disbandGuild(String guildId, String leaderId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.disbandGuild", () -> {
             try {
                 Guild guild = guildDao.getGuildById(guildId);
                 if (guild == null) {
@@ -168,46 +163,45 @@ public class GuildRepository {
                     return;
                 }
                 
-                // Deactivate guild and remove related data
-                guildDao.deactivateGuild(guildId);
-                guildDao.deleteAllGuildMembers(guildId);
-                guildDao.deleteAllGuildInvites(guildId);
-                guildDao.deleteAllGuildMessages(guildId);
-                // Hard delete guild row
-                guildDao.deleteGuild(guild);
-                
-                // Sync with Firebase
-                firebaseManager.disbandGuildDocument(guildId, 
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to disband guild in Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    // Deactivate guild and remove related data
+                    guildDao.deactivateGuild(guildId);
+                    guildDao.deleteAllGuildMembers(guildId);
+                    guildDao.deleteAllGuildInvites(guildId);
+                    guildDao.deleteAllGuildMessages(guildId);
+                    // Hard delete guild row
+                    guildDao.deleteGuild(guild);
+                    
+                    // Queue sync with Firebase
+                    // Members are looked up in Firestore when the entry is sent, not only those known here
+                    outbox.update("guilds", guildId, FirebaseManager.inactiveData());
+                    outbox.updateWhere("guild_members", "guildId", guildId, FirebaseManager.inactiveData());
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Guild disbanded successfully", guild);
             } catch (Exception e) {
                 callback.onError("Failed to disband guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     // Guild member operations
     public void getGuildMembers(String guildId, GuildMemberListCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getGuildMembers", () -> {
             try {
                 List<GuildMember> members = guildDao.getGuildMembersByGuildId(guildId);
                 callback.onSuccess("Members retrieved", members);
             } catch (Exception e) {
                 callback.onError("Failed to get members: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getUserGuild(String userId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getUserGuild", () -> {
             try {
                 GuildMember member = guildDao.getGuildMemberByUserId(userId);
                 if (member != null) {
@@ -219,12 +213,12 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to get user guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void leaveGuild(String userId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.leaveGuild", () -> {
             try {
                 GuildMember member = guildDao.getGuildMemberByUserId(userId);
                 if (member == null) {
@@ -248,34 +242,31 @@ public class GuildRepository {
                     return;
                 }
                 
-                // Remove member
-                guildDao.deactivateGuildMember(member.getMemberId());
-                
-                // Update member count
-                int newCount = guildDao.getGuildMemberCount(guild.getGuildId());
-                guildDao.updateGuildMemberCount(guild.getGuildId(), newCount);
-                
-                // Sync with Firebase
-                firebaseManager.removeGuildMemberDocument(member.getMemberId(), 
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to remove member from Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    // Remove member
+                    guildDao.deactivateGuildMember(member.getMemberId());
+                    
+                    // Update member count
+                    int newCount = guildDao.getGuildMemberCount(guild.getGuildId());
+                    guildDao.updateGuildMemberCount(guild.getGuildId(), newCount);
+                    
+                    // Queue sync with Firebase
+                    outbox.update("guild_members", member.getMemberId(), FirebaseManager.inactiveData());
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Left guild successfully", guild);
             } catch (Exception e) {
                 callback.onError("Failed to leave guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     // Guild invite operations
     public void sendGuildInvite(String guildId, String fromUserId, String toUserId, 
                               String toUsername, GuildInviteCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.sendGuildInvite", () -> {
             try {
                 Guild guild = guildDao.getGuildById(guildId);
                 if (guild == null) {
@@ -303,28 +294,26 @@ public class GuildRepository {
                 String fromUsername = fromUser != null ? fromUser.getUsername() : "";
                 GuildInvite invite = new GuildInvite(inviteId, guildId, guild.getGuildName(), 
                     fromUserId, fromUsername, toUserId, toUsername);
-                guildDao.insertGuildInvite(invite);
                 
-                // Sync with Firebase - THIS IS THE KEY FOR NOTIFICATIONS!
-                firebaseManager.sendGuildInviteDocument(inviteId, guildId, guild.getGuildName(),
-                    fromUserId, fromUsername, toUserId, toUsername,
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to sync invite to Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    guildDao.insertGuildInvite(invite);
+                    
+                    // Queue sync with Firebase - THIS IS THE KEY FOR NOTIFICATIONS!
+                    outbox.set("guild_invites", inviteId, FirebaseManager.guildInviteData(inviteId, guildId,
+                        guild.getGuildName(), fromUserId, fromUsername, toUserId, toUsername));
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Invite sent successfully", invite);
             } catch (Exception e) {
                 callback.onError("Failed to send invite: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void insertGuildInviteFromFirebase(GuildInvite invite, GuildInviteCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.insertGuildInviteFromFirebase", () -> {
             try {
                 GuildInvite existingInvite = guildDao.getGuildInviteById(invite.getInviteId());
                 if (existingInvite == null) {
@@ -336,24 +325,24 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to save invite: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getPendingInvites(String userId, GuildInviteListCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getPendingInvites", () -> {
             try {
                 List<GuildInvite> invites = guildDao.getPendingInvitesByUserId(userId);
                 callback.onSuccess("Invites retrieved", invites);
             } catch (Exception e) {
                 callback.onError("Failed to get invites: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void acceptGuildInvite(String inviteId, String userId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.acceptGuildInvite", () -> {
             try {
                 GuildInvite invite = guildDao.getGuildInviteById(inviteId);
                 if (invite == null) {
@@ -379,7 +368,7 @@ public class GuildRepository {
                         public void onGuildRetrieved(Map<String, Object> guildData) {
                             // Move to background thread to insert into DB
                             ensureExecutorActive();
-                            executor.execute(() -> {
+                            executor.execute(Metrics.timed("GuildRepository.acceptGuildInvite.storeRemoteGuild", () -> {
                                 try {
                                     // Create Guild object from Firebase data
                                     Guild firebaseGuild = new Guild(
@@ -399,7 +388,7 @@ public class GuildRepository {
                                 } catch (Exception e) {
                                     callback.onError("Failed to process guild from Firebase: " + e.getMessage());
                                 }
-                            });
+                            }));
                         }
                         
                         @Override
@@ -415,13 +404,13 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to accept invite: " + e.getMessage());
             }
-        });
+        }));
     }
     
     private void continueAcceptGuildInvite(String inviteId, String userId, Guild guild, 
                                           GuildInvite invite, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.continueAcceptGuildInvite", () -> {
             try {
                 // Check if user is already in a guild
                 GuildMember existingMember = guildDao.getGuildMemberByUserId(userId);
@@ -445,46 +434,36 @@ public class GuildRepository {
                     user != null ? user.getUsername() : invite.getToUsername(), 
                     user != null ? user.getEmail() : "", 
                     user != null ? String.valueOf(user.getAvatarId()) : "", false);
-                guildDao.insertGuildMember(member);
-                
-                // Update invite status
-                guildDao.updateInviteStatus(inviteId, "accepted", System.currentTimeMillis());
-                
-                // Update member count
-                guildDao.updateGuildMemberCount(guild.getGuildId(), currentMembers + 1);
-                
-                // Sync invite status with Firebase
-                firebaseManager.updateGuildInviteStatus(inviteId, "accepted", 
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to update invite status in Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
-                
-                // Sync new member with Firebase
-                firebaseManager.addGuildMemberDocument(memberId, guild.getGuildId(), userId,
-                    user != null ? user.getUsername() : invite.getToUsername(),
-                    user != null ? user.getEmail() : "",
-                    user != null ? user.getAvatarId() : 0,
-                    false,
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to sync member to Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    guildDao.insertGuildMember(member);
+                    
+                    // Update invite status
+                    guildDao.updateInviteStatus(inviteId, "accepted", System.currentTimeMillis());
+                    
+                    // Update member count
+                    guildDao.updateGuildMemberCount(guild.getGuildId(), currentMembers + 1);
+                    
+                    // Queue invite status and new member for Firebase
+                    outbox.update("guild_invites", inviteId, FirebaseManager.statusUpdateData("accepted"));
+                    outbox.set("guild_members", memberId, FirebaseManager.guildMemberData(memberId,
+                        guild.getGuildId(), userId,
+                        user != null ? user.getUsername() : invite.getToUsername(),
+                        user != null ? user.getEmail() : "",
+                        user != null ? user.getAvatarId() : 0,
+                        false));
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Joined guild successfully", guild);
             } catch (Exception e) {
                 callback.onError("Failed to accept invite: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void declineGuildInvite(String inviteId, String userId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.declineGuildInvite", () -> {
             try {
                 GuildInvite invite = guildDao.getGuildInviteById(inviteId);
                 if (invite == null) {
@@ -502,23 +481,20 @@ public class GuildRepository {
                     return;
                 }
                 
-                // Update invite status
-                guildDao.updateInviteStatus(inviteId, "declined", System.currentTimeMillis());
-                
-                // Sync with Firebase
-                firebaseManager.updateGuildInviteStatus(inviteId, "declined", 
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to update invite status in Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    });
+                database.runInTransaction(() -> {
+                    // Update invite status
+                    guildDao.updateInviteStatus(inviteId, "declined", System.currentTimeMillis());
+                    
+                    // Queue sync with Firebase
+                    outbox.update("guild_invites", inviteId, FirebaseManager.statusUpdateData("declined"));
+                });
+                outbox.requestDrain();
                 
                 callback.onSuccess("Invite declined", null);
             } catch (Exception e) {
                 callback.onError("Failed to decline invite: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public GuildMember getGuildMemberByIdSync(String memberId) {
@@ -574,7 +550,7 @@ public class GuildRepository {
     
     public void getCurrentGuild(String userId, GuildCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getCurrentGuild", () -> {
             try {
                 GuildMember member = guildDao.getGuildMemberByUserId(userId);
                 if (member != null) {
@@ -586,24 +562,24 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to load guild: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getGuildMessages(String guildId, GuildMessageCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.getGuildMessages", () -> {
             try {
                 List<GuildMessage> messages = guildDao.getGuildMessages(guildId);
                 callback.onSuccess("Messages loaded successfully", messages);
             } catch (Exception e) {
                 callback.onError("Failed to load messages: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void sendGuildMessage(String guildId, String userId, String username, String messageText, GuildMessageCallback callback) {
         ensureExecutorActive();
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("GuildRepository.sendGuildMessage", () -> {
             try {
                 GuildMessage message = new GuildMessage();
                 message.setGuildId(guildId);
@@ -614,23 +590,14 @@ public class GuildRepository {
                 message.setTimestamp(timestamp);
                 message.setSystemMessage(false);
                 
-                guildDao.insertGuildMessage(message);
-                
-                // Sync with Firebase
-                firebaseManager.sendGuildMessageDocument(
-                    message.getMessageId(),
-                    guildId,
-                    userId,
-                    username,
-                    messageText,
-                    timestamp,
-                    (success, exception) -> {
-                        if (!success) {
-                            System.out.println("Failed to sync message to Firebase: " + 
-                                (exception != null ? exception.getMessage() : "Unknown error"));
-                        }
-                    }
-                );
+                database.runInTransaction(() -> {
+                    guildDao.insertGuildMessage(message);
+                    
+                    // Queue sync with Firebase
+                    outbox.set("guild_messages", message.getMessageId(), FirebaseManager.guildMessageData(
+                        message.getMessageId(), guildId, userId, username, messageText, timestamp));
+                });
+                outbox.requestDrain();
                 
                 // Return updated message list
                 List<GuildMessage> messages = guildDao.getGuildMessages(guildId);
@@ -638,7 +605,7 @@ public class GuildRepository {
             } catch (Exception e) {
                 callback.onError("Failed to send message: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void insertGuildMessageSync(GuildMessage message) {
@@ -2,9 +2,11 @@ package com.habitrpg.taskmanager.data.repository;
 
 import android.content.Context;
 import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.entities.DailyXp;
 import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.data.database.entities.TaskCompletion;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -43,7 +45,7 @@ public class TaskRepository {
     public void insertTask(Task task, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.insertTask", () -> {
             try {
                 long taskId = database.taskDao().insertTask(task);
                 task.setId((int) taskId);
@@ -51,72 +53,72 @@ public class TaskRepository {
             } catch (Exception e) {
                 callback.onError("Failed to create task: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void updateTask(Task task, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.updateTask", () -> {
             try {
                 database.taskDao().updateTask(task);
                 callback.onSuccess("Task updated successfully");
             } catch (Exception e) {
                 callback.onError("Failed to update task: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void updateTaskStatus(int taskId, String status, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.updateTaskStatus", () -> {
             try {
                 database.taskDao().updateTaskStatus(taskId, status);
                 callback.onSuccess("Task status updated successfully");
             } catch (Exception e) {
                 callback.onError("Failed to update task status: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getTaskById(int taskId, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getTaskById", () -> {
             try {
                 Task task = database.taskDao().getTaskById(taskId);
                 callback.onTaskRetrieved(task);
             } catch (Exception e) {
                 callback.onError("Failed to get task: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getActiveTasksByUserId(String userId, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getActiveTasksByUserId", () -> {
             try {
                 List<Task> tasks = database.taskDao().getActiveTasksByUserId(userId);
                 callback.onTasksRetrieved(tasks);
             } catch (Exception e) {
                 callback.onError("Failed to get active tasks: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getTasksByUserId(String userId, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getTasksByUserId", () -> {
             try {
                 List<Task> tasks = database.taskDao().getActiveTasksByUserId(userId);
                 callback.onTasksRetrieved(tasks);
             } catch (Exception e) {
                 callback.onError("Failed to get tasks by user: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getAllTasks(String userId, TaskCallback callback) {
@@ -126,92 +128,128 @@ public class TaskRepository {
     public void insertTaskCompletion(TaskCompletion completion, TaskCallback callback) {
         ensureExecutorActive();
 
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.insertTaskCompletion", () -> {
             try {
-                database.taskCompletionDao().insertTaskCompletion(completion);
+                database.runInTransaction(() -> {
+                    database.taskCompletionDao().insertTaskCompletion(completion);
+                    
+                    // Keep the daily_xp rollup in step with task_completions
+                    Task task = database.taskDao().getTaskById(completion.getTaskId());
+                    if (task != null) {
+                        long dayNumber = DailyXp.dayNumber(completion.getCompletedDate());
+                        database.dailyXpDao().insertDay(new DailyXp(task.getUserId(), dayNumber));
+                        database.dailyXpDao().addCompletion(task.getUserId(), dayNumber, completion.getXpEarned());
+                    }
+                });
                 callback.onSuccess("Task completion recorded successfully");
             } catch (Exception e) {
                 callback.onError("Failed to record task completion: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getTaskCountByDifficultyAndImportanceForDate(String userId, String difficulty, String importance, String date, TaskCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getTaskCountByDifficultyAndImportanceForDate", () -> {
             try {
                 int count = database.taskDao().getTaskCountByDifficultyAndImportanceForDate(userId, difficulty, importance, date);
                 callback.onTaskCountRetrieved(count);
             } catch (Exception e) {
                 callback.onError("Failed to get daily quota count: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getExtremeTaskCountForWeek(String userId, String weekStart, String weekEnd, TaskCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getExtremeTaskCountForWeek", () -> {
             try {
                 int count = database.taskDao().getExtremeTaskCountForWeek(userId, weekStart, weekEnd);
                 callback.onTaskCountRetrieved(count);
             } catch (Exception e) {
                 callback.onError("Failed to get weekly extreme count: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getSpecialTaskCountForMonth(String userId, String monthStart, String monthEnd, TaskCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getSpecialTaskCountForMonth", () -> {
             try {
                 int count = database.taskDao().getSpecialTaskCountForMonth(userId, monthStart, monthEnd);
                 callback.onTaskCountRetrieved(count);
             } catch (Exception e) {
                 callback.onError("Failed to get monthly special count: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getTasksByDate(String userId, String date, TaskCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getTasksByDate", () -> {
             try {
                 List<Task> tasks = database.taskDao().getTasksByDate(userId, date);
                 callback.onTasksRetrieved(tasks);
             } catch (Exception e) {
                 callback.onError("Failed to get tasks by date: " + e.getMessage());
             }
-        });
+        }));
     }
 
     public void getTasksInDateRange(String userId, String startDate, String endDate, TaskCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.getTasksInDateRange", () -> {
             try {
                 List<Task> tasks = database.taskDao().getTasksInDateRange(userId, startDate, endDate);
                 callback.onTasksRetrieved(tasks);
             } catch (Exception e) {
                 callback.onError("Failed to get tasks in date range: " + e.getMessage());
             }
-        });
+        }));
+    }
+
+    public void getTasksStartingBetween(String userId, String fromDate, String toDate, TaskCallback callback) {
+        ensureExecutorActive();
+        
+        executor.execute(Metrics.timed("TaskRepository.getTasksStartingBetween", () -> {
+            try {
+                List<Task> tasks = database.taskDao().getTasksStartingBetween(userId, fromDate, toDate);
+                callback.onTasksRetrieved(tasks);
+            } catch (Exception e) {
+                callback.onError("Failed to get tasks in date range: " + e.getMessage());
+            }
+        }));
+    }
+
+    public void searchTasks(String userId, String query, int limit, int offset, TaskCallback callback) {
+        ensureExecutorActive();
+        
+        executor.execute(Metrics.timed("TaskRepository.searchTasks", () -> {
+            try {
+                List<Task> tasks = database.taskDao().searchTasks(userId, query, limit, offset);
+                callback.onTasksRetrieved(tasks);
+            } catch (Exception e) {
+                callback.onError("Failed to search tasks: " + e.getMessage());
+            }
+        }));
     }
 
     public void deleteTask(int taskId, TaskCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("TaskRepository.deleteTask", () -> {
             try {
                 database.taskDao().deleteTaskById(taskId);
                 callback.onSuccess("Task deleted successfully");
             } catch (Exception e) {
                 callback.onError("Failed to delete task: " + e.getMessage());
             }
-        });
+        }));
     }
 
 
@@ -2,9 +2,13 @@ package com.habitrpg.taskmanager.data.repository;
 
 import android.content.Context;
 import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.dao.UserStageDao;
 import com.habitrpg.taskmanager.data.database.entities.User;
+import com.habitrpg.taskmanager.data.database.entities.UserStage;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
+import com.habitrpg.taskmanager.data.firebase.Outbox;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.util.Metrics;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -14,12 +18,14 @@ public class UserRepository {
     private static UserRepository instance;
     private AppDatabase database;
     private FirebaseManager firebaseManager;
+    private Outbox outbox;
     private UserPreferences userPreferences;
     private ExecutorService executor;
     
     private UserRepository(Context context) {
         database = AppDatabase.getDatabase(context);
         firebaseManager = FirebaseManager.getInstance();
+        outbox = Outbox.getInstance(context);
         userPreferences = UserPreferences.getInstance(context);
         executor = Executors.newFixedThreadPool(2);
     }
@@ -40,14 +46,14 @@ public class UserRepository {
     public void getUserById(String userId, UserCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserRepository.getUserById", () -> {
             try {
                 User user = database.userDao().getUserById(userId);
                 callback.onUserRetrieved(user);
             } catch (Exception e) {
                 callback.onError("Failed to get user: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void getCurrentUser(UserCallback callback) {
@@ -62,41 +68,81 @@ public class UserRepository {
     public void insertUser(User user, UserCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserRepository.insertUser", () -> {
             try {
                 database.userDao().insertUser(user);
                 callback.onSuccess("User inserted successfully");
             } catch (Exception e) {
                 callback.onError("Failed to insert user: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void updateUser(User user, UserCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserRepository.updateUser", () -> {
             try {
-                database.userDao().updateUser(user);
-                
-                firebaseManager.updateUserDocument(user, (success, exception) -> {
-                    if (success) {
-                        callback.onSuccess("User updated successfully");
-                    } else {
-                        callback.onError("Failed to sync user update: " + 
-                            (exception != null ? exception.getMessage() : "Unknown error"));
-                    }
+                database.runInTransaction(() -> {
+                    database.userDao().updateUser(user);
+                    outbox.update("users", user.getId(), FirebaseManager.userUpdateData(user));
                 });
+                outbox.requestDrain();
+                
+                callback.onSuccess("User updated successfully");
+            } catch (Exception e) {
+                callback.onError("Failed to update user: " + e.getMessage());
+            }
+        }));
+    }
+    
+    // Saves a user whose level went up from fromLevel, and records the stage change in the same
+    // transaction
+    public void levelUpUser(User user, int fromLevel, long timestamp, UserCallback callback) {
+        ensureExecutorActive();
+        
+        executor.execute(Metrics.timed("UserRepository.levelUpUser", () -> {
+            try {
+                database.runInTransaction(() -> writeUser(user, fromLevel, timestamp));
+                outbox.requestDrain();
+                
+                callback.onSuccess("User updated successfully");
             } catch (Exception e) {
                 callback.onError("Failed to update user: " + e.getMessage());
             }
-        });
+        }));
+    }
+    
+    // Writes the user and its outbox entry on the calling thread, for callers that fold the user
+    // update into their own transaction; they call requestSync() once it commits. If the level
+    // went up from fromLevel the open stage ends at timestamp, skipped levels get empty stages
+    // and the new level's stage starts.
+    public void writeUser(User user, int fromLevel, long timestamp) {
+        database.userDao().updateUser(user);
+        
+        if (user.getLevel() > fromLevel) {
+            UserStageDao stageDao = database.userStageDao();
+            if (stageDao.closeOpenStage(user.getId(), timestamp) == 0) {
+                // Stages before the first recorded level-up have no known start
+                stageDao.insertStage(new UserStage(user.getId(), fromLevel, 0, timestamp));
+            }
+            for (int level = fromLevel + 1; level < user.getLevel(); level++) {
+                stageDao.insertStage(new UserStage(user.getId(), level, timestamp, timestamp));
+            }
+            stageDao.insertStage(new UserStage(user.getId(), user.getLevel(), timestamp, null));
+        }
+        
+        outbox.update("users", user.getId(), FirebaseManager.userUpdateData(user));
+    }
+    
+    public void requestSync() {
+        outbox.requestDrain();
     }
     
     public void loginUser(String userId, UserCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserRepository.loginUser", () -> {
             try {
                 // First check if user exists in local database
                 User localUser = database.userDao().getUserById(userId);
@@ -129,7 +175,7 @@ public class UserRepository {
                             user.setCoins(coinsObj != null ? ((Number) coinsObj).intValue() : 300);
                             
                             // Insert user into local database
-                            executor.execute(() -> {
+                            executor.execute(Metrics.timed("UserRepository.loginUser.storeRemoteUser", () -> {
                                 try {
                                     database.userDao().insertUser(user);
                                     database.userDao().logoutAllUsers();
@@ -142,7 +188,7 @@ public class UserRepository {
                                 } catch (Exception e) {
                                     callback.onError("Failed to save user locally: " + e.getMessage());
                                 }
-                            });
+                            }));
                         } else {
                             callback.onError("User data not found in Firebase");
                         }
@@ -160,31 +206,34 @@ public class UserRepository {
             } catch (Exception e) {
                 callback.onError("Failed to login user: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void logoutAllUsers(UserCallback callback) {
         ensureExecutorActive();
         
-        executor.execute(() -> {
+        executor.execute(Metrics.timed("UserRepository.logoutAllUsers", () -> {
             try {
                 database.userDao().logoutAllUsers();
                 callback.onSuccess("All users logged out successfully");
             } catch (Exception e) {
                 callback.onError("Failed to logout users: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public void createUserDocument(User user, UserCallback callback) {
-        firebaseManager.createUserDocument(user, (success, exception) -> {
-            if (success) {
-                callback.onSuccess("User document created successfully");
-            } else {
-                callback.onError("Failed to create user document: " + 
-                    (exception != null ? exception.getMessage() : "Unknown error"));
+        ensureExecutorActive();
+        
+        executor.execute(Metrics.timed("UserRepository.createUserDocument", () -> {
+            try {
+                outbox.set("users", user.getId(), FirebaseManager.userDocumentData(user));
+                outbox.requestDrain();
+                callback.onSuccess("User document queued successfully");
+            } catch (Exception e) {
+                callback.onError("Failed to create user document: " + e.getMessage());
             }
-        });
+        }));
     }
     
     public interface UserCallback {
@@ -20,6 +20,7 @@ import com.habitrpg.taskmanager.service.GuildInviteListenerService;
 import com.habitrpg.taskmanager.service.FriendRequestListenerService;
 import com.habitrpg.taskmanager.service.FriendshipListenerService;
 import com.habitrpg.taskmanager.databinding.ActivityMainBinding;
+import com.habitrpg.taskmanager.util.StartupTimeline;
 
 public class MainActivity extends AppCompatActivity {
     
@@ -50,8 +51,14 @@ public class MainActivity extends AppCompatActivity {
         requestNotificationPermission();
         
         // Delay navigation setup to ensure fragment is ready
-        binding.getRoot().post(() -> {
-            setupNavigation();
+        binding.getRoot().post(this::setupNavigation);
+        
+        // Not needed for the first frame
+        StartupTimeline.afterFirstDraw(this, () -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            StartupTimeline.mark("main_deferred_start");
             // Check and update overdue tasks
             checkOverdueTasks();
             // Start listening for guild invites
@@ -2,41 +2,59 @@ package com.habitrpg.taskmanager.presentation.adapters;
 
 import android.content.Context;
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.Category;
 import com.habitrpg.taskmanager.data.database.entities.Task;
+import com.habitrpg.taskmanager.data.repository.CategorySnapshot;
 import com.habitrpg.taskmanager.service.CategoryService;
+import com.habitrpg.taskmanager.util.Tracing;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
-public class CalendarTaskAdapter extends RecyclerView.Adapter<CalendarTaskAdapter.CalendarTaskViewHolder> {
+public class CalendarTaskAdapter extends ListAdapter<Task, CalendarTaskAdapter.CalendarTaskViewHolder> {
+    
+    private static final String PAYLOAD_SELECTION = "selection";
     
-    private List<Task> tasks;
     private OnTaskClickListener listener;
-    private Map<Integer, Category> categories;
+    private OnSelectionChangedListener selectionListener;
+    private CategorySnapshot categories;
     private Context context;
+    // Multi-select: a long press starts it, taps then toggle tasks until the selection is empty
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
     
     public interface OnTaskClickListener {
         void onTaskClick(Task task);
     }
     
+    public interface OnSelectionChangedListener {
+        void onSelectionChanged(int selectedCount);
+    }
+    
     public CalendarTaskAdapter(Context context, List<Task> tasks, OnTaskClickListener listener) {
+        super(new TaskDiffCallback());
         this.context = context;
-        this.tasks = tasks;
         this.listener = listener;
-        this.categories = new HashMap<>();
+        this.categories = CategorySnapshot.EMPTY;
+        setHasStableIds(true);
+        updateTasks(tasks);
         loadCategories();
     }
     
@@ -50,38 +68,114 @@ public class CalendarTaskAdapter extends RecyclerView.Adapter<CalendarTaskAdapte
     
     @Override
     public void onBindViewHolder(@NonNull CalendarTaskViewHolder holder, int position) {
-        Task task = tasks.get(position);
-        holder.bind(task);
+        Tracing.begin("CalendarTaskAdapter.bind");
+        try {
+            Task task = getItem(position);
+            holder.bind(task);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
-    public int getItemCount() {
-        return tasks != null ? tasks.size() : 0;
+    public void onBindViewHolder(@NonNull CalendarTaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        
+        Tracing.begin("CalendarTaskAdapter.bindPayload");
+        try {
+            Task task = getItem(position);
+            for (Object payload : payloads) {
+                if (TaskDiffCallback.PAYLOAD_STATUS.equals(payload)) {
+                    holder.bindStatus(task);
+                } else if (TaskDiffCallback.PAYLOAD_CATEGORY.equals(payload)) {
+                    holder.bindCategory(task);
+                } else if (PAYLOAD_SELECTION.equals(payload)) {
+                    holder.bindSelection(task);
+                }
+            }
+        } finally {
+            Tracing.end();
+        }
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
     
+    // The diff runs on a background thread; callers often reuse and mutate one list, so the
+    // adapter keeps its own copy
     public void updateTasks(List<Task> newTasks) {
-        this.tasks = newTasks;
-        notifyDataSetChanged();
+        submitList(newTasks != null ? new ArrayList<>(newTasks) : null);
+    }
+    
+    public void setOnSelectionChangedListener(OnSelectionChangedListener selectionListener) {
+        this.selectionListener = selectionListener;
+    }
+    
+    public boolean isSelectionMode() {
+        return !selectedIds.isEmpty();
+    }
+    
+    public List<Integer> getSelectedTaskIds() {
+        return new ArrayList<>(selectedIds);
+    }
+    
+    public void clearSelection() {
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        notifySelectionChanged();
+    }
+    
+    private void toggleSelection(int position) {
+        int taskId = getItem(position).getId();
+        if (!selectedIds.remove(taskId)) {
+            selectedIds.add(taskId);
+        }
+        if (selectedIds.isEmpty() || selectedIds.size() == 1 && selectedIds.contains(taskId)) {
+            // Entering or leaving selection mode changes every row
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        } else {
+            notifyItemChanged(position, PAYLOAD_SELECTION);
+        }
+        notifySelectionChanged();
+    }
+    
+    @Override
+    public void onCurrentListChanged(@NonNull List<Task> previousList, @NonNull List<Task> currentList) {
+        // Drop selected tasks that are no longer listed, e.g. deleted or filtered out
+        Set<Integer> listedIds = new HashSet<>();
+        for (Task task : currentList) {
+            listedIds.add(task.getId());
+        }
+        if (selectedIds.retainAll(listedIds)) {
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+            notifySelectionChanged();
+        }
+    }
+    
+    private void notifySelectionChanged() {
+        if (selectionListener != null) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
     }
     
     private void loadCategories() {
-        CategoryService categoryService = CategoryService.getInstance(context);
-        categoryService.getAllCategories(new CategoryService.CategoryCallback() {
-            @Override
-            public void onSuccess(String message) {}
-            
-            @Override
-            public void onError(String error) {}
-            
-            @Override
-            public void onCategoriesRetrieved(List<Category> categoryList) {
-                categories.clear();
-                for (Category category : categoryList) {
-                    categories.put(category.getId(), category);
+        CategoryService.getInstance(context).getCategorySnapshot(snapshot ->
+            new Handler(Looper.getMainLooper()).post(() -> {
+                if (snapshot == categories) {
+                    return;
                 }
-                notifyDataSetChanged();
-            }
-        });
+                categories = snapshot;
+                // Only the category views depend on this
+                notifyItemRangeChanged(0, getItemCount(), TaskDiffCallback.PAYLOAD_CATEGORY);
+            }));
     }
     
     class CalendarTaskViewHolder extends RecyclerView.ViewHolder {
@@ -92,6 +186,7 @@ public class CalendarTaskAdapter extends RecyclerView.Adapter<CalendarTaskAdapte
         private TextView tvCategoryName;
         private TextView tvTaskStatus;
         private TextView tvXPValue;
+        private ImageView ivSelected;
         
         public CalendarTaskViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -102,15 +197,28 @@ public class CalendarTaskAdapter extends RecyclerView.Adapter<CalendarTaskAdapte
             tvCategoryName = itemView.findViewById(R.id.tvCategoryName);
             tvTaskStatus = itemView.findViewById(R.id.tvTaskStatus);
             tvXPValue = itemView.findViewById(R.id.tvXPValue);
+            ivSelected = itemView.findViewById(R.id.ivSelected);
             
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onTaskClick(tasks.get(position));
-                    }
+                int position = getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) {
+                    return;
+                }
+                if (isSelectionMode()) {
+                    toggleSelection(position);
+                } else if (listener != null) {
+                    listener.onTaskClick(getItem(position));
                 }
             });
+            
+            itemView.setOnLongClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION || selectionListener == null) {
+                    return false;
+                }
+                toggleSelection(position);
+                return true;
+            });
         }
         
         public void bind(Task task) {
@@ -133,11 +241,28 @@ public class CalendarTaskAdapter extends RecyclerView.Adapter<CalendarTaskAdapte
             // Set XP value
             tvXPValue.setText("+" + task.getXpValue());
             
-            // Set status
+            bindCategory(task);
+            bindStatus(task);
+            bindSelection(task);
+        }
+        
+        void bindSelection(Task task) {
+            boolean selected = selectedIds.contains(task.getId());
+            ivSelected.setVisibility(isSelectionMode() ? View.VISIBLE : View.GONE);
+            ivSelected.setAlpha(selected ? 1.0f : 0.3f);
+            itemView.setActivated(selected);
+        }
+        
+        void bindStatus(Task task) {
             tvTaskStatus.setText(getStatusText(task.getStatus()));
             
+            // Add status overlay effect
+            addStatusOverlay(task.getStatus());
+        }
+        
+        void bindCategory(Task task) {
             // Set category and background color
-            Category category = categories.get(task.getCategoryId());
+            Category category = categories.getById(task.getCategoryId());
             if (category != null) {
                 tvCategoryName.setText(category.getName());
                 
@@ -159,9 +284,6 @@ public class CalendarTaskAdapter extends RecyclerView.Adapter<CalendarTaskAdapte
                 taskContainer.setBackgroundColor(Color.parseColor("#757575"));
                 taskCard.setCardBackgroundColor(Color.parseColor("#757575"));
             }
-            
-            // Add status overlay effect
-            addStatusOverlay(task.getStatus());
         }
         
         private void addStatusOverlay(String status) {
@@ -12,6 +12,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.Category;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.List;
 
@@ -42,8 +43,13 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.Catego
     
     @Override
     public void onBindViewHolder(@NonNull CategoryViewHolder holder, int position) {
-        Category category = categories.get(position);
-        holder.bind(category);
+        Tracing.begin("CategoryAdapter.bind");
+        try {
+            Category category = categories.get(position);
+            holder.bind(category);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
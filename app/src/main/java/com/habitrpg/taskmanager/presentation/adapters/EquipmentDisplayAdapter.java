@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.Equipment;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.List;
 
@@ -41,8 +42,13 @@ public class EquipmentDisplayAdapter extends RecyclerView.Adapter<EquipmentDispl
 
     @Override
     public void onBindViewHolder(@NonNull EquipmentViewHolder holder, int position) {
-        Equipment equipment = equipmentList.get(position);
-        holder.bind(equipment);
+        Tracing.begin("EquipmentDisplayAdapter.bind");
+        try {
+            Equipment equipment = equipmentList.get(position);
+            holder.bind(equipment);
+        } finally {
+            Tracing.end();
+        }
     }
 
     @Override
@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.Friend;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.List;
 
@@ -43,8 +44,13 @@ public class FriendAdapter extends RecyclerView.Adapter<FriendAdapter.FriendView
     
     @Override
     public void onBindViewHolder(@NonNull FriendViewHolder holder, int position) {
-        Friend friend = friends.get(position);
-        holder.bind(friend);
+        Tracing.begin("FriendAdapter.bind");
+        try {
+            Friend friend = friends.get(position);
+            holder.bind(friend);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
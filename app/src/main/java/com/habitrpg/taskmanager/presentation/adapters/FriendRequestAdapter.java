@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.FriendRequest;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.List;
 
@@ -43,8 +44,13 @@ public class FriendRequestAdapter extends RecyclerView.Adapter<FriendRequestAdap
     
     @Override
     public void onBindViewHolder(@NonNull FriendRequestViewHolder holder, int position) {
-        FriendRequest request = requests.get(position);
-        holder.bind(request);
+        Tracing.begin("FriendRequestAdapter.bind");
+        try {
+            FriendRequest request = requests.get(position);
+            holder.bind(request);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
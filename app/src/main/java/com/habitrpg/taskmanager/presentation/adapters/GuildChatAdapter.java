@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.GuildMessage;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -43,8 +44,13 @@ public class GuildChatAdapter extends RecyclerView.Adapter<GuildChatAdapter.Mess
 
     @Override
     public void onBindViewHolder(@NonNull MessageViewHolder holder, int position) {
-        GuildMessage message = messages.get(position);
-        holder.bind(message);
+        Tracing.begin("GuildChatAdapter.bind");
+        try {
+            GuildMessage message = messages.get(position);
+            holder.bind(message);
+        } finally {
+            Tracing.end();
+        }
     }
 
     @Override
@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.GuildInvite;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -48,8 +49,13 @@ public class GuildInviteAdapter extends RecyclerView.Adapter<GuildInviteAdapter.
     
     @Override
     public void onBindViewHolder(@NonNull InviteViewHolder holder, int position) {
-        GuildInvite invite = invites.get(position);
-        holder.bind(invite);
+        Tracing.begin("GuildInviteAdapter.bind");
+        try {
+            GuildInvite invite = invites.get(position);
+            holder.bind(invite);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
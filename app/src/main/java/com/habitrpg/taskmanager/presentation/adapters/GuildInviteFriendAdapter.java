@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.Friend;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,8 +42,13 @@ public class GuildInviteFriendAdapter extends RecyclerView.Adapter<GuildInviteFr
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Friend friend = friends.get(position);
-        holder.bind(friend);
+        Tracing.begin("GuildInviteFriendAdapter.bind");
+        try {
+            Friend friend = friends.get(position);
+            holder.bind(friend);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
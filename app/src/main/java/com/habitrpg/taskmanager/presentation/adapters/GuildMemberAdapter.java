@@ -10,6 +10,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.GuildMember;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -41,8 +42,13 @@ public class GuildMemberAdapter extends RecyclerView.Adapter<GuildMemberAdapter.
     
     @Override
     public void onBindViewHolder(@NonNull MemberViewHolder holder, int position) {
-        GuildMember member = members.get(position);
-        holder.bind(member);
+        Tracing.begin("GuildMemberAdapter.bind");
+        try {
+            GuildMember member = members.get(position);
+            holder.bind(member);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.presentation.fragments.ShopFragment;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.List;
 
@@ -38,8 +39,13 @@ public class ShopAdapter extends RecyclerView.Adapter<ShopAdapter.ShopViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull ShopViewHolder holder, int position) {
-        ShopFragment.ShopItem item = shopItems.get(position);
-        holder.bind(item);
+        Tracing.begin("ShopAdapter.bind");
+        try {
+            ShopFragment.ShopItem item = shopItems.get(position);
+            holder.bind(item);
+        } finally {
+            Tracing.end();
+        }
     }
 
     @Override
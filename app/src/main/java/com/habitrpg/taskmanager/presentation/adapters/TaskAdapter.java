@@ -2,6 +2,8 @@ package com.habitrpg.taskmanager.presentation.adapters;
 
 import android.content.Context;
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,22 +11,23 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.Category;
 import com.habitrpg.taskmanager.data.database.entities.Task;
+import com.habitrpg.taskmanager.data.repository.CategorySnapshot;
 import com.habitrpg.taskmanager.service.CategoryService;
+import com.habitrpg.taskmanager.util.Tracing;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
+public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
     
-    private List<Task> tasks;
     private OnTaskClickListener listener;
-    private Map<Integer, Category> categories;
+    private CategorySnapshot categories;
     private Context context;
     
     public interface OnTaskClickListener {
@@ -35,10 +38,12 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
     }
     
     public TaskAdapter(Context context, List<Task> tasks, OnTaskClickListener listener) {
+        super(new TaskDiffCallback());
         this.context = context;
-        this.tasks = tasks;
         this.listener = listener;
-        this.categories = new HashMap<>();
+        this.categories = CategorySnapshot.EMPTY;
+        setHasStableIds(true);
+        updateTasks(tasks);
         loadCategories();
     }
     
@@ -53,38 +58,58 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
     
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        Task task = tasks.get(position);
-        holder.bind(task);
+        Tracing.begin("TaskAdapter.bind");
+        try {
+            Task task = getItem(position);
+            holder.bind(task);
+        } finally {
+            Tracing.end();
+        }
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        
+        Tracing.begin("TaskAdapter.bindPayload");
+        try {
+            Task task = getItem(position);
+            for (Object payload : payloads) {
+                if (TaskDiffCallback.PAYLOAD_STATUS.equals(payload)) {
+                    holder.bindStatus(task);
+                } else if (TaskDiffCallback.PAYLOAD_CATEGORY.equals(payload)) {
+                    holder.bindCategory(task);
+                }
+            }
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
-    public int getItemCount() {
-        return tasks != null ? tasks.size() : 0;
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
     
+    // The diff runs on a background thread; callers often reuse and mutate one list, so the
+    // adapter keeps its own copy
     public void updateTasks(List<Task> newTasks) {
-        this.tasks = newTasks;
-        notifyDataSetChanged();
+        submitList(newTasks != null ? new ArrayList<>(newTasks) : null);
     }
     
     private void loadCategories() {
-        CategoryService categoryService = CategoryService.getInstance(context);
-        categoryService.getAllCategories(new CategoryService.CategoryCallback() {
-            @Override
-            public void onSuccess(String message) {}
-            
-            @Override
-            public void onError(String error) {}
-            
-            @Override
-            public void onCategoriesRetrieved(List<Category> categoryList) {
-                categories.clear();
-                for (Category category : categoryList) {
-                    categories.put(category.getId(), category);
+        CategoryService.getInstance(context).getCategorySnapshot(snapshot ->
+            new Handler(Looper.getMainLooper()).post(() -> {
+                if (snapshot == categories) {
+                    return;
                 }
-                notifyDataSetChanged();
-            }
-        });
+                categories = snapshot;
+                // Only the category views depend on this
+                notifyItemRangeChanged(0, getItemCount(), TaskDiffCallback.PAYLOAD_CATEGORY);
+            }));
     }
     
     class TaskViewHolder extends RecyclerView.ViewHolder {
@@ -124,7 +149,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onTaskClick(tasks.get(position));
+                        listener.onTaskClick(getItem(position));
                     }
                 }
             });
@@ -133,7 +158,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onTaskComplete(tasks.get(position));
+                        listener.onTaskComplete(getItem(position));
                     }
                 }
             });
@@ -142,7 +167,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onTaskEdit(tasks.get(position));
+                        listener.onTaskEdit(getItem(position));
                     }
                 }
             });
@@ -151,7 +176,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onTaskDelete(tasks.get(position));
+                        listener.onTaskDelete(getItem(position));
                     }
                 }
             });
@@ -190,8 +215,20 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 tvTaskTime.setVisibility(View.GONE);
             }
             
-            // Set category info
-            Category category = categories.get(task.getCategoryId());
+            bindCategory(task);
+            
+            // Show recurring indicator for recurring tasks
+            if (task.isRecurring()) {
+                tvRecurringIndicator.setVisibility(View.VISIBLE);
+            } else {
+                tvRecurringIndicator.setVisibility(View.GONE);
+            }
+            
+            bindStatus(task);
+        }
+        
+        void bindCategory(Task task) {
+            Category category = categories.getById(task.getCategoryId());
             if (category != null) {
                 tvTaskCategory.setText(category.getName());
                 tvTaskCategory.setVisibility(View.VISIBLE);
@@ -205,14 +242,9 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 tvTaskCategory.setVisibility(View.GONE);
                 categoryColorIndicator.setBackgroundColor(Color.GRAY);
             }
-            
-            // Show recurring indicator for recurring tasks
-            if (task.isRecurring()) {
-                tvRecurringIndicator.setVisibility(View.VISIBLE);
-            } else {
-                tvRecurringIndicator.setVisibility(View.GONE);
-            }
-            
+        }
+        
+        void bindStatus(Task task) {
             tvTaskStatus.setText(getStatusText(task.getStatus()));
             setStatusColor(task.getStatus());
             
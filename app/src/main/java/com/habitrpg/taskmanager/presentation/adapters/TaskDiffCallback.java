@@ -0,0 +1,46 @@
+package com.habitrpg.taskmanager.presentation.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import java.util.Objects;
+
+// Shared by the task list adapters. Rows are matched by Task.id; when only the status of a
+// row changed, the adapters rebind just the status views instead of the whole row.
+public class TaskDiffCallback extends DiffUtil.ItemCallback<Task> {
+
+    public static final String PAYLOAD_STATUS = "status";
+    public static final String PAYLOAD_CATEGORY = "category";
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+        return oldTask.getId() == newTask.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+        return sameExceptStatus(oldTask, newTask)
+            && Objects.equals(oldTask.getStatus(), newTask.getStatus());
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull Task oldTask, @NonNull Task newTask) {
+        return sameExceptStatus(oldTask, newTask) ? PAYLOAD_STATUS : null;
+    }
+
+    private static boolean sameExceptStatus(Task oldTask, Task newTask) {
+        return oldTask.getCategoryId() == newTask.getCategoryId()
+            && oldTask.getXpValue() == newTask.getXpValue()
+            && oldTask.isRecurring() == newTask.isRecurring()
+            && Objects.equals(oldTask.getName(), newTask.getName())
+            && Objects.equals(oldTask.getDescription(), newTask.getDescription())
+            && Objects.equals(oldTask.getDifficulty(), newTask.getDifficulty())
+            && Objects.equals(oldTask.getImportance(), newTask.getImportance())
+            && Objects.equals(oldTask.getStartDate(), newTask.getStartDate())
+            && Objects.equals(oldTask.getEndDate(), newTask.getEndDate());
+    }
+}
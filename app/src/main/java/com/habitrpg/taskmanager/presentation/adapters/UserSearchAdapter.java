@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.User;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.List;
 
@@ -37,8 +38,13 @@ public class UserSearchAdapter extends RecyclerView.Adapter<UserSearchAdapter.Us
     
     @Override
     public void onBindViewHolder(@NonNull UserSearchViewHolder holder, int position) {
-        User user = users.get(position);
-        holder.bind(user);
+        Tracing.begin("UserSearchAdapter.bind");
+        try {
+            User user = users.get(position);
+            holder.bind(user);
+        } finally {
+            Tracing.end();
+        }
     }
     
     @Override
@@ -18,23 +18,31 @@ import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.databinding.FragmentCalendarBinding;
 import com.habitrpg.taskmanager.presentation.adapters.CalendarTaskAdapter;
 import com.habitrpg.taskmanager.service.TaskService;
+import com.habitrpg.taskmanager.util.MonthTaskIndex;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class CalendarFragment extends Fragment {
     
     private FragmentCalendarBinding binding;
     private TaskService taskService;
     private CalendarTaskAdapter taskAdapter;
-    private List<Task> allTasks;
     private List<Task> tasksForSelectedDate;
     private String selectedDate;
+    private int selectedYear;
+    private int selectedMonth;
+    private int selectedDay;
+    // Visible month and its neighbours, keyed by MonthTaskIndex.key()
+    private final Map<String, MonthTaskIndex> monthIndexes = new HashMap<>();
+    // Bumped whenever monthIndexes is cleared; fetches started before that are stale
+    private int monthIndexGeneration;
     
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -48,20 +56,24 @@ public class CalendarFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         taskService = TaskService.getInstance(requireContext());
-        allTasks = new ArrayList<>();
         tasksForSelectedDate = new ArrayList<>();
         
         // Set selected date to today by default
-        selectedDate = getCurrentDateString();
+        Calendar today = Calendar.getInstance();
+        setSelectedDate(today.get(Calendar.YEAR), today.get(Calendar.MONTH), today.get(Calendar.DAY_OF_MONTH));
         
         setupUI();
-        loadAllTasks();
+    }
+    
+    private void setSelectedDate(int year, int month, int dayOfMonth) {
+        selectedYear = year;
+        selectedMonth = month;
+        selectedDay = dayOfMonth;
+        selectedDate = String.format(Locale.US, "%04d-%02d-%02d", year, month + 1, dayOfMonth);
     }
     
     private void setupUI() {
-        // Set current month display
-        SimpleDateFormat monthFormat = new SimpleDateFormat("MMMM yyyy", Locale.getDefault());
-        binding.tvCurrentMonth.setText(monthFormat.format(new Date()));
+        updateMonthDisplay();
         
         // Set selected date display
         updateSelectedDateDisplay();
@@ -70,14 +82,17 @@ public class CalendarFragment extends Fragment {
         binding.calendarView.setOnDateChangeListener(new CalendarView.OnDateChangeListener() {
             @Override
             public void onSelectedDayChange(@NonNull CalendarView view, int year, int month, int dayOfMonth) {
-                // Format the selected date
-                Calendar calendar = Calendar.getInstance();
-                calendar.set(year, month, dayOfMonth);
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-                selectedDate = sdf.format(calendar.getTime());
+                boolean monthChanged = year != selectedYear || month != selectedMonth;
+                setSelectedDate(year, month, dayOfMonth);
                 
                 updateSelectedDateDisplay();
-                filterTasksForDate();
+                if (monthChanged) {
+                    updateMonthDisplay();
+                    loadMonth();
+                } else {
+                    // Same month: served from the index without a query
+                    filterTasksForDate();
+                }
             }
         });
         
@@ -92,38 +107,82 @@ public class CalendarFragment extends Fragment {
             }
         });
         
+        // Long press starts multi-select; bulk actions rebuild the cached months
+        new TaskSelectionActions(this, binding.selectionBar, taskAdapter, () -> {
+            clearMonthIndexes();
+            loadMonth();
+        });
+        
         binding.recyclerViewTasks.setLayoutManager(new LinearLayoutManager(getContext()));
         binding.recyclerViewTasks.setAdapter(taskAdapter);
         
         showLoading(true);
     }
     
-    private void loadAllTasks() {
-        taskService.getAllTasks(new TaskService.TaskCallback() {
-            @Override
-            public void onSuccess(String message) {}
-            
+    private void loadMonth() {
+        MonthTaskIndex index = monthIndexes.get(MonthTaskIndex.key(selectedYear, selectedMonth));
+        if (index != null) {
+            showLoading(false);
+            filterTasksForDate();
+            prefetchNeighbourMonths();
+            return;
+        }
+        
+        showLoading(true);
+        fetchMonth(selectedYear, selectedMonth, true);
+    }
+    
+    private void prefetchNeighbourMonths() {
+        for (int offset : new int[] {-1, 1}) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(selectedYear, selectedMonth, 1);
+            calendar.add(Calendar.MONTH, offset);
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH);
+            if (!monthIndexes.containsKey(MonthTaskIndex.key(year, month))) {
+                fetchMonth(year, month, false);
+            }
+        }
+    }
+    
+    private void clearMonthIndexes() {
+        monthIndexes.clear();
+        monthIndexGeneration++;
+    }
+    
+    private void fetchMonth(int year, int month, boolean visible) {
+        int generation = monthIndexGeneration;
+        taskService.getMonthIndex(year, month, new TaskService.MonthIndexCallback() {
             @Override
-            public void onError(String error) {
+            public void onMonthIndexRetrieved(MonthTaskIndex index) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
-                        showLoading(false);
-                        Toast.makeText(getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show();
+                        // A fetch started after the clear will deliver this month again
+                        if (binding == null || generation != monthIndexGeneration) {
+                            return;
+                        }
+                        monthIndexes.put(MonthTaskIndex.key(year, month), index);
+                        if (year == selectedYear && month == selectedMonth) {
+                            showLoading(false);
+                            filterTasksForDate();
+                            if (visible) {
+                                prefetchNeighbourMonths();
+                            }
+                        }
                     });
                 }
             }
             
             @Override
-            public void onTasksRetrieved(List<Task> tasks) {
-                if (getActivity() != null) {
+            public void onError(String error) {
+                if (visible && getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
-                        showLoading(false);
-                        
-                        if (tasks != null) {
-                            allTasks.clear();
-                            allTasks.addAll(tasks);
-                            filterTasksForDate();
+                        if (binding == null || generation != monthIndexGeneration) {
+                            return;
                         }
+                        showLoading(false);
+                        Toast.makeText(getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show();
                     });
                 }
             }
@@ -133,43 +192,42 @@ public class CalendarFragment extends Fragment {
     private void filterTasksForDate() {
         tasksForSelectedDate.clear();
         
-        if (allTasks != null) {
-            // Include all tasks that match the selected date
-            List<Task> filtered = allTasks.stream()
-                    .filter(task -> task.getStartDate() != null && 
-                            task.getStartDate().startsWith(selectedDate))
-                    .sorted((t1, t2) -> {
-                        String time1 = "23:59";
-                        String time2 = "23:59";
-                        
-                        // Extract time from combined start_date
-                        if (t1.getStartDate() != null && t1.getStartDate().contains(" ")) {
-                            String[] parts1 = t1.getStartDate().split(" ");
-                            if (parts1.length > 1) {
-                                time1 = parts1[1];
-                            }
-                        }
-                        
-                        if (t2.getStartDate() != null && t2.getStartDate().contains(" ")) {
-                            String[] parts2 = t2.getStartDate().split(" ");
-                            if (parts2.length > 1) {
-                                time2 = parts2[1];
-                            }
-                        }
-                        
-                        return time1.compareTo(time2);
-                    })
-                    .collect(Collectors.toList());
-            
-            tasksForSelectedDate.addAll(filtered);
+        MonthTaskIndex index = monthIndexes.get(MonthTaskIndex.key(selectedYear, selectedMonth));
+        if (index != null) {
+            tasksForSelectedDate.addAll(index.getTasksForDay(selectedDay));
+        }
+        
+        taskAdapter.updateTasks(tasksForSelectedDate);
+        showEmptyState(tasksForSelectedDate.isEmpty());
+        updateDaySummary(index);
+    }
+    
+    private void updateDaySummary(MonthTaskIndex index) {
+        if (index == null || tasksForSelectedDate.isEmpty()) {
+            binding.tvDaySummary.setText("Zadaci sortirani po vremenu izvršavanja");
+            return;
         }
         
-        if (tasksForSelectedDate.isEmpty()) {
-            showEmptyState(true);
-        } else {
-            showEmptyState(false);
-            taskAdapter.updateTasks(tasksForSelectedDate);
+        String[] labels = {"aktivnih", "završenih", "nezavršenih", "pauziranih", "otkazanih"};
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < MonthTaskIndex.STATUSES.length; i++) {
+            int count = index.getStatusCount(selectedDay, MonthTaskIndex.STATUSES[i]);
+            if (count > 0) {
+                if (summary.length() > 0) {
+                    summary.append(" · ");
+                }
+                summary.append(count).append(' ').append(labels[i]);
+            }
         }
+        binding.tvDaySummary.setText(summary.toString());
+    }
+    
+    private void updateMonthDisplay() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(selectedYear, selectedMonth, 1);
+        SimpleDateFormat monthFormat = new SimpleDateFormat("MMMM yyyy", Locale.getDefault());
+        binding.tvCurrentMonth.setText(monthFormat.format(calendar.getTime()));
     }
     
     private void updateSelectedDateDisplay() {
@@ -194,15 +252,12 @@ public class CalendarFragment extends Fragment {
         binding.recyclerViewTasks.setVisibility(show ? View.GONE : View.VISIBLE);
     }
     
-    private String getCurrentDateString() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return sdf.format(new Date());
-    }
-    
     @Override
     public void onResume() {
         super.onResume();
-        loadAllTasks();
+        // Tasks may have changed while away; rebuild the visible month and its neighbours
+        clearMonthIndexes();
+        loadMonth();
     }
     
     @Override
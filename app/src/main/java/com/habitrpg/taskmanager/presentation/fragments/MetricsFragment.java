@@ -0,0 +1,123 @@
+package com.habitrpg.taskmanager.presentation.fragments;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.SyntheticDataGenerator;
+import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.data.repository.CategoryRepository;
+import com.habitrpg.taskmanager.databinding.FragmentMetricsBinding;
+import com.habitrpg.taskmanager.util.MainThreadWatchdog;
+import com.habitrpg.taskmanager.util.Metrics;
+import com.habitrpg.taskmanager.util.SlowQueryLogger;
+
+import org.json.JSONException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Debug screen showing the Metrics registry as JSON, followed by the slowest SQL statements and
+// the recorded main thread stalls
+public class MetricsFragment extends Fragment {
+
+    private static final int SLOW_QUERY_ROWS = 20;
+    private static final long GENERATOR_SEED = 42;
+    private static final int GENERATOR_ROWS = 100_000;
+
+    private FragmentMetricsBinding binding;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        binding = FragmentMetricsBinding.inflate(inflater, container, false);
+        return binding.getRoot();
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        binding.btnRefresh.setOnClickListener(v -> showMetrics());
+        binding.btnLog.setOnClickListener(v -> {
+            Metrics.dumpToLog();
+            SlowQueryLogger.logReport();
+            Toast.makeText(getContext(), "Metrics written to logcat", Toast.LENGTH_SHORT).show();
+        });
+        binding.btnReset.setOnClickListener(v -> {
+            Metrics.reset();
+            SlowQueryLogger.reset();
+            MainThreadWatchdog.getInstance(requireContext()).clear();
+            showMetrics();
+        });
+
+        binding.btnGenerateData.setOnClickListener(v -> generateData());
+
+        showMetrics();
+    }
+
+    // Adds a seeded dataset once. The signed-in user gets its tasks so the app shows them; the
+    // rest of the dataset belongs to synthetic users.
+    private void generateData() {
+        Context appContext = requireContext().getApplicationContext();
+        String userId = UserPreferences.getInstance(appContext).getCurrentUserId();
+        binding.btnGenerateData.setEnabled(false);
+        executor.execute(() -> {
+            AppDatabase database = AppDatabase.getDatabase(appContext);
+            String message;
+            if (SyntheticDataGenerator.isGenerated(database)) {
+                message = "Synthetic data is already generated";
+            } else {
+                SyntheticDataGenerator.Result result = SyntheticDataGenerator.generate(database,
+                    SyntheticDataGenerator.Config.ofRows(GENERATOR_SEED, GENERATOR_ROWS, userId));
+                CategoryRepository.getInstance(appContext).invalidateSnapshot();
+                message = "Generated " + result;
+            }
+            if (getActivity() == null) {
+                return;
+            }
+            getActivity().runOnUiThread(() -> {
+                if (binding == null) {
+                    return;
+                }
+                binding.btnGenerateData.setEnabled(true);
+                Toast.makeText(appContext, message, Toast.LENGTH_LONG).show();
+                showMetrics();
+            });
+        });
+    }
+
+    private void showMetrics() {
+        try {
+            String text = Metrics.toJson().toString(2);
+            if (SlowQueryLogger.isEnabled()) {
+                text += "\n\nSlowest SQL statements\n" + SlowQueryLogger.report(SLOW_QUERY_ROWS);
+            }
+            text += "\n\nMain thread stalls\n" + MainThreadWatchdog.getInstance(requireContext()).getStalls().toString(2);
+            binding.tvMetrics.setText(text);
+        } catch (JSONException e) {
+            binding.tvMetrics.setText(e.getMessage());
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        executor.shutdown();
+    }
+}
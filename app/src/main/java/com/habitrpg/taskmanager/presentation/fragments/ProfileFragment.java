@@ -1,7 +1,8 @@
 package com.habitrpg.taskmanager.presentation.fragments;
 
+import android.content.Context;
 import android.content.Intent;
-import android.graphics.Bitmap;
+import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
@@ -11,23 +12,47 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.Navigation;
 
 import com.habitrpg.taskmanager.presentation.dialogs.ChangePasswordDialog;
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.service.AuthService;
+import com.habitrpg.taskmanager.service.BackupService;
+import com.habitrpg.taskmanager.service.ExportService;
 import com.habitrpg.taskmanager.service.XPService;
 import com.habitrpg.taskmanager.data.database.entities.User;
 import com.habitrpg.taskmanager.databinding.FragmentProfileBinding;
 import com.habitrpg.taskmanager.presentation.activities.AuthActivity;
+import com.habitrpg.taskmanager.util.DateUtils;
+import com.habitrpg.taskmanager.util.Metrics;
 import com.habitrpg.taskmanager.util.QRCodeGenerator;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 public class ProfileFragment extends Fragment {
 
     private FragmentProfileBinding binding;
     private AuthService authService;
     private User currentUser;
+    private ExportService.ExportJob exportJob;
+
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/json"),
+            uri -> startExport(ExportService.Format.JSON, uri));
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/zip"),
+            uri -> startExport(ExportService.Format.CSV, uri));
+    private final ActivityResultLauncher<String> backupLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/gzip"),
+            this::startBackup);
+    private final ActivityResultLauncher<String[]> restoreLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(),
+            this::confirmRestore);
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -55,6 +80,201 @@ public class ProfileFragment extends Fragment {
         binding.btnLevelProgress.setOnClickListener(v -> showLevelProgress());
         binding.btnStatistics.setOnClickListener(v -> showStatistics());
         binding.btnShop.setOnClickListener(v -> showShop());
+        binding.btnExportHistory.setOnClickListener(v -> exportHistory());
+        binding.btnBackupDatabase.setOnClickListener(v ->
+                backupLauncher.launch("taskmanager-backup-" + DateUtils.getCurrentDateString() + ".db.gz"));
+        binding.btnRestoreDatabase.setOnClickListener(v -> restoreLauncher.launch(new String[] {"*/*"}));
+        binding.btnMetrics.setVisibility(Metrics.isEnabled() ? View.VISIBLE : View.GONE);
+        binding.btnMetrics.setOnClickListener(v ->
+                Navigation.findNavController(requireView()).navigate(R.id.navigation_metrics));
+    }
+
+    private void startBackup(Uri uri) {
+        if (uri == null || binding == null) {
+            return;
+        }
+        OutputStream output;
+        try {
+            output = requireContext().getContentResolver().openOutputStream(uri);
+        } catch (Exception e) {
+            output = null;
+        }
+        if (output == null) {
+            Toast.makeText(getContext(), "Failed to open backup file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        showLoading(true);
+        BackupService.getInstance(requireContext()).backup(output, backupCallback());
+    }
+
+    private void confirmRestore(Uri uri) {
+        if (uri == null || binding == null) {
+            return;
+        }
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Restore Data")
+                .setMessage("All local data will be replaced with the backup. Continue?")
+                .setPositiveButton("Restore", (dialog, which) -> startRestore(uri))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void startRestore(Uri uri) {
+        InputStream input;
+        try {
+            input = requireContext().getContentResolver().openInputStream(uri);
+        } catch (Exception e) {
+            input = null;
+        }
+        if (input == null) {
+            Toast.makeText(getContext(), "Failed to open backup file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        showLoading(true);
+        BackupService.getInstance(requireContext()).restore(input, new BackupService.BackupCallback() {
+            @Override
+            public void onSuccess(String message, long elapsedMillis) {
+                Context context = getContext();
+                if (context != null) {
+                    restartApp(context.getApplicationContext());
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                onBackupFinished(error);
+            }
+        });
+    }
+
+    // The restored database is swapped in when the process starts again
+    private static void restartApp(Context context) {
+        Intent intent = context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+        if (intent != null) {
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            context.startActivity(intent);
+        }
+        Runtime.getRuntime().exit(0);
+    }
+
+    private BackupService.BackupCallback backupCallback() {
+        return new BackupService.BackupCallback() {
+            @Override
+            public void onSuccess(String message, long elapsedMillis) {
+                onBackupFinished(message + " (" + elapsedMillis + " ms)");
+            }
+
+            @Override
+            public void onError(String error) {
+                onBackupFinished(error);
+            }
+        };
+    }
+
+    private void onBackupFinished(String message) {
+        if (getActivity() == null) {
+            return;
+        }
+        getActivity().runOnUiThread(() -> {
+            if (binding == null) {
+                return;
+            }
+            showLoading(false);
+            Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+            loadUserProfile();
+        });
+    }
+
+    private void exportHistory() {
+        // A second tap while an export is running cancels it
+        if (exportJob != null) {
+            exportJob.cancel();
+            return;
+        }
+
+        String fileName = "taskmanager-export-" + DateUtils.getCurrentDateString();
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Export History")
+                .setItems(new String[] {"JSON", "CSV (zip)"}, (dialog, which) -> {
+                    if (which == 0) {
+                        exportJsonLauncher.launch(fileName + ".json");
+                    } else {
+                        exportCsvLauncher.launch(fileName + ".zip");
+                    }
+                })
+                .show();
+    }
+
+    private void startExport(ExportService.Format format, Uri uri) {
+        if (uri == null || binding == null) {
+            return;
+        }
+
+        OutputStream output;
+        try {
+            output = requireContext().getContentResolver().openOutputStream(uri);
+        } catch (Exception e) {
+            output = null;
+        }
+        if (output == null) {
+            Toast.makeText(getContext(), "Failed to open export file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        // The export may outlive this fragment, so cleanup uses the application context
+        Context appContext = requireContext().getApplicationContext();
+        binding.btnExportHistory.setText("Exporting... (tap to cancel)");
+        exportJob = ExportService.getInstance(requireContext()).exportHistory(format, output, new ExportService.ExportCallback() {
+            @Override
+            public void onExportProgress(int rowsWritten, int totalRows) {
+                onExportUpdate("Exporting " + rowsWritten + "/" + totalRows + " (tap to cancel)", null, false);
+            }
+
+            @Override
+            public void onExportComplete(int rowsWritten) {
+                onExportUpdate("Export History", "Exported " + rowsWritten + " rows", true);
+            }
+
+            @Override
+            public void onExportCancelled() {
+                deleteExportFile(appContext, uri);
+                onExportUpdate("Export History", "Export cancelled", true);
+            }
+
+            @Override
+            public void onError(String error) {
+                deleteExportFile(appContext, uri);
+                onExportUpdate("Export History", error, true);
+            }
+        });
+    }
+
+    private void onExportUpdate(String buttonText, String message, boolean finished) {
+        if (getActivity() == null) {
+            return;
+        }
+        getActivity().runOnUiThread(() -> {
+            if (finished) {
+                exportJob = null;
+            }
+            if (binding == null) {
+                return;
+            }
+            binding.btnExportHistory.setText(buttonText);
+            if (message != null) {
+                Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private static void deleteExportFile(Context context, Uri uri) {
+        try {
+            android.provider.DocumentsContract.deleteDocument(context.getContentResolver(), uri);
+        } catch (Exception e) {
+            android.util.Log.w("ProfileFragment", "Could not delete partial export", e);
+        }
     }
 
     private void showChangePasswordDialog() {
@@ -72,19 +292,20 @@ public class ProfileFragment extends Fragment {
 
     private void generateQRCode() {
         if (currentUser != null) {
-            String qrData = QRCodeGenerator.generateUserQRData(
-                    currentUser.getId(),
-                    currentUser.getUsername(),
-                    currentUser.getEmail()
-            );
-
-            Bitmap qrBitmap = QRCodeGenerator.generateQRCode(qrData, 400, 400);
-            if (qrBitmap != null) {
-                binding.imageViewQRCode.setImageBitmap(qrBitmap);
-                binding.imageViewQRCode.setVisibility(View.VISIBLE);
-            } else {
-                Toast.makeText(getContext(), "Failed to generate QR code", Toast.LENGTH_SHORT).show();
-            }
+            String qrData = QRCodeGenerator.generateUserQRData(currentUser.getId());
+
+            QRCodeGenerator.generateQRCodeAsync(qrData, 400, 400, qrBitmap -> {
+                // The view can be gone while the fragment is still added
+                if (!isAdded() || binding == null) {
+                    return;
+                }
+                if (qrBitmap != null) {
+                    binding.imageViewQRCode.setImageBitmap(qrBitmap);
+                    binding.imageViewQRCode.setVisibility(View.VISIBLE);
+                } else {
+                    Toast.makeText(getContext(), "Failed to generate QR code", Toast.LENGTH_SHORT).show();
+                }
+            });
         }
     }
 
@@ -26,6 +26,7 @@ import com.github.mikephil.charting.data.PieDataSet;
 import com.github.mikephil.charting.data.PieEntry;
 import com.github.mikephil.charting.formatter.IndexAxisValueFormatter;
 import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.google.android.material.tabs.TabLayout;
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.data.database.entities.UserStatistics;
 import com.habitrpg.taskmanager.databinding.FragmentStatisticsBinding;
@@ -40,6 +41,10 @@ public class StatisticsFragment extends Fragment {
     private FragmentStatisticsBinding binding;
     private StatisticsService statisticsService;
     
+    private static final int[] XP_RANGES = {7, 30, 90, 365};
+    private int xpRangeDays = XP_RANGES[0];
+    private static final int HEATMAP_DAYS = 365;
+    
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -53,6 +58,20 @@ public class StatisticsFragment extends Fragment {
         
         statisticsService = StatisticsService.getInstance(requireContext());
         
+        binding.tabLayoutXPRange.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
+            @Override
+            public void onTabSelected(TabLayout.Tab tab) {
+                xpRangeDays = XP_RANGES[tab.getPosition()];
+                loadXPProgress();
+            }
+            
+            @Override
+            public void onTabUnselected(TabLayout.Tab tab) {}
+            
+            @Override
+            public void onTabReselected(TabLayout.Tab tab) {}
+        });
+        
         loadStatistics();
     }
     
@@ -65,6 +84,7 @@ public class StatisticsFragment extends Fragment {
                         updateStatisticsUI(statistics);
                         loadCategoryStats();
                         loadXPProgress();
+                        loadCompletionHeatmap();
                         loadDifficultyStats();
                     });
                 }
@@ -83,7 +103,7 @@ public class StatisticsFragment extends Fragment {
             public void onXPProgressRetrieved(Map<String, Integer> xpProgress) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
-                        updateXPProgressChart(xpProgress);
+                        updateXPProgressChart(xpRangeDays, xpProgress);
                     });
                 }
             }
@@ -228,7 +248,8 @@ public class StatisticsFragment extends Fragment {
     }
     
     private void loadXPProgress() {
-        statisticsService.getXPProgressLast7Days(new StatisticsService.StatisticsCallback() {
+        int days = xpRangeDays;
+        statisticsService.getXPProgress(days, new StatisticsService.StatisticsCallback() {
             @Override
             public void onStatisticsRetrieved(UserStatistics statistics) {}
             
@@ -239,7 +260,11 @@ public class StatisticsFragment extends Fragment {
             public void onXPProgressRetrieved(Map<String, Integer> xpProgress) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
-                        updateXPProgressChart(xpProgress);
+                        // A later tab switch owns the chart now
+                        if (binding == null || days != xpRangeDays) {
+                            return;
+                        }
+                        updateXPProgressChart(days, xpProgress);
                     });
                 }
             }
@@ -258,14 +283,15 @@ public class StatisticsFragment extends Fragment {
         });
     }
     
-    private void updateXPProgressChart(Map<String, Integer> xpProgress) {
+    private void updateXPProgressChart(int days, Map<String, Integer> xpProgress) {
         List<Entry> entries = new ArrayList<>();
         List<String> labels = new ArrayList<>();
         
         int index = 0;
         for (Map.Entry<String, Integer> entry : xpProgress.entrySet()) {
             entries.add(new Entry(index, entry.getValue()));
-            labels.add(entry.getKey());
+            // Keys are "yyyy-MM-dd"; the axis only has room for "MM-dd"
+            labels.add(entry.getKey().substring(5));
             index++;
         }
         
@@ -274,9 +300,16 @@ public class StatisticsFragment extends Fragment {
             labels.add("No Data");
         }
         
-        LineDataSet dataSet = new LineDataSet(entries, "XP Progress (Last 7 Days)");
+        String title = "XP Progress (Last " + days + " Days)";
+        binding.tvXPProgressTitle.setText(title);
+        
+        // Point values and markers only stay readable on the weekly chart
+        boolean detailed = entries.size() <= 7;
+        LineDataSet dataSet = new LineDataSet(entries, title);
         dataSet.setColor(Color.MAGENTA);
         dataSet.setValueTextSize(12f);
+        dataSet.setDrawValues(detailed);
+        dataSet.setDrawCircles(detailed);
         dataSet.setCircleColor(Color.MAGENTA);
         dataSet.setCircleRadius(4f);
         dataSet.setLineWidth(2f);
@@ -294,10 +327,35 @@ public class StatisticsFragment extends Fragment {
         binding.lineChartXP.getXAxis().setValueFormatter(new IndexAxisValueFormatter(labels));
         binding.lineChartXP.getXAxis().setPosition(XAxis.XAxisPosition.BOTTOM);
         binding.lineChartXP.getXAxis().setGranularity(1f);
-        binding.lineChartXP.getXAxis().setLabelCount(labels.size());
+        binding.lineChartXP.getXAxis().setLabelCount(Math.min(labels.size(), 7));
         binding.lineChartXP.invalidate();
     }
     
+    private void loadCompletionHeatmap() {
+        statisticsService.getCompletionHeatmap(HEATMAP_DAYS, new StatisticsService.HeatmapCallback() {
+            @Override
+            public void onHeatmapRetrieved(long firstDay, int[] completions) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        if (binding == null) {
+                            return;
+                        }
+                        binding.heatmapCompletions.setCompletions(firstDay, completions);
+                    });
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        Toast.makeText(getContext(), error, Toast.LENGTH_SHORT).show();
+                    });
+                }
+            }
+        });
+    }
+    
     private void loadDifficultyStats() {
         statisticsService.getAverageDifficultyXP(new StatisticsService.StatisticsCallback() {
             @Override
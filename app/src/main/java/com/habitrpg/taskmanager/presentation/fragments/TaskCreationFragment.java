@@ -13,6 +13,7 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.Navigation;
 
@@ -362,6 +363,9 @@ public class TaskCreationFragment extends Fragment {
     private void updateTask(String name, String difficulty, String importance) {
         if (currentTask == null) return;
 
+        // A series edit applies from the occurrence's day as it was before this edit
+        String seriesDay = TaskService.seriesDay(currentTask);
+
         // Update only allowed fields: name, description, start date and time, difficulty, importance
         currentTask.setName(name);
         currentTask.setDescription(binding.editTextDescription.getText().toString().trim());
@@ -375,7 +379,7 @@ public class TaskCreationFragment extends Fragment {
             currentTask.setStartDate(startDate + " " + executionTime);
         }
 
-        taskService.updateTask(currentTask, new TaskService.TaskCallback() {
+        TaskService.TaskCallback updateCallback = new TaskService.TaskCallback() {
             @Override
             public void onSuccess(String message) {
                 if (getActivity() != null) {
@@ -397,7 +401,22 @@ public class TaskCreationFragment extends Fragment {
 
             @Override
             public void onTasksRetrieved(List<Task> tasks) {}
-        });
+        };
+
+        if (currentTask.getSeriesId() == null) {
+            taskService.updateTask(currentTask, updateCallback);
+            return;
+        }
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Izmena ponavljajućeg zadatka")
+                .setMessage("Primeniti izmene samo na ovaj zadatak ili i na sva buduća ponavljanja?")
+                .setPositiveButton("Ovaj i budući", (dialog, which) ->
+                        taskService.updateSeriesFrom(currentTask, seriesDay, updateCallback))
+                .setNeutralButton("Samo ovaj", (dialog, which) ->
+                        taskService.updateTask(currentTask, updateCallback))
+                .setNegativeButton("Otkaži", null)
+                .show();
     }
 
     private void createNewTask(String name, String difficulty, String importance) {
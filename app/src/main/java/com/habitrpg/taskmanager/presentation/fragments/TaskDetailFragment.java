@@ -275,39 +275,49 @@ public class TaskDetailFragment extends Fragment {
             return;
         }
         
-        // Potvrda brisanja
-        new androidx.appcompat.app.AlertDialog.Builder(requireContext())
+        TaskService.TaskCallback deleteCallback = new TaskService.TaskCallback() {
+            @Override
+            public void onSuccess(String message) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+                        Navigation.findNavController(requireView()).navigateUp();
+                    });
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> 
+                        Toast.makeText(getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show()
+                    );
+                }
+            }
+            
+            @Override
+            public void onTasksRetrieved(List<Task> tasks) {}
+        };
+        
+        // Potvrda brisanja; ponavljajući zadatak se briše zajedno sa budućim instancama
+        boolean isSeries = currentTask.getSeriesId() != null;
+        androidx.appcompat.app.AlertDialog.Builder dialog = new androidx.appcompat.app.AlertDialog.Builder(requireContext())
                 .setTitle("Brisanje zadatka")
-                .setMessage(currentTask.isRecurring() ? 
+                .setMessage(isSeries ? 
                         "Da li ste sigurni da želite obrisati ovaj ponavljajući zadatak i sve buduće instance?" :
                         "Da li ste sigurni da želite obrisati ovaj zadatak?")
-                .setPositiveButton("Obriši", (dialog, which) -> {
-                    taskService.deleteTask(taskId, new TaskService.TaskCallback() {
-                        @Override
-                        public void onSuccess(String message) {
-                            if (getActivity() != null) {
-                                getActivity().runOnUiThread(() -> {
-                                    Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
-                                    Navigation.findNavController(requireView()).navigateUp();
-                                });
-                            }
-                        }
-                        
-                        @Override
-                        public void onError(String error) {
-                            if (getActivity() != null) {
-                                getActivity().runOnUiThread(() -> 
-                                    Toast.makeText(getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show()
-                                );
-                            }
-                        }
-                        
-                        @Override
-                        public void onTasksRetrieved(List<Task> tasks) {}
-                    });
+                .setPositiveButton("Obriši", (d, which) -> {
+                    if (isSeries) {
+                        taskService.deleteSeriesFrom(taskId, deleteCallback);
+                    } else {
+                        taskService.deleteTask(taskId, deleteCallback);
+                    }
                 })
-                .setNegativeButton("Otkaži", null)
-                .show();
+                .setNegativeButton("Otkaži", null);
+        if (isSeries) {
+            dialog.setNeutralButton("Samo ovaj", (d, which) -> taskService.deleteTask(taskId, deleteCallback));
+        }
+        dialog.show();
     }
     
     private void updateButtonStates() {
@@ -0,0 +1,140 @@
+package com.habitrpg.taskmanager.presentation.fragments;
+
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.activity.OnBackPressedCallback;
+import androidx.appcompat.app.AlertDialog;
+import androidx.fragment.app.Fragment;
+import androidx.navigation.Navigation;
+
+import com.habitrpg.taskmanager.R;
+import com.habitrpg.taskmanager.databinding.LayoutTaskSelectionBarBinding;
+import com.habitrpg.taskmanager.presentation.adapters.CalendarTaskAdapter;
+import com.habitrpg.taskmanager.service.TaskService;
+
+import java.util.List;
+
+/**
+ * Multi-select mode shared by TasksFragment and CalendarFragment: shows the selection bar while
+ * tasks are selected and runs its bulk actions through TaskService. Back clears the selection.
+ * onChanged runs on the main thread after an action changed tasks, to reload the list.
+ */
+class TaskSelectionActions {
+
+    private final Fragment fragment;
+    private final LayoutTaskSelectionBarBinding bar;
+    private final CalendarTaskAdapter adapter;
+    private final TaskService taskService;
+    private final Runnable onChanged;
+    private final OnBackPressedCallback backCallback = new OnBackPressedCallback(false) {
+        @Override
+        public void handleOnBackPressed() {
+            adapter.clearSelection();
+        }
+    };
+
+    TaskSelectionActions(Fragment fragment, LayoutTaskSelectionBarBinding bar, CalendarTaskAdapter adapter, Runnable onChanged) {
+        this.fragment = fragment;
+        this.bar = bar;
+        this.adapter = adapter;
+        this.taskService = TaskService.getInstance(fragment.requireContext());
+        this.onChanged = onChanged;
+
+        fragment.requireActivity().getOnBackPressedDispatcher()
+            .addCallback(fragment.getViewLifecycleOwner(), backCallback);
+        adapter.setOnSelectionChangedListener(this::onSelectionChanged);
+
+        bar.btnClearSelection.setOnClickListener(v -> adapter.clearSelection());
+        bar.btnBulkComplete.setOnClickListener(v -> updateStatus("completed"));
+        bar.btnBulkPause.setOnClickListener(v -> updateStatus("paused"));
+        bar.btnBulkCancel.setOnClickListener(v -> updateStatus("cancelled"));
+        bar.btnBulkDelete.setOnClickListener(v -> confirmDelete());
+    }
+
+    private void onSelectionChanged(int selectedCount) {
+        backCallback.setEnabled(selectedCount > 0);
+        bar.getRoot().setVisibility(selectedCount > 0 ? View.VISIBLE : View.GONE);
+        bar.tvSelectionCount.setText(selectedCount + " izabrano");
+    }
+
+    private void updateStatus(String status) {
+        List<Integer> taskIds = adapter.getSelectedTaskIds();
+        setButtonsEnabled(false);
+        taskService.bulkUpdateTaskStatus(taskIds, status, new ResultCallback());
+    }
+
+    private void confirmDelete() {
+        List<Integer> taskIds = adapter.getSelectedTaskIds();
+        new AlertDialog.Builder(fragment.requireContext())
+                .setTitle("Brisanje zadataka")
+                .setMessage("Da li ste sigurni da želite obrisati izabrane zadatke (" + taskIds.size() + ")?")
+                .setPositiveButton("Obriši", (dialog, which) -> {
+                    setButtonsEnabled(false);
+                    taskService.bulkDeleteTasks(taskIds, new ResultCallback());
+                })
+                .setNegativeButton("Otkaži", null)
+                .show();
+    }
+
+    private void setButtonsEnabled(boolean enabled) {
+        bar.btnBulkComplete.setEnabled(enabled);
+        bar.btnBulkPause.setEnabled(enabled);
+        bar.btnBulkCancel.setEnabled(enabled);
+        bar.btnBulkDelete.setEnabled(enabled);
+    }
+
+    private void showResult(TaskService.BulkResult result) {
+        StringBuilder message = new StringBuilder("Izmenjeno zadataka: " + result.getAppliedIds().size());
+        if (result.getXpEarned() > 0) {
+            message.append("\n+").append(result.getXpEarned()).append(" XP");
+        }
+        if (result.isLeveledUp()) {
+            message.append("\nLevel up! Nivo ").append(result.getNewLevel());
+            if (result.getPpEarned() > 0) {
+                message.append(" (+").append(result.getPpEarned()).append(" PP)");
+            }
+        }
+        if (!result.getRejected().isEmpty()) {
+            // One reason is enough for a toast; they are usually the same
+            message.append("\nPreskočeno: ").append(result.getRejected().size())
+                   .append(" (").append(result.getRejected().values().iterator().next()).append(")");
+        }
+        Toast.makeText(fragment.getContext(), message.toString(), Toast.LENGTH_LONG).show();
+    }
+
+    private class ResultCallback implements TaskService.BulkCallback {
+        @Override
+        public void onBulkResult(TaskService.BulkResult result) {
+            if (fragment.getActivity() != null) {
+                fragment.getActivity().runOnUiThread(() -> {
+                    if (fragment.getView() == null) {
+                        return;
+                    }
+                    setButtonsEnabled(true);
+                    adapter.clearSelection();
+                    showResult(result);
+                    if (result.isLeveledUp()) {
+                        // Same as completing a single task: the boss fight for the new level follows
+                        Navigation.findNavController(fragment.requireView()).navigate(R.id.navigation_pre_boss_inventory);
+                    } else if (!result.getAppliedIds().isEmpty()) {
+                        onChanged.run();
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void onError(String error) {
+            if (fragment.getActivity() != null) {
+                fragment.getActivity().runOnUiThread(() -> {
+                    if (fragment.getView() == null) {
+                        return;
+                    }
+                    setButtonsEnabled(true);
+                    Toast.makeText(fragment.getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show();
+                });
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.habitrpg.taskmanager.presentation.fragments;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,32 +12,44 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.Navigation;
+import androidx.appcompat.widget.SearchView;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.tabs.TabLayout;
 import com.habitrpg.taskmanager.R;
 import com.habitrpg.taskmanager.presentation.adapters.CalendarTaskAdapter;
-import com.habitrpg.taskmanager.R;
-import com.habitrpg.taskmanager.presentation.adapters.TaskAdapter;
 import com.habitrpg.taskmanager.service.TaskService;
 import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.databinding.FragmentTasksBinding;
+import com.habitrpg.taskmanager.util.TaskListIndex;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 public class TasksFragment extends Fragment {
     
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private static final int LOAD_MORE_THRESHOLD = 10;
+    
     private FragmentTasksBinding binding;
     private TaskService taskService;
     private CalendarTaskAdapter taskAdapter;
-    private List<Task> allTasks;
+    private TaskListIndex taskIndex = TaskListIndex.EMPTY;
     private List<Task> filteredTasks;
-    private String currentFilter = "all"; // "all", "single", "recurring"
+    private String currentFilter = TaskListIndex.FILTER_ALL;
+    
+    // Search state; an empty query shows the filtered task list
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable pendingSearch = () -> runSearch(0);
+    private final List<Task> searchResults = new ArrayList<>();
+    private String searchQuery = "";
+    private int searchPage;
+    private boolean searchLoading;
+    private boolean searchExhausted;
     
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -49,7 +63,6 @@ public class TasksFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         taskService = TaskService.getInstance(requireContext());
-        allTasks = new ArrayList<>();
         filteredTasks = new ArrayList<>();
         
         setupUI();
@@ -68,13 +81,13 @@ public class TasksFragment extends Fragment {
             public void onTabSelected(TabLayout.Tab tab) {
                 switch (tab.getPosition()) {
                     case 0:
-                        currentFilter = "all";
+                        currentFilter = TaskListIndex.FILTER_ALL;
                         break;
                     case 1:
-                        currentFilter = "single";
+                        currentFilter = TaskListIndex.FILTER_SINGLE;
                         break;
                     case 2:
-                        currentFilter = "recurring";
+                        currentFilter = TaskListIndex.FILTER_RECURRING;
                         break;
                 }
                 filterTasks();
@@ -98,8 +111,23 @@ public class TasksFragment extends Fragment {
             }
         });
         
-        binding.recyclerViewTasks.setLayoutManager(new LinearLayoutManager(getContext()));
+        // Long press starts multi-select; bulk actions reload the list
+        new TaskSelectionActions(this, binding.selectionBar, taskAdapter, this::loadTasks);
+        
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        binding.recyclerViewTasks.setLayoutManager(layoutManager);
         binding.recyclerViewTasks.setAdapter(taskAdapter);
+        binding.recyclerViewTasks.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || !isSearching() || searchLoading || searchExhausted) {
+                    return;
+                }
+                if (layoutManager.findLastVisibleItemPosition() >= taskAdapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    runSearch(searchPage + 1);
+                }
+            }
+        });
         
         // Initially show loading
         showLoading(true);
@@ -120,17 +148,87 @@ public class TasksFragment extends Fragment {
             // Navigate to boss fight fragment
             Navigation.findNavController(v).navigate(R.id.navigation_boss_fight);
         });
+        
+        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                searchQuery = query.trim();
+                searchHandler.removeCallbacks(pendingSearch);
+                runSearch(0);
+                binding.searchView.clearFocus();
+                return true;
+            }
+            
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                searchQuery = newText.trim();
+                searchHandler.removeCallbacks(pendingSearch);
+                if (isSearching()) {
+                    searchHandler.postDelayed(pendingSearch, SEARCH_DEBOUNCE_MS);
+                } else {
+                    searchResults.clear();
+                    filterTasks();
+                }
+                return true;
+            }
+        });
     }
-
-    private void loadTasks() {
-        taskService.getAllTasks(new TaskService.TaskCallback() {
+    
+    private boolean isSearching() {
+        return !searchQuery.isEmpty();
+    }
+    
+    private void runSearch(int page) {
+        if (!isSearching()) {
+            return;
+        }
+        searchLoading = true;
+        taskService.searchTasks(searchQuery, page, new TaskService.SearchCallback() {
+            @Override
+            public void onSearchResults(String query, int resultPage, List<Task> tasks) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        // Drop results for a query the user has since changed
+                        if (binding == null || !query.equals(searchQuery)) {
+                            return;
+                        }
+                        searchLoading = false;
+                        searchPage = resultPage;
+                        searchExhausted = tasks.size() < TaskService.SEARCH_PAGE_SIZE;
+                        if (resultPage == 0) {
+                            searchResults.clear();
+                        }
+                        searchResults.addAll(tasks);
+                        taskAdapter.updateTasks(searchResults);
+                        showEmptyState(searchResults.isEmpty());
+                    });
+                }
+            }
+            
             @Override
-            public void onSuccess(String message) {}
+            public void onError(String error) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        if (binding == null) {
+                            return;
+                        }
+                        searchLoading = false;
+                        Toast.makeText(getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show();
+                    });
+                }
+            }
+        });
+    }
 
+    private void loadTasks() {
+        taskService.getTaskListIndex(new TaskService.TaskListIndexCallback() {
             @Override
             public void onError(String error) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
+                        if (binding == null) {
+                            return;
+                        }
                         showLoading(false);
                         Toast.makeText(getContext(), "Greška: " + error, Toast.LENGTH_SHORT).show();
                         showEmptyState(true);
@@ -139,30 +237,17 @@ public class TasksFragment extends Fragment {
             }
 
             @Override
-            public void onTasksRetrieved(List<Task> tasks) {
+            public void onTaskListIndexRetrieved(TaskListIndex index) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
+                        if (binding == null) {
+                            return;
+                        }
                         showLoading(false);
-                        
-                        if (tasks == null || tasks.isEmpty()) {
-                            showEmptyState(true);
+                        taskIndex = index;
+                        if (isSearching()) {
+                            runSearch(0);
                         } else {
-                            // Filter to show current/future tasks and paused tasks
-                            allTasks.clear();
-                            String currentDate = getCurrentDateString();
-                            for (Task task : tasks) {
-                                // Include tasks if they are current/future, active, or paused
-                                if (task.getStartDate() != null &&
-                                    (task.getStartDate().compareTo(currentDate) >= 0 ||
-                                     "active".equals(task.getStatus()) ||
-                                     "paused".equals(task.getStatus()))) {
-                                    allTasks.add(task);
-                                }
-                                // Also include paused tasks regardless of date
-                                else if ("paused".equals(task.getStatus())) {
-                                    allTasks.add(task);
-                                }
-                            }
                             filterTasks();
                         }
                     });
@@ -172,40 +257,16 @@ public class TasksFragment extends Fragment {
     }
 
     private void filterTasks() {
-        filteredTasks.clear();
-
-        switch (currentFilter) {
-            case "all":
-                filteredTasks.addAll(allTasks);
-                break;
-            case "single":
-                // Single tasks: not recurring
-                filteredTasks.addAll(allTasks.stream()
-                        .filter(task -> !task.isRecurring())
-                        .collect(Collectors.toList()));
-                break;
-            case "recurring":
-                // Recurring task instances: marked as recurring
-                filteredTasks.addAll(allTasks.stream()
-                        .filter(task -> task.isRecurring())
-                        .collect(Collectors.toList()));
-                break;
+        if (isSearching()) {
+            return;
         }
+        filteredTasks.clear();
+        filteredTasks.addAll(taskIndex.getTasks(currentFilter));
 
-        if (filteredTasks.isEmpty()) {
-            showEmptyState(true);
-        } else {
-            showEmptyState(false);
-            taskAdapter.updateTasks(filteredTasks);
-        }
+        taskAdapter.updateTasks(filteredTasks);
+        showEmptyState(filteredTasks.isEmpty());
     }
     
-    private String getCurrentDateString() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return sdf.format(new Date());
-    }
-
-    
     private void showLoading(boolean show) {
         binding.progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
         binding.recyclerViewTasks.setVisibility(show ? View.GONE : View.VISIBLE);
@@ -228,6 +289,7 @@ public class TasksFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        searchHandler.removeCallbacks(pendingSearch);
         binding = null;
     }
 }
@@ -0,0 +1,100 @@
+package com.habitrpg.taskmanager.presentation.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * GitHub-style contribution grid: one column per week, one row per weekday (Monday on top),
+ * each cell shaded by the number of completions that day.
+ *
+ * <p>Takes the per-day counts as a primitive array and draws every cell in onDraw, so a year of
+ * history is a single view with no per-cell allocations.
+ */
+public class CompletionHeatmapView extends View {
+
+    private static final int DAYS_PER_WEEK = 7;
+    private static final float CELL_GAP_RATIO = 0.2f;
+    private static final int[] LEVEL_COLORS = {
+        Color.rgb(235, 237, 240),
+        Color.rgb(155, 233, 168),
+        Color.rgb(64, 196, 99),
+        Color.rgb(48, 161, 78),
+        Color.rgb(33, 110, 57)
+    };
+
+    private final Paint[] levelPaints = new Paint[LEVEL_COLORS.length];
+
+    private byte[] levels = new byte[0];
+    private int firstRow; // weekday row of levels[0]
+    private int columns = 1;
+
+    public CompletionHeatmapView(Context context) {
+        this(context, null);
+    }
+
+    public CompletionHeatmapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        for (int i = 0; i < LEVEL_COLORS.length; i++) {
+            levelPaints[i] = new Paint(Paint.ANTI_ALIAS_FLAG);
+            levelPaints[i].setColor(LEVEL_COLORS[i]);
+        }
+    }
+
+    // completions[i] is the count for day firstDay + i, firstDay in days since 1970-01-01
+    public void setCompletions(long firstDay, int[] completions) {
+        int max = 0;
+        for (int count : completions) {
+            max = Math.max(max, count);
+        }
+
+        // Four shades spread over 1..max, so that busy and quiet histories both show contrast
+        int shades = LEVEL_COLORS.length - 1;
+        levels = new byte[completions.length];
+        for (int i = 0; i < completions.length; i++) {
+            int count = completions[i];
+            levels[i] = (byte) (count <= 0 ? 0 : 1 + (count - 1) * shades / Math.max(max, 1));
+        }
+
+        firstRow = LocalDate.ofEpochDay(firstDay).getDayOfWeek().getValue() - 1;
+        columns = Math.max(1, (firstRow + completions.length + DAYS_PER_WEEK - 1) / DAYS_PER_WEEK);
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        float cell = cellSize(width);
+        int height = (int) Math.ceil(cell * DAYS_PER_WEEK) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float cell = cellSize(getWidth());
+        float gap = cell * CELL_GAP_RATIO;
+        float radius = gap;
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+
+        for (int i = 0; i < levels.length; i++) {
+            int position = firstRow + i;
+            float x = left + (position / DAYS_PER_WEEK) * cell;
+            float y = top + (position % DAYS_PER_WEEK) * cell;
+            canvas.drawRoundRect(x, y, x + cell - gap, y + cell - gap, radius, radius, levelPaints[levels[i]]);
+        }
+    }
+
+    private float cellSize(int width) {
+        return Math.max(0, width - getPaddingLeft() - getPaddingRight()) / (float) columns;
+    }
+}
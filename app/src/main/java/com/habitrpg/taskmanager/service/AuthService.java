@@ -23,8 +23,10 @@ public class AuthService {
     private FirebaseManager firebaseManager;
     private UserPreferences userPreferences;
     private UserRepository userRepository;
+    private Context appContext;
 
     private AuthService(Context context) {
+        appContext = context;
         firebaseManager = FirebaseManager.getInstance();
         userPreferences = UserPreferences.getInstance(context);
         userRepository = UserRepository.getInstance(context);
@@ -52,6 +54,9 @@ public class AuthService {
                             userRepository.loginUser(userId, new UserRepository.UserCallback() {
                                 @Override
                                 public void onSuccess(String message) {
+                                    // Friends and guild data are fetched in the background so
+                                    // their screens open from Room
+                                    WarmUpService.getInstance(appContext).warmUp(userId, null);
                                     callback.onSuccess("Login successful");
                                 }
                                 
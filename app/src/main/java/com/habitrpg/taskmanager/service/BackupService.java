@@ -0,0 +1,293 @@
+package com.habitrpg.taskmanager.service;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.firebase.Outbox;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-database backup to, and restore from, a gzip-compressed SQLite file.
+ *
+ * Backups are a consistent snapshot taken without closing the shared database: VACUUM INTO where
+ * the platform SQLite supports it (3.27+, Android 11), otherwise the database and WAL files are
+ * copied while a transaction holds off every writer and checkpoint, and the copy's WAL is folded
+ * into it. A restore is decompressed and checked, stripped of the backup's pending Firestore
+ * writes and sync watermarks, and staged next to the live database. The running process keeps
+ * AppDatabase in many singletons, so the staged file is swapped in by
+ * {@link #applyPendingRestore} at the next start, before anything opens the database; the caller
+ * restarts the app once the restore reports success.
+ */
+public class BackupService {
+
+    private static final String TAG = "BackupService";
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private static BackupService instance;
+    private final Context appContext;
+    private final AppDatabase database;
+    private final String databaseName;
+    // Only a restore of the app's own database stops its sync and listeners
+    private final boolean appDatabase;
+    private ExecutorService executor;
+
+    private BackupService(Context context) {
+        this(context, AppDatabase.getDatabase(context), AppDatabase.DATABASE_NAME, true);
+    }
+
+    // For tests on a database file of their own
+    BackupService(Context context, AppDatabase database, String databaseName) {
+        this(context, database, databaseName, false);
+    }
+
+    private BackupService(Context context, AppDatabase database, String databaseName, boolean appDatabase) {
+        this.appContext = context;
+        this.database = database;
+        this.databaseName = databaseName;
+        this.appDatabase = appDatabase;
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    public static synchronized BackupService getInstance(Context context) {
+        if (instance == null) {
+            instance = new BackupService(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private void ensureExecutorActive() {
+        if (executor == null || executor.isShutdown()) {
+            executor = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    // Writes a compressed snapshot to output and closes it
+    public void backup(OutputStream output, BackupCallback callback) {
+        ensureExecutorActive();
+        executor.execute(() -> {
+            long startTime = System.currentTimeMillis();
+            File snapshot = new File(appContext.getCacheDir(), databaseName + ".snapshot");
+            try {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                    snapshot.delete();
+                    SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+                    db.execSQL("VACUUM INTO ?", new Object[] {snapshot.getAbsolutePath()});
+                } else {
+                    copySnapshot(snapshot);
+                }
+                long snapshotTime = System.currentTimeMillis();
+
+                long size = snapshot.length();
+                copy(new FileInputStream(snapshot), new GZIPOutputStream(output, BUFFER_SIZE));
+                long elapsed = System.currentTimeMillis() - startTime;
+                Log.i(TAG, "Backup of " + size + " bytes: snapshot " + (snapshotTime - startTime)
+                    + " ms, total " + elapsed + " ms");
+                callback.onSuccess("Backup created", elapsed);
+            } catch (Exception e) {
+                Log.e(TAG, "Backup failed", e);
+                callback.onError("Failed to create backup: " + e.getMessage());
+            } finally {
+                closeQuietly(output);
+                snapshot.delete();
+            }
+        });
+    }
+
+    // Stages the backup read from input to replace the database at the next start, and closes
+    // input. On success the caller restarts the app.
+    public void restore(InputStream input, BackupCallback callback) {
+        ensureExecutorActive();
+        executor.execute(() -> {
+            long startTime = System.currentTimeMillis();
+            File pending = pendingRestoreFile(appContext, databaseName);
+            File staged = new File(pending.getPath() + ".tmp");
+            try {
+                copy(new GZIPInputStream(input, BUFFER_SIZE), new FileOutputStream(staged));
+                long decompressTime = System.currentTimeMillis();
+
+                // Room would destructively "migrate" a backup from another schema version
+                int currentVersion = database.getOpenHelper().getReadableDatabase().getVersion();
+                String problem = checkBackup(staged, currentVersion);
+                if (problem != null) {
+                    callback.onError(problem);
+                    return;
+                }
+                clearSyncState(staged);
+                if (!staged.renameTo(pending)) {
+                    throw new IOException("could not stage backup");
+                }
+
+                if (appDatabase) {
+                    // Nothing may sync or listen against the data that is about to be replaced
+                    Outbox.getInstance(appContext).stop();
+                    FriendRequestListenerService.stopListening();
+                    FriendshipListenerService.stopListening();
+                    GuildInviteListenerService.stopListening();
+                    GuildMembersListenerService.stopListening();
+                    GuildChatListenerService.stopListening();
+                }
+
+                long elapsed = System.currentTimeMillis() - startTime;
+                Log.i(TAG, "Restore: decompress " + (decompressTime - startTime) + " ms, total " + elapsed + " ms");
+                callback.onSuccess("Backup restored", elapsed);
+            } catch (Exception e) {
+                Log.e(TAG, "Restore failed", e);
+                pending.delete();
+                callback.onError("Failed to restore backup: " + e.getMessage());
+            } finally {
+                closeQuietly(input);
+                staged.delete();
+            }
+        });
+    }
+
+    /**
+     * Swaps a restore staged by {@link #restore} in for the database. Called at process start,
+     * before anything opens the database.
+     */
+    public static void applyPendingRestore(Context context) {
+        applyPendingRestore(context, AppDatabase.DATABASE_NAME);
+    }
+
+    static void applyPendingRestore(Context context, String databaseName) {
+        File pending = pendingRestoreFile(context, databaseName);
+        if (!pending.exists()) {
+            return;
+        }
+        File target = context.getDatabasePath(databaseName);
+        new File(target.getPath() + "-wal").delete();
+        new File(target.getPath() + "-shm").delete();
+        if (pending.renameTo(target)) {
+            Log.i(TAG, "Applied pending restore");
+        } else {
+            Log.e(TAG, "Could not apply pending restore");
+            pending.delete();
+        }
+    }
+
+    private static File pendingRestoreFile(Context context, String databaseName) {
+        return context.getDatabasePath(databaseName + ".pending-restore");
+    }
+
+    // Pre-R snapshot. The transaction holds the write lock, so no commit or checkpoint changes the
+    // database or WAL file while both are copied; the copy's WAL is then folded into the copy.
+    private void copySnapshot(File snapshot) throws IOException {
+        File snapshotWal = new File(snapshot.getPath() + "-wal");
+        new File(snapshot.getPath() + "-shm").delete();
+        snapshotWal.delete();
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        // Keeps the WAL part of the copy small
+        db.query("PRAGMA wal_checkpoint(FULL)").close();
+        database.runInTransaction(() -> {
+            File wal = new File(databaseFile().getPath() + "-wal");
+            try {
+                copy(new FileInputStream(databaseFile()), new FileOutputStream(snapshot));
+                if (wal.exists()) {
+                    copy(new FileInputStream(wal), new FileOutputStream(snapshotWal));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        // Opening recovers the copied WAL; TRUNCATE mode checkpoints it into the file and removes it
+        SQLiteDatabase copy = SQLiteDatabase.openDatabase(snapshot.getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        try (Cursor cursor = copy.rawQuery("PRAGMA journal_mode=TRUNCATE", null)) {
+            cursor.moveToFirst();
+        } finally {
+            copy.close();
+        }
+        snapshotWal.delete();
+        new File(snapshot.getPath() + "-shm").delete();
+    }
+
+    // Outbox entries in the backup are days-old writes that would overwrite newer remote
+    // documents, and its watermarks would skip remote changes made since; both start empty
+    private static void clearSyncState(File file) {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(file.getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        try {
+            db.beginTransaction();
+            try {
+                db.execSQL("DELETE FROM outbox");
+                db.execSQL("DELETE FROM sync_watermarks");
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    private File databaseFile() {
+        return appContext.getDatabasePath(databaseName);
+    }
+
+    // Returns null if the staged file is an intact database of the given schema version
+    private static String checkBackup(File file, int expectedVersion) {
+        SQLiteDatabase db = null;
+        try {
+            db = SQLiteDatabase.openDatabase(file.getPath(), null, SQLiteDatabase.OPEN_READONLY);
+            if (db.getVersion() != expectedVersion) {
+                return "Backup is from a different app version (" + db.getVersion() + ", expected " + expectedVersion + ")";
+            }
+            try (Cursor cursor = db.rawQuery("PRAGMA quick_check", null)) {
+                if (!cursor.moveToFirst() || !"ok".equals(cursor.getString(0))) {
+                    return "Backup file is corrupted";
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            return "Not a valid backup file";
+        } finally {
+            if (db != null) {
+                db.close();
+            }
+        }
+    }
+
+    private static void copy(InputStream input, OutputStream output) throws IOException {
+        try (InputStream in = input; OutputStream out = output) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public interface BackupCallback {
+        void onSuccess(String message, long elapsedMillis);
+        void onError(String error);
+    }
+}
@@ -1,6 +1,7 @@
 package com.habitrpg.taskmanager.service;
 
 import android.content.Context;
+import android.util.Log;
 
 import com.habitrpg.taskmanager.data.database.AppDatabase;
 import com.habitrpg.taskmanager.data.database.entities.Boss;
@@ -8,17 +9,22 @@ import com.habitrpg.taskmanager.data.database.entities.Equipment;
 import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.data.database.entities.TaskCompletion;
 import com.habitrpg.taskmanager.data.database.entities.User;
+import com.habitrpg.taskmanager.data.database.entities.UserStage;
 import com.habitrpg.taskmanager.data.repository.UserRepository;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.util.Tracing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
 public class BossService {
     
+    private static final String TAG = "BossService";
+    
     private static BossService instance;
     private final AppDatabase database;
     private final UserRepository userRepository;
@@ -323,28 +329,7 @@ public class BossService {
                 if (user != null) {
                     // Use background thread for database operations
                     new Thread(() -> {
-                        // Get stage times
-                        long currentStageStartTime = userPreferences.getCurrentStageStartTime();
-                        long previousStageStartTime = userPreferences.getPreviousStageStartTime();
-                        long currentTime = System.currentTimeMillis();
-                        
-                        // Debug logging
-                        System.out.println("DEBUG: User level: " + user.getLevel());
-                        System.out.println("DEBUG: Current stage start time: " + currentStageStartTime);
-                        System.out.println("DEBUG: Previous stage start time: " + previousStageStartTime);
-                        System.out.println("DEBUG: Current time: " + currentTime);
-                        
-                        // Get all tasks for user
-                        List<Task> allTasks = database.taskDao().getAllTasksByUser(userId);
-                        
-                        // Debug logging
-                        System.out.println("DEBUG: Total tasks: " + allTasks.size());
-                        
-                        // Filter tasks based on stage transition
-                        List<Task> stageTasks = filterTasksByStage(allTasks, previousStageStartTime, currentStageStartTime, user.getLevel());
-                        
-                        // Debug logging
-                        System.out.println("DEBUG: Stage tasks: " + stageTasks.size());
+                        List<Task> stageTasks = getStageTasks(userId, user.getLevel());
                         
                         // Count valid tasks and completed tasks for this stage
                         int validTasks = 0;
@@ -360,10 +345,6 @@ public class BossService {
                             }
                         }
                         
-                        // Debug logging
-                        System.out.println("DEBUG: Stage valid tasks: " + validTasks);
-                        System.out.println("DEBUG: Stage completed tasks: " + completedTasks);
-                        
                         // Calculate success rate based on task status for this stage
                         int successRate = 0;
                         if (validTasks > 0) {
@@ -373,7 +354,8 @@ public class BossService {
                             }
                         }
                         
-                        System.out.println("DEBUG: Final stage success rate: " + successRate + "%");
+                        Log.d(TAG, "Level " + user.getLevel() + " stage: " + completedTasks + "/" + validTasks
+                            + " valid tasks completed of " + stageTasks.size() + ", success rate " + successRate + "%");
                         callback.onSuccess(String.valueOf(successRate));
                     }).start();
                 } else {
@@ -384,56 +366,70 @@ public class BossService {
     }
     
     /**
-     * Filters tasks based on stage transition logic
-     * - Level 1 to 2: All tasks (no previous stage time)
-     * - Level 2+: Tasks created between previousStageStartTime and currentStageStartTime
+     * Tasks of the stage the boss at currentLevel judges: those starting while the user was at
+     * the previous level, read from user_stages through the (user_id, start_date) index.
+     * Without a recorded stage, level 2 judges all tasks and higher levels none, as before
+     * stages were stored.
      */
-    private List<Task> filterTasksByStage(List<Task> allTasks, long previousStageStartTime, long currentStageStartTime, int currentLevel) {
-        List<Task> stageTasks = new ArrayList<>();
-        
-        for (Task task : allTasks) {
-            // For level 1 to 2 transition, include all tasks
-            if (currentLevel == 2 && previousStageStartTime == 0) {
-                stageTasks.add(task);
-                continue;
-            }
-            
-            // For level 2+ transitions, filter by stage time period
-            if (currentLevel > 2 && previousStageStartTime > 0) {
-                long taskTimestamp = convertStartDateToTimestamp(task.getStartDate());
-                
-                // Include tasks created between previousStageStartTime and currentStageStartTime
-                if (taskTimestamp >= previousStageStartTime && taskTimestamp < currentStageStartTime) {
-                    stageTasks.add(task);
-                }
-            }
+    private List<Task> getStageTasks(String userId, int currentLevel) {
+        UserStage stage = database.userStageDao().getStage(userId, currentLevel - 1);
+        if (stage == null) {
+            return currentLevel == 2 ? database.taskDao().getAllTasksByUser(userId) : new ArrayList<>();
         }
-        
-        return stageTasks;
+        String from = stage.getStartedAt() > 0 ? toStartDate(stage.getStartedAt()) : "";
+        String to = stage.getEndedAt() != null ? toStartDate(stage.getEndedAt()) : "9999";
+        return database.taskDao().getTasksStartingBetween(userId, from, to);
     }
     
     /**
-     * Converts start_date string to timestamp for comparison
+     * Formats an epoch time as a start_date bound. start_date has minute precision, so the time
+     * is rounded up to the next minute: start_date >= bound then means the task's time is at or
+     * after the given instant.
      */
-    private long convertStartDateToTimestamp(String startDate) {
-        if (startDate == null || startDate.isEmpty()) {
-            return 0;
-        }
-        
-        try {
-            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm", java.util.Locale.getDefault());
-            java.util.Date date = sdf.parse(startDate);
-            return date.getTime();
-        } catch (Exception e) {
-            System.out.println("DEBUG: Error parsing start_date: " + startDate + ", error: " + e.getMessage());
-            return 0;
-        }
+    private String toStartDate(long timestamp) {
+        long minute = 60_000;
+        long roundedUp = (timestamp + minute - 1) / minute * minute;
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault()).format(new Date(roundedUp));
     }
     
     /**
      * Performs a boss attack
      */
     public void performBossAttack(int bossId, int playerPp, BossCallback callback) {
+        int cookie = Tracing.beginAsync("BossService.performBossAttack");
+        performBossAttackInternal(bossId, playerPp, new BossCallback() {
+            @Override
+            public void onSuccess(String message) {
+                Tracing.endAsync("BossService.performBossAttack", cookie);
+                callback.onSuccess(message);
+            }
+            
+            @Override
+            public void onError(String error) {
+                Tracing.endAsync("BossService.performBossAttack", cookie);
+                callback.onError(error);
+            }
+            
+            @Override
+            public void onBossRetrieved(Boss boss) {
+                callback.onBossRetrieved(boss);
+            }
+            
+            @Override
+            public void onBossFightResult(BossFightResult result) {
+                // A defeating hit reports its rewards instead of onSuccess
+                Tracing.endAsync("BossService.performBossAttack", cookie);
+                callback.onBossFightResult(result);
+            }
+            
+            @Override
+            public void onDefeatedBossCountRetrieved(int count) {
+                callback.onDefeatedBossCountRetrieved(count);
+            }
+        });
+    }
+    
+    private void performBossAttackInternal(int bossId, int playerPp, BossCallback callback) {
         String userId = userPreferences.getCurrentUserId();
         if (userId == null) {
             callback.onError("User not logged in");
@@ -688,7 +684,6 @@ public class BossService {
      */
     private boolean isTaskInStage(Task task, long stageStartTime, long stageEndTime) {
         if (task.getStartDate() == null || task.getStartDate().isEmpty()) {
-            System.out.println("DEBUG: Task " + task.getId() + " has no start date");
             return false;
         }
         
@@ -698,17 +693,10 @@ public class BossService {
             Date taskDate = sdf.parse(task.getStartDate());
             long taskTimestamp = taskDate.getTime();
             
-            System.out.println("DEBUG: Task " + task.getId() + " start date: " + task.getStartDate() + 
-                             " -> timestamp: " + taskTimestamp + 
-                             " (stage start: " + stageStartTime + ", stage end: " + stageEndTime + ")");
-            
             // Check if task was created between stage start and end
-            boolean inStage = taskTimestamp >= stageStartTime && taskTimestamp <= stageEndTime;
-            System.out.println("DEBUG: Task " + task.getId() + " in stage: " + inStage);
-            return inStage;
+            return taskTimestamp >= stageStartTime && taskTimestamp <= stageEndTime;
         } catch (Exception e) {
             // If parsing fails, exclude the task
-            System.out.println("DEBUG: Failed to parse task " + task.getId() + " start date: " + task.getStartDate() + " - " + e.getMessage());
             return false;
         }
     }
@@ -720,12 +708,7 @@ public class BossService {
         // Use createdAt timestamp for completion time
         long completionTimestamp = completion.getCreatedAt();
         
-        System.out.println("DEBUG: Completion " + completion.getId() + " timestamp: " + completionTimestamp + 
-                         " (stage start: " + stageStartTime + ", stage end: " + stageEndTime + ")");
-        
         // Check if completion happened between stage start and end
-        boolean inStage = completionTimestamp >= stageStartTime && completionTimestamp <= stageEndTime;
-        System.out.println("DEBUG: Completion " + completion.getId() + " in stage: " + inStage);
-        return inStage;
+        return completionTimestamp >= stageStartTime && completionTimestamp <= stageEndTime;
     }
 }
@@ -4,6 +4,7 @@ import android.content.Context;
 import com.habitrpg.taskmanager.data.database.entities.Category;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
 import com.habitrpg.taskmanager.data.repository.CategoryRepository;
+import com.habitrpg.taskmanager.data.repository.CategorySnapshot;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -55,6 +56,17 @@ public class CategoryService {
         });
     }
 
+    // Shared, immutable id/color index of the current user's categories; cheap to call repeatedly
+    public void getCategorySnapshot(CategoryRepository.SnapshotCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onSnapshotRetrieved(CategorySnapshot.EMPTY);
+            return;
+        }
+
+        categoryRepository.getSnapshot(userId, callback);
+    }
+
     public String getCurrentUserId() {
         return userPreferences.getCurrentUserId();
     }
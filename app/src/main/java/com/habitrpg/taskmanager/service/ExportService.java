@@ -0,0 +1,269 @@
+package com.habitrpg.taskmanager.service;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Base64;
+import android.util.JsonWriter;
+import android.util.Log;
+
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.dao.ExportDao;
+import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the current user's history (tasks, completions, statistics, equipment and bosses).
+ *
+ * Rows are read from Room cursors and written one at a time through a buffered stream, so
+ * memory use does not depend on the size of the account. JSON is a single document with one
+ * array per table; CSV is a zip with one file per table.
+ */
+public class ExportService {
+
+    private static final String TAG = "ExportService";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 500;
+
+    public enum Format { JSON, CSV }
+
+    private static ExportService instance;
+    private final AppDatabase database;
+    private final UserPreferences userPreferences;
+    private ExecutorService executor;
+
+    private ExportService(Context context) {
+        database = AppDatabase.getDatabase(context);
+        userPreferences = UserPreferences.getInstance(context);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    public static synchronized ExportService getInstance(Context context) {
+        if (instance == null) {
+            instance = new ExportService(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private void ensureExecutorActive() {
+        if (executor == null || executor.isShutdown()) {
+            executor = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    // Writes the export to output and closes it. The returned job can cancel the export; the
+    // callback is invoked on the export thread.
+    public ExportJob exportHistory(Format format, OutputStream output, ExportCallback callback) {
+        ExportJob job = new ExportJob();
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            closeQuietly(output);
+            callback.onError("User not logged in");
+            return job;
+        }
+
+        ensureExecutorActive();
+        executor.execute(() -> {
+            long startTime = System.currentTimeMillis();
+            Progress progress = new Progress(job, callback);
+            try (OutputStream buffered = new BufferedOutputStream(output, BUFFER_SIZE)) {
+                // The count and all five tables are read from one snapshot. Android has no read-only
+                // transaction below API 35, so writers wait for the export to finish.
+                database.runInTransaction(() -> {
+                    progress.totalRows = database.exportDao().getExportRowCount(userId);
+                    if (format == Format.JSON) {
+                        writeJson(userId, buffered, progress);
+                    } else {
+                        writeCsvZip(userId, buffered, progress);
+                    }
+                    return null;
+                });
+                Log.i(TAG, "Exported " + progress.rows + " rows in " + (System.currentTimeMillis() - startTime) + " ms");
+                callback.onExportComplete(progress.rows);
+            } catch (CancelledException e) {
+                Log.i(TAG, "Export cancelled after " + progress.rows + " rows");
+                callback.onExportCancelled();
+            } catch (Exception e) {
+                callback.onError("Failed to export history: " + e.getMessage());
+            }
+        });
+        return job;
+    }
+
+    private void writeJson(String userId, OutputStream output, Progress progress) throws IOException {
+        ExportDao dao = database.exportDao();
+        JsonWriter json = new JsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        json.beginObject();
+        writeJsonTable(json, "tasks", dao.getTasksCursor(userId), progress);
+        writeJsonTable(json, "task_completions", dao.getCompletionsCursor(userId), progress);
+        writeJsonTable(json, "user_statistics", dao.getUserStatisticsCursor(userId), progress);
+        writeJsonTable(json, "equipment", dao.getEquipmentCursor(userId), progress);
+        writeJsonTable(json, "bosses", dao.getBossesCursor(userId), progress);
+        json.endObject();
+        json.flush();
+    }
+
+    private void writeJsonTable(JsonWriter json, String name, Cursor cursor, Progress progress) throws IOException {
+        try {
+            String[] columns = cursor.getColumnNames();
+            json.name(name).beginArray();
+            while (cursor.moveToNext()) {
+                json.beginObject();
+                for (int i = 0; i < columns.length; i++) {
+                    json.name(columns[i]);
+                    switch (cursor.getType(i)) {
+                        case Cursor.FIELD_TYPE_NULL:
+                            json.nullValue();
+                            break;
+                        case Cursor.FIELD_TYPE_INTEGER:
+                            json.value(cursor.getLong(i));
+                            break;
+                        case Cursor.FIELD_TYPE_FLOAT:
+                            json.value(cursor.getDouble(i));
+                            break;
+                        case Cursor.FIELD_TYPE_BLOB:
+                            json.value(Base64.encodeToString(cursor.getBlob(i), Base64.NO_WRAP));
+                            break;
+                        default:
+                            json.value(cursor.getString(i));
+                            break;
+                    }
+                }
+                json.endObject();
+                progress.rowWritten();
+            }
+            json.endArray();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void writeCsvZip(String userId, OutputStream output, Progress progress) throws IOException {
+        ExportDao dao = database.exportDao();
+        ZipOutputStream zip = new ZipOutputStream(output);
+        Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        writeCsvTable(zip, writer, "tasks.csv", dao.getTasksCursor(userId), progress);
+        writeCsvTable(zip, writer, "task_completions.csv", dao.getCompletionsCursor(userId), progress);
+        writeCsvTable(zip, writer, "user_statistics.csv", dao.getUserStatisticsCursor(userId), progress);
+        writeCsvTable(zip, writer, "equipment.csv", dao.getEquipmentCursor(userId), progress);
+        writeCsvTable(zip, writer, "bosses.csv", dao.getBossesCursor(userId), progress);
+        zip.finish();
+    }
+
+    private void writeCsvTable(ZipOutputStream zip, Writer writer, String fileName, Cursor cursor,
+                               Progress progress) throws IOException {
+        try {
+            zip.putNextEntry(new ZipEntry(fileName));
+            String[] columns = cursor.getColumnNames();
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvField(writer, columns[i]);
+            }
+            writer.write("\r\n");
+
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    int type = cursor.getType(i);
+                    if (type == Cursor.FIELD_TYPE_BLOB) {
+                        writer.write(Base64.encodeToString(cursor.getBlob(i), Base64.NO_WRAP));
+                    } else if (type != Cursor.FIELD_TYPE_NULL) {
+                        writeCsvField(writer, cursor.getString(i));
+                    }
+                }
+                writer.write("\r\n");
+                progress.rowWritten();
+            }
+
+            writer.flush();
+            zip.closeEntry();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // RFC 4180 quoting, only when the value needs it
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void closeQuietly(OutputStream output) {
+        try {
+            output.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public static final class ExportJob {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    // Counts written rows, reports progress every PROGRESS_INTERVAL rows and checks for cancellation
+    private static final class Progress {
+        private final ExportJob job;
+        private final ExportCallback callback;
+        private int totalRows;
+        private int rows;
+
+        Progress(ExportJob job, ExportCallback callback) {
+            this.job = job;
+            this.callback = callback;
+        }
+
+        void rowWritten() {
+            rows++;
+            if (rows % PROGRESS_INTERVAL == 0 || rows == totalRows) {
+                if (job.isCancelled()) {
+                    throw new CancelledException();
+                }
+                callback.onExportProgress(rows, totalRows);
+            }
+        }
+    }
+
+    private static final class CancelledException extends RuntimeException {
+    }
+
+    public interface ExportCallback {
+        void onExportProgress(int rowsWritten, int totalRows);
+        void onExportComplete(int rowsWritten);
+        void onExportCancelled();
+        void onError(String error);
+    }
+}
@@ -6,6 +6,7 @@ import com.habitrpg.taskmanager.data.database.entities.FriendRequest;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
 import com.habitrpg.taskmanager.data.repository.FriendRepository;
+import com.habitrpg.taskmanager.util.Tracing;
 
 public class FriendRequestListenerService {
     
@@ -32,39 +33,43 @@ public class FriendRequestListenerService {
             public void onRequestReceived(String requestId, String fromUserId, String fromUsername,
                                          String fromEmail, int fromAvatarId,
                                          String toUserId, String toUsername) {
+                Tracing.begin("FriendRequestListener.apply");
+                try {
+                    if (friendRepository == null || notificationService == null || appContext == null) {
+                        System.out.println("FriendRequestListenerService: Services are null, ignoring request");
+                        return;
+                    }
                 
-                if (friendRepository == null || notificationService == null || appContext == null) {
-                    System.out.println("FriendRequestListenerService: Services are null, ignoring request");
-                    return;
-                }
-                
-                FriendRequest request = new FriendRequest(
-                    requestId, fromUserId, toUserId, fromUsername, fromEmail, fromAvatarId,
-                    "pending", System.currentTimeMillis()
-                );
+                    FriendRequest request = new FriendRequest(
+                        requestId, fromUserId, toUserId, fromUsername, fromEmail, fromAvatarId,
+                        "pending", System.currentTimeMillis()
+                    );
                 
-                friendRepository.insertFriendRequestFromFirebase(request, new FriendRepository.FriendRequestCallback() {
-                    @Override
-                    public void onSuccess(String message) {
-                        System.out.println("Friend request saved from Firebase: " + fromUsername + " -> " + toUsername);
-                        if (notificationService != null) {
-                            notificationService.showFriendRequestNotification(request);
+                    friendRepository.insertFriendRequestFromFirebase(request, new FriendRepository.FriendRequestCallback() {
+                        @Override
+                        public void onSuccess(String message) {
+                            System.out.println("Friend request saved from Firebase: " + fromUsername + " -> " + toUsername);
+                            if (notificationService != null) {
+                                notificationService.showFriendRequestNotification(request);
+                            }
                         }
-                    }
                     
-                    @Override
-                    public void onError(String error) {
-                        System.out.println("Failed to save friend request from Firebase: " + error);
-                    }
+                        @Override
+                        public void onError(String error) {
+                            System.out.println("Failed to save friend request from Firebase: " + error);
+                        }
                     
-                    @Override
-                    public void onFriendRequestsRetrieved(java.util.List<FriendRequest> requests) {
-                    }
+                        @Override
+                        public void onFriendRequestsRetrieved(java.util.List<FriendRequest> requests) {
+                        }
                     
-                    @Override
-                    public void onFriendRequestChecked(FriendRequest request) {
-                    }
-                });
+                        @Override
+                        public void onFriendRequestChecked(FriendRequest request) {
+                        }
+                    });
+                } finally {
+                    Tracing.end();
+                }
             }
             
             @Override
@@ -9,7 +9,6 @@ import com.habitrpg.taskmanager.data.repository.FriendRepository;
 import com.habitrpg.taskmanager.data.repository.UserRepository;
 import com.habitrpg.taskmanager.util.QRCodeGenerator;
 import java.util.List;
-import java.util.UUID;
 
 public class FriendService {
     
@@ -145,38 +144,73 @@ public class FriendService {
             return;
         }
         
-        try {
-            // Parse QR data format: "TaskManager:userId:username:email"
-            if (!qrData.startsWith("TaskManager:")) {
-                callback.onError("Invalid QR code format - not from TaskManager");
-                return;
+        String friendUserId = QRCodeGenerator.parseUserQRData(qrData);
+        if (friendUserId == null) {
+            callback.onError("Invalid QR code format - not from TaskManager");
+            return;
+        }
+        
+        if (friendUserId.equals(currentUserId)) {
+            callback.onError("Cannot add yourself as a friend");
+            return;
+        }
+        
+        resolveUser(friendUserId, new FirebaseManager.UserListener() {
+            @Override
+            public void onUserRetrieved(User friendUser) {
+                if (friendUser == null) {
+                    callback.onError("User not found");
+                    return;
+                }
+                checkAndSendFriendRequest(currentUserId, friendUser, callback);
             }
             
-            String[] qrParts = qrData.split(":");
-            if (qrParts.length != 4) {
-                callback.onError("Invalid QR code format");
-                return;
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
             }
+        });
+    }
+    
+    // The QR payload only carries the user ID; the local cache answers first, otherwise a single
+    // document get by ID
+    private void resolveUser(String userId, FirebaseManager.UserListener listener) {
+        userRepository.getUserById(userId, new UserRepository.UserCallback() {
+            @Override
+            public void onSuccess(String message) {}
             
-            String friendUserId = qrParts[1]; // Skip "TaskManager" prefix
-            String friendUsername = qrParts[2];
-            String friendEmail = qrParts[3];
+            @Override
+            public void onError(String error) {
+                fetchUserDocument(userId, listener);
+            }
             
-            if (friendUserId.equals(currentUserId)) {
-                callback.onError("Cannot add yourself as a friend");
+            @Override
+            public void onUserRetrieved(User user) {
+                if (user != null) {
+                    listener.onUserRetrieved(user);
+                } else {
+                    fetchUserDocument(userId, listener);
+                }
+            }
+        });
+    }
+    
+    private void fetchUserDocument(String userId, FirebaseManager.UserListener listener) {
+        firebaseManager.getUserDocument(userId, userData -> {
+            if (userData == null) {
+                listener.onUserRetrieved(null);
                 return;
             }
-            
-            User friendUser = new User();
-            friendUser.setId(friendUserId);
-            friendUser.setUsername(friendUsername);
-            friendUser.setEmail(friendEmail);
-            
-            checkAndSendFriendRequest(currentUserId, friendUser, callback);
-            
-        } catch (Exception e) {
-            callback.onError("Invalid QR code: " + e.getMessage());
-        }
+            User user = new User();
+            user.setId(userId);
+            user.setUsername((String) userData.get("username"));
+            user.setEmail((String) userData.get("email"));
+            Object avatarId = userData.get("avatarId");
+            if (avatarId instanceof Number) {
+                user.setAvatarId(((Number) avatarId).intValue());
+            }
+            listener.onUserRetrieved(user);
+        });
     }
     
     private void checkAndSendFriendRequest(String currentUserId, User friendUser, FriendCallback callback) {
@@ -195,7 +229,13 @@ public class FriendService {
             @Override
             public void onFriendRequestChecked(FriendRequest existingRequest) {
                 if (existingRequest != null) {
-                    callback.onError("Friend request already sent");
+                    if ("accepted".equals(existingRequest.getStatus())) {
+                        callback.onError("You are already friends with this user");
+                    } else if (existingRequest.getFromUserId().equals(currentUserId)) {
+                        callback.onError("Friend request already sent");
+                    } else {
+                        callback.onError("This user already sent you a friend request");
+                    }
                     return;
                 }
                 
@@ -223,7 +263,7 @@ public class FriendService {
     
     private void sendFriendRequest(User currentUser, User friendUser, FriendCallback callback) {
         FriendRequest request = new FriendRequest(
-            UUID.randomUUID().toString(),
+            FirebaseManager.friendRequestId(currentUser.getId(), friendUser.getId()),
             currentUser.getId(),
             friendUser.getId(),
             currentUser.getUsername(),
@@ -332,11 +372,7 @@ public class FriendService {
             @Override
             public void onUserRetrieved(User user) {
                 if (user != null) {
-                    String qrData = QRCodeGenerator.generateUserQRData(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail()
-                    );
+                    String qrData = QRCodeGenerator.generateUserQRData(user.getId());
                     callback.onQRCodeGenerated(qrData);
                 } else {
                     callback.onError("User not found");
@@ -6,6 +6,7 @@ import com.habitrpg.taskmanager.data.database.entities.Friend;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
 import com.habitrpg.taskmanager.data.repository.FriendRepository;
+import com.habitrpg.taskmanager.util.Tracing;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
@@ -61,6 +62,7 @@ public class FriendshipListenerService {
                         );
                         
                         new Thread(() -> {
+                            Tracing.begin("FriendshipListener.apply");
                             try {
                                 if (friendRepository == null) {
                                     System.out.println("FriendshipListenerService: friendRepository is null, ignoring friendship");
@@ -73,6 +75,8 @@ public class FriendshipListenerService {
                                 }
                             } catch (Exception e) {
                                 System.out.println("Failed to sync friendship: " + e.getMessage());
+                            } finally {
+                                Tracing.end();
                             }
                         }).start();
                     }
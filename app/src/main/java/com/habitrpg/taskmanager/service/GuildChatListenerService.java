@@ -5,6 +5,7 @@ import android.content.Context;
 import com.habitrpg.taskmanager.data.database.entities.GuildMessage;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
 import com.habitrpg.taskmanager.data.repository.GuildRepository;
+import com.habitrpg.taskmanager.util.Tracing;
 import com.google.firebase.firestore.ListenerRegistration;
 
 public class GuildChatListenerService {
@@ -54,6 +55,7 @@ public class GuildChatListenerService {
                     message.setSystemMessage(false);
                     
                     new Thread(() -> {
+                        Tracing.begin("GuildChatListener.apply");
                         try {
                             if (guildRepository == null) {
                                 return;
@@ -75,6 +77,8 @@ public class GuildChatListenerService {
                             }
                         } catch (Exception e) {
                             System.out.println("Failed to sync guild message: " + e.getMessage());
+                        } finally {
+                            Tracing.end();
                         }
                     }).start();
                 }
@@ -6,6 +6,7 @@ import com.habitrpg.taskmanager.data.database.entities.GuildInvite;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
 import com.habitrpg.taskmanager.data.repository.GuildRepository;
+import com.habitrpg.taskmanager.util.Tracing;
 import com.google.firebase.firestore.ListenerRegistration;
 
 public class GuildInviteListenerService {
@@ -34,28 +35,32 @@ public class GuildInviteListenerService {
             public void onInviteReceived(String inviteId, String guildId, String guildName,
                                         String fromUserId, String fromUsername,
                                         String toUserId, String toUsername) {
+                Tracing.begin("GuildInviteListener.apply");
+                try {
+                    if (guildRepository == null || notificationService == null || appContext == null) {
+                        System.out.println("GuildInviteListenerService: Services are null, ignoring invite");
+                        return;
+                    }
                 
-                if (guildRepository == null || notificationService == null || appContext == null) {
-                    System.out.println("GuildInviteListenerService: Services are null, ignoring invite");
-                    return;
-                }
-                
-                GuildInvite invite = new GuildInvite(inviteId, guildId, guildName,
-                    fromUserId, fromUsername, toUserId, toUsername);
+                    GuildInvite invite = new GuildInvite(inviteId, guildId, guildName,
+                        fromUserId, fromUsername, toUserId, toUsername);
                 
-                guildRepository.insertGuildInviteFromFirebase(invite, new GuildRepository.GuildInviteCallback() {
-                    @Override
-                    public void onSuccess(String message, GuildInvite savedInvite) {
-                        if (notificationService != null) {
-                            notificationService.showGuildInviteNotification(savedInvite);
+                    guildRepository.insertGuildInviteFromFirebase(invite, new GuildRepository.GuildInviteCallback() {
+                        @Override
+                        public void onSuccess(String message, GuildInvite savedInvite) {
+                            if (notificationService != null) {
+                                notificationService.showGuildInviteNotification(savedInvite);
+                            }
                         }
-                    }
                     
-                    @Override
-                    public void onError(String error) {
-                        System.out.println("Failed to save invite from Firebase: " + error);
-                    }
-                });
+                        @Override
+                        public void onError(String error) {
+                            System.out.println("Failed to save invite from Firebase: " + error);
+                        }
+                    });
+                } finally {
+                    Tracing.end();
+                }
             }
             
             @Override
@@ -6,6 +6,7 @@ import com.habitrpg.taskmanager.data.database.entities.GuildMember;
 import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
 import com.habitrpg.taskmanager.data.repository.GuildRepository;
+import com.habitrpg.taskmanager.util.Tracing;
 import com.google.firebase.firestore.ListenerRegistration;
 
 public class GuildMembersListenerService {
@@ -54,6 +55,7 @@ public class GuildMembersListenerService {
                     );
                     
                     new Thread(() -> {
+                        Tracing.begin("GuildMembersListener.applyAdded");
                         try {
                             if (guildRepository == null) {
                                 return;
@@ -69,6 +71,8 @@ public class GuildMembersListenerService {
                             }
                         } catch (Exception e) {
                             System.out.println("Failed to sync guild member: " + e.getMessage());
+                        } finally {
+                            Tracing.end();
                         }
                     }).start();
                 }
@@ -81,6 +85,7 @@ public class GuildMembersListenerService {
                     }
                     
                     new Thread(() -> {
+                        Tracing.begin("GuildMembersListener.applyRemoved");
                         try {
                             if (guildRepository == null) {
                                 return;
@@ -96,6 +101,8 @@ public class GuildMembersListenerService {
                             }
                         } catch (Exception e) {
                             System.out.println("Failed to remove guild member: " + e.getMessage());
+                        } finally {
+                            Tracing.end();
                         }
                     }).start();
                 }
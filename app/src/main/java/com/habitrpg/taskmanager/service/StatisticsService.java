@@ -4,17 +4,23 @@ import android.content.Context;
 
 import com.habitrpg.taskmanager.data.database.AppDatabase;
 import com.habitrpg.taskmanager.data.database.entities.Category;
+import com.habitrpg.taskmanager.data.database.entities.DailyXp;
 import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.data.database.entities.TaskCompletion;
 import com.habitrpg.taskmanager.data.database.entities.UserStatistics;
 import com.habitrpg.taskmanager.data.database.repository.UserStatisticsRepository;
 import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.data.repository.CategoryRepository;
+import com.habitrpg.taskmanager.data.repository.CategorySnapshot;
 import com.habitrpg.taskmanager.util.DateUtils;
+import com.habitrpg.taskmanager.util.Tracing;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -25,12 +31,14 @@ public class StatisticsService {
     private static StatisticsService instance;
     private AppDatabase database;
     private UserStatisticsRepository userStatisticsRepository;
+    private CategoryRepository categoryRepository;
     private UserPreferences userPreferences;
     private ExecutorService executor;
     
     private StatisticsService(Context context) {
         database = AppDatabase.getDatabase(context);
         userStatisticsRepository = UserStatisticsRepository.getInstance(context);
+        categoryRepository = CategoryRepository.getInstance(context);
         userPreferences = UserPreferences.getInstance(context);
         executor = Executors.newFixedThreadPool(2);
     }
@@ -84,9 +92,10 @@ public class StatisticsService {
             try {
                 List<Task> completedTasks = database.taskDao().getCompletedTasksByUserId(userId);
                 Map<String, Integer> categoryCounts = new HashMap<>();
+                CategorySnapshot categories = categoryRepository.getSnapshotSync(userId);
                 
                 for (Task task : completedTasks) {
-                    Category category = database.categoryDao().getCategoryById(task.getCategoryId());
+                    Category category = categories.getById(task.getCategoryId());
                     if (category != null) {
                         String categoryName = category.getName();
                         categoryCounts.put(categoryName, categoryCounts.getOrDefault(categoryName, 0) + 1);
@@ -102,6 +111,12 @@ public class StatisticsService {
     }
     
     public void getXPProgressLast7Days(StatisticsCallback callback) {
+        getXPProgress(7, callback);
+    }
+    
+    // XP per day for the last `days` days ending today, oldest first, keyed "yyyy-MM-dd".
+    // One range read on the daily_xp rollup, whatever the length of the history.
+    public void getXPProgress(int days, StatisticsCallback callback) {
         String userId = userPreferences.getCurrentUserId();
         if (userId == null) {
             callback.onError("User not logged in");
@@ -110,23 +125,17 @@ public class StatisticsService {
         
         executor.execute(() -> {
             try {
-                String[] weekDates = DateUtils.getCurrentWeekDates();
-                List<TaskCompletion> completions = database.taskCompletionDao()
-                    .getCompletionsByUserIdAndDateRange(userId, weekDates[0], weekDates[1]);
+                long toDay = LocalDate.now().toEpochDay();
+                long fromDay = toDay - days + 1;
                 
-                Map<String, Integer> dailyXP = new HashMap<>();
-                Calendar cal = Calendar.getInstance();
-                cal.add(Calendar.DAY_OF_YEAR, -6);
-                
-                for (int i = 0; i < 7; i++) {
-                    String date = DateUtils.getCurrentDateString();
-                    cal.add(Calendar.DAY_OF_YEAR, 1);
-                    dailyXP.put(date, 0);
+                int[] xpByDay = new int[days];
+                for (DailyXp day : database.dailyXpDao().getDailyXp(userId, fromDay, toDay)) {
+                    xpByDay[(int) (day.getDayNumber() - fromDay)] = day.getXp();
                 }
                 
-                for (TaskCompletion completion : completions) {
-                    String date = completion.getCompletedDate();
-                    dailyXP.put(date, dailyXP.getOrDefault(date, 0) + completion.getXpEarned());
+                Map<String, Integer> dailyXP = new LinkedHashMap<>();
+                for (int i = 0; i < days; i++) {
+                    dailyXP.put(LocalDate.ofEpochDay(fromDay + i).toString(), xpByDay[i]);
                 }
                 
                 callback.onXPProgressRetrieved(dailyXP);
@@ -137,6 +146,32 @@ public class StatisticsService {
         });
     }
     
+    // Completions per day for the last `days` days ending today, from the daily_xp rollup
+    public void getCompletionHeatmap(int days, HeatmapCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        executor.execute(() -> {
+            try {
+                long toDay = LocalDate.now().toEpochDay();
+                long fromDay = toDay - days + 1;
+                
+                int[] completions = new int[days];
+                for (DailyXp day : database.dailyXpDao().getDailyXp(userId, fromDay, toDay)) {
+                    completions[(int) (day.getDayNumber() - fromDay)] = day.getCompletions();
+                }
+                
+                callback.onHeatmapRetrieved(fromDay, completions);
+                
+            } catch (Exception e) {
+                callback.onError("Failed to get completion history: " + e.getMessage());
+            }
+        });
+    }
+    
     public void getAverageDifficultyXP(StatisticsCallback callback) {
         String userId = userPreferences.getCurrentUserId();
         if (userId == null) {
@@ -164,6 +199,15 @@ public class StatisticsService {
     }
     
     private void updateStatistics(UserStatistics stats) {
+        Tracing.begin("StatisticsService.updateStatistics");
+        try {
+            recomputeStatistics(stats);
+        } finally {
+            Tracing.end();
+        }
+    }
+    
+    private void recomputeStatistics(UserStatistics stats) {
         String userId = stats.getUserId();
         
         List<Task> allTasks = database.taskDao().getTasksByUserId(userId);
@@ -271,4 +315,9 @@ public class StatisticsService {
         void onDifficultyStatsRetrieved(Map<String, Integer> difficultyStats);
         void onError(String error);
     }
+    
+    public interface HeatmapCallback {
+        void onHeatmapRetrieved(long firstDay, int[] completions);
+        void onError(String error);
+    }
 }
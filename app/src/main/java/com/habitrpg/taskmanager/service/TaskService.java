@@ -1,6 +1,8 @@
 package com.habitrpg.taskmanager.service;
 
 import android.content.Context;
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.entities.DailyXp;
 import com.habitrpg.taskmanager.data.database.entities.Task;
 import com.habitrpg.taskmanager.data.database.entities.TaskCompletion;
 import com.habitrpg.taskmanager.data.database.entities.User;
@@ -9,22 +11,40 @@ import com.habitrpg.taskmanager.data.repository.TaskRepository;
 import com.habitrpg.taskmanager.data.repository.UserRepository;
 import com.habitrpg.taskmanager.service.XPService;
 import com.habitrpg.taskmanager.util.DateUtils;
+import com.habitrpg.taskmanager.util.Metrics;
+import com.habitrpg.taskmanager.util.MonthTaskIndex;
+import com.habitrpg.taskmanager.util.TaskListIndex;
+import com.habitrpg.taskmanager.util.Tracing;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class TaskService {
     
+    public static final int SEARCH_PAGE_SIZE = 50;
+    // Ids per IN (...) statement, below SQLite's bind variable limit
+    private static final int BULK_CHUNK_SIZE = 500;
+    
     private static TaskService instance;
     private TaskRepository taskRepository;
     private UserRepository userRepository;
     private UserPreferences userPreferences;
+    private AppDatabase database;
+    private ExecutorService executor;
 
     private TaskService(Context context) {
         taskRepository = TaskRepository.getInstance(context);
         userRepository = UserRepository.getInstance(context);
         userPreferences = UserPreferences.getInstance(context);
+        database = AppDatabase.getDatabase(context);
+        executor = Executors.newSingleThreadExecutor();
     }
     
     public static synchronized TaskService getInstance(Context context) {
@@ -34,6 +54,12 @@ public class TaskService {
         return instance;
     }
     
+    private void ensureExecutorActive() {
+        if (executor.isShutdown()) {
+            executor = Executors.newSingleThreadExecutor();
+        }
+    }
+    
     public void createTask(Task task, TaskCallback callback) {
         String userId = userPreferences.getCurrentUserId();
         if (userId == null) {
@@ -117,6 +143,15 @@ public class TaskService {
     }
     
     private void createRecurringInstances(Task templateTask, TaskCallback callback) {
+        Tracing.begin("TaskService.createRecurringInstances");
+        try {
+            createRecurringInstancesInternal(templateTask, callback);
+        } finally {
+            Tracing.end();
+        }
+    }
+    
+    private void createRecurringInstancesInternal(Task templateTask, TaskCallback callback) {
         try {
             java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault());
             
@@ -131,6 +166,9 @@ public class TaskService {
             java.util.Calendar cal = java.util.Calendar.getInstance();
             cal.setTime(startDate);
             
+            // Links the instances so that later edits can address the series in one statement
+            String seriesId = java.util.UUID.randomUUID().toString();
+            
             int taskCount = 0;
             while (cal.getTime().before(endDate) || cal.getTime().equals(endDate)) {
                 Task recurringTask = new Task();
@@ -142,6 +180,7 @@ public class TaskService {
                 recurringTask.setImportance(templateTask.getImportance());
                 recurringTask.setXpValue(templateTask.getXpValue());
                 recurringTask.setRecurring(true); // Instance is from recurring task
+                recurringTask.setSeriesId(seriesId);
                 
                 // Copy recurrence settings from template
                 recurringTask.setRecurrenceInterval(templateTask.getRecurrenceInterval());
@@ -189,6 +228,34 @@ public class TaskService {
     }
     
     public void completeTask(int taskId, TaskCallback callback) {
+        // Completion hops across the repository and XP executors, so it is traced as an async section
+        int cookie = Tracing.beginAsync("TaskService.completeTask");
+        completeTaskInternal(taskId, new TaskCallback() {
+            @Override
+            public void onSuccess(String message) {
+                Tracing.endAsync("TaskService.completeTask", cookie);
+                callback.onSuccess(message);
+            }
+            
+            @Override
+            public void onError(String error) {
+                Tracing.endAsync("TaskService.completeTask", cookie);
+                callback.onError(error);
+            }
+            
+            @Override
+            public void onTasksRetrieved(List<Task> tasks) {
+                callback.onTasksRetrieved(tasks);
+            }
+            
+            @Override
+            public void onLevelUp(int newLevel, int ppEarned) {
+                callback.onLevelUp(newLevel, ppEarned);
+            }
+        });
+    }
+    
+    private void completeTaskInternal(int taskId, TaskCallback callback) {
         String userId = userPreferences.getCurrentUserId();
         if (userId == null) {
             callback.onError("User not logged in");
@@ -227,15 +294,9 @@ public class TaskService {
                     return;
                 }
                 
-                // Validacija: Ne može se označiti budući zadatak kao urađen
-                if (!isTaskDateValidForCompletion(task)) {
-                    callback.onError("Cannot complete future tasks");
-                    return;
-                }
-                
-                // Validacija: Zadatak se može označiti do 3 dana unazad
-                if (!isWithinCompletionWindow(task)) {
-                    callback.onError("Task can only be completed within 3 days of its scheduled date");
+                String completionError = getCompletionError(task);
+                if (completionError != null) {
+                    callback.onError(completionError);
                     return;
                 }
                 
@@ -316,45 +377,12 @@ public class TaskService {
             @Override
             public void onUserRetrieved(User user) {
                 if (user != null) {
-                    int newXP = user.getExperiencePoints() + task.getXpValue();
                     int oldLevel = user.getLevel();
-                    int newLevel = XPService.calculateLevelFromXP(newXP);
-                    
-                    user.setExperiencePoints(newXP);
-                    
-                    boolean leveledUp;
-                    final int ppEarned;
-                    if (newLevel > oldLevel) {
-                        user.setLevel(newLevel);
-                        user.setTitle(XPService.getTitleForLevel(newLevel));
-                        leveledUp = true;
-                        
-                        // Calculate PP rewards for all levels gained
-                        int totalPPEarned = 0;
-                        for (int level = oldLevel + 1; level <= newLevel; level++) {
-                            totalPPEarned += XPService.getPPRewardForLevel(level);
-                        }
-                        user.setPowerPoints(user.getPowerPoints() + totalPPEarned);
-                        ppEarned = totalPPEarned;
-                        
-                        // Update stage tracking - set previous stage start time when leveling up
-                        // This marks the beginning of the previous stage for boss fight calculation
-                        long currentTime = System.currentTimeMillis();
-                        long currentStageStartTime = userPreferences.getCurrentStageStartTime();
-                        
-                        // Set previous stage start time to current stage start time
-                        userPreferences.setPreviousStageStartTime(currentStageStartTime);
-                        System.out.println("DEBUG: Setting previous stage start time for level " + newLevel + ": " + currentStageStartTime);
-                        
-                        // Set current stage start time to current time (beginning of new stage)
-                        userPreferences.setCurrentStageStartTime(currentTime);
-                        System.out.println("DEBUG: Setting current stage start time for level " + newLevel + ": " + currentTime);
-                    } else {
-                        leveledUp = false;
-                        ppEarned = 0;
-                    }
+                    final int ppEarned = addExperience(user, task.getXpValue());
+                    int newLevel = user.getLevel();
+                    boolean leveledUp = newLevel > oldLevel;
 
-                    userRepository.updateUser(user, new UserRepository.UserCallback() {
+                    UserRepository.UserCallback updateCallback = new UserRepository.UserCallback() {
                         @Override
                         public void onSuccess(String message) {
                             String resultMessage = "Task completed! +" + task.getXpValue() + " XP";
@@ -376,7 +404,13 @@ public class TaskService {
                         
                         @Override
                         public void onUserRetrieved(User user) {}
-                    });
+                    };
+                    if (leveledUp) {
+                        // The stage change is stored with the new level, for the boss fight that follows
+                        userRepository.levelUpUser(user, oldLevel, System.currentTimeMillis(), updateCallback);
+                    } else {
+                        userRepository.updateUser(user, updateCallback);
+                    }
                 } else {
                     callback.onError("User data not found");
                 }
@@ -384,6 +418,185 @@ public class TaskService {
         });
     }
     
+    // Adds xp to the user, with the level, title and power points of every level gained;
+    // returns the power points earned
+    private static int addExperience(User user, int xp) {
+        int newXP = user.getExperiencePoints() + xp;
+        int oldLevel = user.getLevel();
+        int newLevel = XPService.calculateLevelFromXP(newXP);
+        
+        user.setExperiencePoints(newXP);
+        if (newLevel <= oldLevel) {
+            return 0;
+        }
+        
+        user.setLevel(newLevel);
+        user.setTitle(XPService.getTitleForLevel(newLevel));
+        int ppEarned = 0;
+        for (int level = oldLevel + 1; level <= newLevel; level++) {
+            ppEarned += XPService.getPPRewardForLevel(level);
+        }
+        user.setPowerPoints(user.getPowerPoints() + ppEarned);
+        return ppEarned;
+    }
+    
+    /**
+     * Changes the status of several tasks in one transaction. Each task is validated as
+     * updateTaskStatus and completeTask validate a single task; tasks that fail are left as they
+     * are and reported in the result. Completing tasks awards their XP in one user update, so
+     * the level-up is computed once for the combined XP.
+     */
+    public void bulkUpdateTaskStatus(List<Integer> taskIds, String status, BulkCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        ensureExecutorActive();
+        executor.execute(Metrics.timed("TaskService.bulkUpdateTaskStatus", () -> {
+            BulkResult result;
+            try {
+                result = database.runInTransaction(() -> applyBulkStatus(userId, taskIds, status));
+            } catch (Exception e) {
+                callback.onError("Failed to update tasks: " + e.getMessage());
+                return;
+            }
+            if (result.getXpEarned() > 0) {
+                userRepository.requestSync();
+            }
+            callback.onBulkResult(result);
+        }));
+    }
+    
+    // Deletes several tasks in one transaction, skipping those deleteTask would refuse
+    public void bulkDeleteTasks(List<Integer> taskIds, BulkCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        ensureExecutorActive();
+        executor.execute(Metrics.timed("TaskService.bulkDeleteTasks", () -> {
+            BulkResult result;
+            try {
+                result = database.runInTransaction(() -> applyBulkDelete(userId, taskIds));
+            } catch (Exception e) {
+                callback.onError("Failed to delete tasks: " + e.getMessage());
+                return;
+            }
+            callback.onBulkResult(result);
+        }));
+    }
+    
+    // Runs inside the bulk transaction
+    private BulkResult applyBulkStatus(String userId, List<Integer> taskIds, String status) {
+        BulkResult result = new BulkResult();
+        List<Task> applied = new ArrayList<>();
+        for (Task task : loadOwnedTasks(userId, taskIds, "Unauthorized to update this task", result)) {
+            String error = null;
+            if (!isStatusChangeValid(task, status)) {
+                error = getStatusChangeErrorMessage(task, status);
+            } else if ("completed".equals(status)) {
+                error = getCompletionError(task);
+            }
+            
+            if (error != null) {
+                result.rejected.put(task.getId(), error);
+            } else {
+                applied.add(task);
+                result.appliedIds.add(task.getId());
+            }
+        }
+        
+        for (List<Integer> chunk : chunks(result.appliedIds)) {
+            database.taskDao().updateTaskStatuses(chunk, status);
+        }
+        if ("completed".equals(status) && !applied.isEmpty()) {
+            awardCompletions(userId, applied, result);
+        }
+        return result;
+    }
+    
+    private BulkResult applyBulkDelete(String userId, List<Integer> taskIds) {
+        BulkResult result = new BulkResult();
+        for (Task task : loadOwnedTasks(userId, taskIds, "Unauthorized to delete this task", result)) {
+            if ("completed".equals(task.getStatus())) {
+                result.rejected.put(task.getId(), "Cannot delete completed tasks");
+            } else {
+                result.appliedIds.add(task.getId());
+            }
+        }
+        
+        for (List<Integer> chunk : chunks(result.appliedIds)) {
+            database.taskDao().deleteTasksByIds(chunk);
+        }
+        return result;
+    }
+    
+    // The user's tasks among taskIds, in request order; missing and foreign ids are rejected
+    private List<Task> loadOwnedTasks(String userId, List<Integer> taskIds, String unauthorizedError, BulkResult result) {
+        List<Integer> uniqueIds = new ArrayList<>(new LinkedHashSet<>(taskIds));
+        Map<Integer, Task> tasksById = new HashMap<>();
+        for (List<Integer> chunk : chunks(uniqueIds)) {
+            for (Task task : database.taskDao().getTasksByIds(chunk)) {
+                tasksById.put(task.getId(), task);
+            }
+        }
+        
+        List<Task> owned = new ArrayList<>();
+        for (int taskId : uniqueIds) {
+            Task task = tasksById.get(taskId);
+            if (task == null) {
+                result.rejected.put(taskId, "Task not found");
+            } else if (!task.getUserId().equals(userId)) {
+                result.rejected.put(taskId, unauthorizedError);
+            } else {
+                owned.add(task);
+            }
+        }
+        return owned;
+    }
+    
+    // Completion records, the daily_xp rollup and the user's XP for the completed tasks, written
+    // in the caller's transaction
+    private void awardCompletions(String userId, List<Task> completed, BulkResult result) {
+        String currentDate = DateUtils.getCurrentDateString();
+        long dayNumber = DailyXp.dayNumber(currentDate);
+        List<TaskCompletion> completions = new ArrayList<>();
+        int xpEarned = 0;
+        for (Task task : completed) {
+            completions.add(new TaskCompletion(task.getId(), currentDate, task.getXpValue()));
+            xpEarned += task.getXpValue();
+        }
+        database.taskCompletionDao().insertTaskCompletions(completions);
+        database.dailyXpDao().insertDay(new DailyXp(userId, dayNumber));
+        for (TaskCompletion completion : completions) {
+            database.dailyXpDao().addCompletion(userId, dayNumber, completion.getXpEarned());
+        }
+        
+        User user = database.userDao().getUserById(userId);
+        if (user == null) {
+            // Rolls the whole batch back
+            throw new IllegalStateException("User data not found");
+        }
+        int oldLevel = user.getLevel();
+        result.ppEarned = addExperience(user, xpEarned);
+        result.xpEarned = xpEarned;
+        result.oldLevel = oldLevel;
+        result.newLevel = user.getLevel();
+        userRepository.writeUser(user, oldLevel, System.currentTimeMillis());
+    }
+    
+    private static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+    
     public void getActiveTasks(TaskListCallback callback) {
         String userId = userPreferences.getCurrentUserId();
         if (userId == null) {
@@ -674,6 +887,124 @@ public class TaskService {
         });
     }
     
+    // Partitions the task list screen's tasks on the repository thread
+    public void getTaskListIndex(TaskListIndexCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        taskRepository.getAllTasks(userId, new TaskRepository.TaskCallback() {
+            @Override
+            public void onSuccess(String message) {}
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+            
+            @Override
+            public void onTaskRetrieved(Task task) {}
+            
+            @Override
+            public void onTasksRetrieved(List<Task> tasks) {
+                String today = DateUtils.getCurrentDateString();
+                callback.onTaskListIndexRetrieved(
+                    tasks != null ? TaskListIndex.build(tasks, today) : TaskListIndex.EMPTY);
+            }
+            
+            @Override
+            public void onTaskCountRetrieved(int count) {}
+        });
+    }
+    
+    // One range query for the month; the index is built on the repository thread
+    public void getMonthIndex(int year, int month, MonthIndexCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        String[] range = MonthTaskIndex.dateRange(year, month);
+        taskRepository.getTasksStartingBetween(userId, range[0], range[1], new TaskRepository.TaskCallback() {
+            @Override
+            public void onSuccess(String message) {}
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+            
+            @Override
+            public void onTaskRetrieved(Task task) {}
+            
+            @Override
+            public void onTasksRetrieved(List<Task> tasks) {
+                callback.onMonthIndexRetrieved(MonthTaskIndex.build(year, month, tasks));
+            }
+            
+            @Override
+            public void onTaskCountRetrieved(int count) {}
+        });
+    }
+    
+    // Full-text search over task names and descriptions, SEARCH_PAGE_SIZE results per 0-based page
+    public void searchTasks(String query, int page, SearchCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        String matchQuery = toMatchQuery(query);
+        if (matchQuery.isEmpty()) {
+            callback.onSearchResults(query, page, new ArrayList<>());
+            return;
+        }
+        
+        taskRepository.searchTasks(userId, matchQuery, SEARCH_PAGE_SIZE, page * SEARCH_PAGE_SIZE, new TaskRepository.TaskCallback() {
+            @Override
+            public void onSuccess(String message) {}
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+            
+            @Override
+            public void onTaskRetrieved(Task task) {}
+            
+            @Override
+            public void onTasksRetrieved(List<Task> tasks) {
+                callback.onSearchResults(query, page, tasks);
+            }
+            
+            @Override
+            public void onTaskCountRetrieved(int count) {}
+        });
+    }
+    
+    // Turns user input into an FTS4 MATCH expression: every word must match, as a prefix.
+    // Punctuation and FTS operators are dropped so input can never be a syntax error.
+    static String toMatchQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        for (String token : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append(token).append('*');
+        }
+        return match.toString();
+    }
+    
     public void getTaskCountByDifficultyAndImportanceForDate(String userId, String difficulty, String importance, String date, TaskCountCallback callback) {
         taskRepository.getTaskCountByDifficultyAndImportanceForDate(userId, difficulty, importance, date, new TaskRepository.TaskCallback() {
             @Override
@@ -959,6 +1290,113 @@ public class TaskService {
         });
     }
     
+    /**
+     * Edits an occurrence of a recurring task together with every later occurrence of its series.
+     * The occurrence itself is saved as updateTask saves it; its name, category, difficulty and
+     * importance, with the XP they give, then go to the series from fromDate (YYYY-MM-DD) onward
+     * in a single statement, in the same transaction. Completed occurrences keep their values.
+     */
+    public void updateSeriesFrom(Task task, String fromDate, TaskCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        if (!task.getUserId().equals(userId)) {
+            callback.onError("Unauthorized to update this task");
+            return;
+        }
+        
+        if (task.getSeriesId() == null) {
+            callback.onError("Task is not part of a recurring series");
+            return;
+        }
+        
+        // start_date >= '' would match the whole series
+        if (!isSeriesDay(fromDate)) {
+            callback.onError("Task has no valid start date");
+            return;
+        }
+        
+        task.setXpValue(XPService.calculateTaskXP(task.getDifficulty(), task.getImportance()));
+        
+        ensureExecutorActive();
+        executor.execute(Metrics.timed("TaskService.updateSeriesFrom", () -> {
+            int count;
+            try {
+                count = database.runInTransaction(() -> {
+                    database.taskDao().updateTask(task);
+                    return database.taskDao().updateSeriesFrom(task.getSeriesId(), fromDate,
+                        seriesBaseName(task.getName()), task.getCategoryId(), task.getDifficulty(),
+                        task.getImportance(), task.getXpValue());
+                });
+            } catch (Exception e) {
+                callback.onError("Failed to update recurring task: " + e.getMessage());
+                return;
+            }
+            callback.onSuccess("Updated " + count + " occurrences");
+        }));
+    }
+    
+    // Deletes an occurrence of a recurring task and every later one, in a single statement;
+    // completed occurrences stay, as deleteTask refuses to delete them
+    public void deleteSeriesFrom(int taskId, TaskCallback callback) {
+        String userId = userPreferences.getCurrentUserId();
+        if (userId == null) {
+            callback.onError("User not logged in");
+            return;
+        }
+        
+        ensureExecutorActive();
+        executor.execute(Metrics.timed("TaskService.deleteSeriesFrom", () -> {
+            String[] error = new String[1];
+            int count;
+            try {
+                // The checks and the delete see the same occurrence
+                count = database.runInTransaction(() -> {
+                    Task task = database.taskDao().getTaskById(taskId);
+                    if (task == null) {
+                        error[0] = "Task not found";
+                    } else if (!task.getUserId().equals(userId)) {
+                        error[0] = "Unauthorized to delete this task";
+                    } else if (task.getSeriesId() == null) {
+                        error[0] = "Task is not part of a recurring series";
+                    } else if (!isSeriesDay(seriesDay(task))) {
+                        error[0] = "Task has no valid start date";
+                    } else {
+                        return database.taskDao().deleteSeriesFrom(task.getSeriesId(), seriesDay(task));
+                    }
+                    return 0;
+                });
+            } catch (Exception e) {
+                callback.onError("Failed to delete recurring task: " + e.getMessage());
+                return;
+            }
+            if (error[0] != null) {
+                callback.onError(error[0]);
+            } else {
+                callback.onSuccess("Deleted " + count + " occurrences");
+            }
+        }));
+    }
+    
+    // The day of an occurrence, the lower bound for edits of "this and all future" occurrences
+    public static String seriesDay(Task task) {
+        String startDate = task.getStartDate();
+        return startDate != null && startDate.length() >= 10 ? startDate.substring(0, 10) : "";
+    }
+    
+    // The series statements compare start_date as text, so the bound has to be a full YYYY-MM-DD
+    static boolean isSeriesDay(String day) {
+        return day != null && day.matches("\\d{4}-\\d{2}-\\d{2}");
+    }
+    
+    // Instance names end in their date, e.g. "Trening (2025-06-30)"; the series name is without it
+    static String seriesBaseName(String name) {
+        return name.replaceFirst(" \\(\\d{4}-\\d{2}-\\d{2}\\)$", "");
+    }
+    
     public String getCurrentUserId() {
         return userPreferences.getCurrentUserId();
     }
@@ -981,6 +1419,60 @@ public class TaskService {
         void onTasksRetrieved(List<Task> tasks);
     }
     
+    public interface SearchCallback {
+        void onSearchResults(String query, int page, List<Task> tasks);
+        void onError(String error);
+    }
+    
+    public interface TaskListIndexCallback {
+        void onTaskListIndexRetrieved(TaskListIndex index);
+        void onError(String error);
+    }
+    
+    public interface MonthIndexCallback {
+        void onMonthIndexRetrieved(MonthTaskIndex index);
+        void onError(String error);
+    }
+    
+    public interface BulkCallback {
+        void onBulkResult(BulkResult result);
+        void onError(String error);
+    }
+    
+    // Outcome of a bulk operation: the ids it applied to, and the reason for each id it skipped
+    public static class BulkResult {
+        private final List<Integer> appliedIds = new ArrayList<>();
+        private final Map<Integer, String> rejected = new LinkedHashMap<>();
+        private int xpEarned;
+        private int oldLevel;
+        private int newLevel;
+        private int ppEarned;
+        
+        public List<Integer> getAppliedIds() {
+            return appliedIds;
+        }
+        
+        public Map<Integer, String> getRejected() {
+            return rejected;
+        }
+        
+        public int getXpEarned() {
+            return xpEarned;
+        }
+        
+        public boolean isLeveledUp() {
+            return newLevel > oldLevel;
+        }
+        
+        public int getNewLevel() {
+            return newLevel;
+        }
+        
+        public int getPpEarned() {
+            return ppEarned;
+        }
+    }
+    
     private interface QuotaValidationCallback {
         void onValidationResult(boolean isValid);
     }
@@ -1022,6 +1514,19 @@ public class TaskService {
         }
     }
     
+    // Datumska pravila za označavanje zadatka kao urađenog; null kada je dozvoljeno
+    private String getCompletionError(Task task) {
+        // Ne može se označiti budući zadatak kao urađen
+        if (!isTaskDateValidForCompletion(task)) {
+            return "Cannot complete future tasks";
+        }
+        // Zadatak se može označiti do 3 dana unazad
+        if (!isWithinCompletionWindow(task)) {
+            return "Task can only be completed within 3 days of its scheduled date";
+        }
+        return null;
+    }
+    
     // Validacija da li je statusna promena dozvoljena
     private boolean isStatusChangeValid(Task task, String newStatus) {
         String currentStatus = task.getStatus();
@@ -0,0 +1,283 @@
+package com.habitrpg.taskmanager.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.entities.Friend;
+import com.habitrpg.taskmanager.data.database.entities.FriendRequest;
+import com.habitrpg.taskmanager.data.database.entities.Guild;
+import com.habitrpg.taskmanager.data.database.entities.GuildInvite;
+import com.habitrpg.taskmanager.data.database.entities.GuildMember;
+import com.habitrpg.taskmanager.data.database.entities.SyncWatermark;
+import com.habitrpg.taskmanager.data.firebase.FirebaseManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Post-login warm-up of the social data that the Friends and Guild screens read from Room.
+ *
+ * All collections are requested from Firestore at once instead of screen by screen, and each
+ * query only asks for documents whose updatedAt is newer than the watermark stored for that
+ * collection, so a returning user downloads just what changed since the last sync.
+ */
+public class WarmUpService {
+
+    private static final String TAG = "WarmUpService";
+
+    private static WarmUpService instance;
+    private final AppDatabase database;
+    private final FirebaseManager firebaseManager;
+    private ExecutorService executor;
+
+    private WarmUpService(Context context) {
+        database = AppDatabase.getDatabase(context);
+        firebaseManager = FirebaseManager.getInstance();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    public static synchronized WarmUpService getInstance(Context context) {
+        if (instance == null) {
+            instance = new WarmUpService(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private void ensureExecutorActive() {
+        if (executor == null || executor.isShutdown()) {
+            executor = Executors.newFixedThreadPool(2);
+        }
+    }
+
+    public void warmUp(String userId, WarmUpCallback callback) {
+        ensureExecutorActive();
+        long startTime = System.currentTimeMillis();
+        // Four top-level collections; an active guild membership adds the guild stage
+        AtomicInteger remaining = new AtomicInteger(4);
+        Runnable onStageDone = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                long elapsed = System.currentTimeMillis() - startTime;
+                Log.i(TAG, "Warm-up finished in " + elapsed + " ms");
+                if (callback != null) {
+                    callback.onWarmUpComplete(elapsed);
+                }
+            }
+        };
+
+        executor.execute(() -> {
+            fetch(userId, "friends", "userId", userId, "friends", this::applyFriends, onStageDone);
+            fetch(userId, "friend_requests", "toUserId", userId, "friend_requests", this::applyFriendRequests, onStageDone);
+            fetch(userId, "guild_invites", "toUserId", userId, "guild_invites", this::applyGuildInvites, onStageDone);
+            fetch(userId, "guild_members", "userId", userId, "guild_members", documents -> {
+                applyGuildMembers(documents);
+                return findActiveGuildId(documents, userId);
+            }, guildId -> {
+                // After the commit: the guild stage is Firestore I/O of its own
+                if (guildId != null) {
+                    remaining.incrementAndGet();
+                    warmUpGuild(userId, guildId, onStageDone);
+                }
+                onStageDone.run();
+            });
+        });
+    }
+
+    // Guild document and roster for the user's current guild, fetched side by side
+    private void warmUpGuild(String userId, String guildId, Runnable onStageDone) {
+        AtomicInteger remaining = new AtomicInteger(2);
+        Runnable onPartDone = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                onStageDone.run();
+            }
+        };
+
+        firebaseManager.getGuildDocument(guildId, new FirebaseManager.GuildListener() {
+            @Override
+            public void onGuildRetrieved(Map<String, Object> guildData) {
+                executor.execute(() -> {
+                    try {
+                        database.guildDao().insertGuild(toGuild(guildId, guildData));
+                    } catch (Exception e) {
+                        Log.w(TAG, "Failed to store guild " + guildId + ": " + e.getMessage());
+                    }
+                    onPartDone.run();
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Failed to fetch guild " + guildId + ": " + error);
+                onPartDone.run();
+            }
+        });
+
+        fetch(userId, "guild_members", "guildId", guildId, "guild_members:" + guildId,
+            this::applyGuildMembers, onPartDone);
+    }
+
+    private void fetch(String userId, String collection, String field, String value, String watermarkKey,
+                       Consumer<List<Map<String, Object>>> applier, Runnable onDone) {
+        fetch(userId, collection, field, value, watermarkKey, documents -> {
+            applier.accept(documents);
+            return null;
+        }, result -> onDone.run());
+    }
+
+    // onApplied runs after the transaction, with the applier's result, or null if nothing was applied
+    private <T> void fetch(String userId, String collection, String field, String value, String watermarkKey,
+                           DocumentsApplier<T> applier, Consumer<T> onApplied) {
+        Long watermark = database.syncWatermarkDao().getWatermark(userId, watermarkKey);
+        long since = watermark != null ? watermark : 0;
+
+        firebaseManager.getChangedDocuments(collection, field, value, since,
+            new FirebaseManager.ChangedDocumentsListener() {
+                @Override
+                public void onDocumentsRetrieved(List<Map<String, Object>> documents, long newestUpdate) {
+                    // Only server timestamps move the watermark: the device clock can be ahead of
+                    // updatedAt and would skip documents for good. Collections without updatedAt
+                    // stay a full fetch until their documents are written again.
+                    long newWatermark = newestUpdate;
+                    executor.execute(() -> {
+                        T result = null;
+                        try {
+                            result = database.runInTransaction(() -> {
+                                T applied = applier.apply(documents);
+                                if (newWatermark > since) {
+                                    database.syncWatermarkDao().insertWatermark(
+                                        new SyncWatermark(userId, watermarkKey, newWatermark));
+                                }
+                                return applied;
+                            });
+                            Log.d(TAG, watermarkKey + ": applied " + documents.size() + " changed documents");
+                        } catch (Exception e) {
+                            Log.w(TAG, "Failed to apply " + watermarkKey + ": " + e.getMessage());
+                        }
+                        onApplied.accept(result);
+                    });
+                }
+
+                @Override
+                public void onError(String error) {
+                    Log.w(TAG, error);
+                    onApplied.accept(null);
+                }
+            });
+    }
+
+    private void applyFriends(List<Map<String, Object>> documents) {
+        for (Map<String, Object> data : documents) {
+            String id = getString(data, "friendshipId");
+            if (id == null) {
+                continue;
+            }
+            Friend friend = new Friend(id, getString(data, "userId"), getString(data, "friendUserId"),
+                getString(data, "friendUsername"), getString(data, "friendEmail"),
+                (int) getLong(data, "friendAvatarId"), getString(data, "status"), getLong(data, "createdAt"));
+            database.friendDao().insertFriend(friend);
+        }
+    }
+
+    private void applyFriendRequests(List<Map<String, Object>> documents) {
+        for (Map<String, Object> data : documents) {
+            String id = getString(data, "requestId");
+            if (id == null) {
+                continue;
+            }
+            FriendRequest request = new FriendRequest(id, getString(data, "fromUserId"),
+                getString(data, "toUserId"), getString(data, "fromUsername"), getString(data, "fromEmail"),
+                (int) getLong(data, "fromAvatarId"), getString(data, "status"), getLong(data, "createdAt"));
+            database.friendDao().insertFriendRequest(request);
+        }
+    }
+
+    private void applyGuildInvites(List<Map<String, Object>> documents) {
+        for (Map<String, Object> data : documents) {
+            String id = getString(data, "inviteId");
+            if (id == null) {
+                continue;
+            }
+            GuildInvite invite = new GuildInvite(id, getString(data, "guildId"), getString(data, "guildName"),
+                getString(data, "fromUserId"), getString(data, "fromUsername"),
+                getString(data, "toUserId"), getString(data, "toUsername"));
+            if (getString(data, "status") != null) {
+                invite.setStatus(getString(data, "status"));
+            }
+            invite.setCreatedAt(getLong(data, "createdAt"));
+            invite.setRespondedAt(getLong(data, "respondedAt"));
+            database.guildDao().insertGuildInvite(invite);
+        }
+    }
+
+    private void applyGuildMembers(List<Map<String, Object>> documents) {
+        for (Map<String, Object> data : documents) {
+            String id = getString(data, "memberId");
+            if (id == null) {
+                continue;
+            }
+            GuildMember member = new GuildMember(id, getString(data, "guildId"), getString(data, "userId"),
+                getString(data, "username"), getString(data, "email"),
+                String.valueOf(getLong(data, "avatarId")), getBoolean(data, "isLeader", false));
+            member.setJoinedAt(getLong(data, "joinedAt"));
+            member.setActive(getBoolean(data, "isActive", true));
+            database.guildDao().insertGuildMember(member);
+        }
+    }
+
+    private String findActiveGuildId(List<Map<String, Object>> documents, String userId) {
+        for (Map<String, Object> data : documents) {
+            if (getBoolean(data, "isActive", true) && getString(data, "guildId") != null) {
+                return getString(data, "guildId");
+            }
+        }
+        // Nothing changed remotely; fall back to the membership already in Room
+        GuildMember membership = database.guildDao().getGuildMemberByUserId(userId);
+        return membership != null ? membership.getGuildId() : null;
+    }
+
+    private Guild toGuild(String guildId, Map<String, Object> data) {
+        Guild guild = new Guild(guildId, getString(data, "guildName"), getString(data, "description"),
+            getString(data, "leaderId"), getString(data, "leaderUsername"), (int) getLong(data, "maxMembers"));
+        guild.setCreatedAt(getLong(data, "createdAt"));
+        guild.setActive(getBoolean(data, "isActive", true));
+        guild.setMissionStarted(getBoolean(data, "missionStarted", false));
+        guild.setCurrentMembers((int) getLong(data, "memberCount"));
+        return guild;
+    }
+
+    private static String getString(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static long getLong(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return 0;
+    }
+
+    private static boolean getBoolean(Map<String, Object> data, String key, boolean defaultValue) {
+        Object value = data.get(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    private interface DocumentsApplier<T> {
+        T apply(List<Map<String, Object>> documents);
+    }
+
+    public interface WarmUpCallback {
+        void onWarmUpComplete(long elapsedMs);
+    }
+}
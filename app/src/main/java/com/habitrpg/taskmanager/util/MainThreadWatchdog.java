@@ -0,0 +1,282 @@
+package com.habitrpg.taskmanager.util;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Detects main thread stalls by posting a ping to the main Looper and checking, one threshold
+ * later, whether it ran.
+ *
+ * On a missed ping the main thread's stack is captured and recorded, keyed by its top frames so
+ * that a stall that repeats is one entry with a count. The entries are kept in a small ring
+ * buffer file in the app's files directory, oldest dropped first, for later upload or
+ * inspection. The watchdog only pings while an activity is started, and ignores stalls while a
+ * debugger is attached.
+ */
+public final class MainThreadWatchdog {
+
+    private static final String TAG = "MainThreadWatchdog";
+    private static final String FILE_NAME = "main_thread_stalls.json";
+
+    public static final long DEFAULT_THRESHOLD_MS = 1000;
+    private static final long POLL_MS = 100;
+    private static final int SIGNATURE_FRAMES = 5;
+    private static final int MAX_STACK_FRAMES = 40;
+    private static final int MAX_ENTRIES = 32;
+
+    private static volatile MainThreadWatchdog INSTANCE;
+
+    private final Application application;
+    private final File file;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Keyed by signature; insertion order is recency, oldest first
+    private final LinkedHashMap<String, JSONObject> stalls = new LinkedHashMap<>();
+    private final Object activityLock = new Object();
+
+    private int startedActivities;
+    private Thread thread;
+    private volatile long thresholdMs = DEFAULT_THRESHOLD_MS;
+    private volatile int acknowledgedPing;
+
+    private MainThreadWatchdog(Application application) {
+        this.application = application;
+        this.file = new File(application.getFilesDir(), FILE_NAME);
+    }
+
+    public static MainThreadWatchdog getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (MainThreadWatchdog.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MainThreadWatchdog((Application) context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public synchronized void start(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+        if (thread != null) {
+            return;
+        }
+        application.registerActivityLifecycleCallbacks(new StartedActivityCounter());
+        thread = new Thread(this::watch, TAG);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public File getStallFile() {
+        return file;
+    }
+
+    // A copy, newest entry last
+    public JSONArray getStalls() {
+        synchronized (stalls) {
+            try {
+                return new JSONArray(toJson().toString());
+            } catch (JSONException e) {
+                return new JSONArray();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (stalls) {
+            stalls.clear();
+            writeFile();
+        }
+    }
+
+    private void watch() {
+        readFile();
+        int ping = 0;
+        try {
+            while (true) {
+                synchronized (activityLock) {
+                    while (startedActivities == 0) {
+                        activityLock.wait();
+                    }
+                }
+
+                final int sent = ++ping;
+                mainHandler.post(() -> acknowledgedPing = sent);
+                Thread.sleep(thresholdMs);
+                if (acknowledgedPing == sent) {
+                    continue;
+                }
+
+                StackTraceElement[] stack = Looper.getMainLooper().getThread().getStackTrace();
+                boolean debugging = Debug.isDebuggerConnected();
+                String signature = debugging ? null : record(stack);
+
+                // Wait out the stall so that it is recorded once, with its full length
+                long stalledMs = thresholdMs;
+                while (acknowledgedPing != sent) {
+                    Thread.sleep(POLL_MS);
+                    stalledMs += POLL_MS;
+                }
+                if (signature != null) {
+                    updateDuration(signature, stalledMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Log.w(TAG, "Watchdog stopped", e);
+        }
+    }
+
+    private String record(StackTraceElement[] stack) {
+        StringBuilder signature = new StringBuilder();
+        for (int i = 0; i < Math.min(SIGNATURE_FRAMES, stack.length); i++) {
+            signature.append(stack[i]).append('\n');
+        }
+        String key = signature.toString();
+        long now = System.currentTimeMillis();
+        Metrics.increment("main_thread.stalls");
+        Log.w(TAG, "Main thread stalled for over " + thresholdMs + " ms at\n" + key);
+
+        synchronized (stalls) {
+            try {
+                // Re-inserting moves the entry to the newest end
+                JSONObject entry = stalls.remove(key);
+                if (entry == null) {
+                    entry = new JSONObject();
+                    entry.put("signature", key);
+                    entry.put("count", 0);
+                    entry.put("first_seen", now);
+                    entry.put("max_stall_ms", 0);
+                    JSONArray frames = new JSONArray();
+                    for (int i = 0; i < Math.min(MAX_STACK_FRAMES, stack.length); i++) {
+                        frames.put(stack[i].toString());
+                    }
+                    entry.put("stack", frames);
+                }
+                entry.put("count", entry.getInt("count") + 1);
+                entry.put("last_seen", now);
+                entry.put("last_stall_ms", thresholdMs);
+                stalls.put(key, entry);
+
+                Iterator<String> oldest = stalls.keySet().iterator();
+                while (stalls.size() > MAX_ENTRIES) {
+                    oldest.next();
+                    oldest.remove();
+                }
+            } catch (JSONException e) {
+                Log.e(TAG, "Failed to record stall", e);
+            }
+            writeFile();
+        }
+        return key;
+    }
+
+    private void updateDuration(String signature, long stalledMs) {
+        synchronized (stalls) {
+            JSONObject entry = stalls.get(signature);
+            if (entry == null) {
+                return;
+            }
+            try {
+                entry.put("last_stall_ms", stalledMs);
+                entry.put("max_stall_ms", Math.max(entry.optLong("max_stall_ms"), stalledMs));
+            } catch (JSONException e) {
+                Log.e(TAG, "Failed to update stall", e);
+            }
+            writeFile();
+        }
+    }
+
+    // Callers hold the stalls lock
+    private JSONArray toJson() {
+        JSONArray entries = new JSONArray();
+        for (JSONObject entry : stalls.values()) {
+            entries.put(entry);
+        }
+        return entries;
+    }
+
+    // Callers hold the stalls lock
+    private void writeFile() {
+        JSONArray entries = toJson();
+        // Written to a temporary file and renamed, so a crash mid-write keeps the old buffer
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(entries.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write " + FILE_NAME, e);
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "Failed to replace " + FILE_NAME);
+        }
+    }
+
+    private void readFile() {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            JSONArray entries = new JSONArray(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            synchronized (stalls) {
+                for (int i = 0; i < entries.length(); i++) {
+                    JSONObject entry = entries.getJSONObject(i);
+                    stalls.put(entry.getString("signature"), entry);
+                }
+            }
+        } catch (IOException | JSONException e) {
+            Log.e(TAG, "Discarding unreadable " + FILE_NAME, e);
+        }
+    }
+
+    private class StartedActivityCounter implements Application.ActivityLifecycleCallbacks {
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+            synchronized (activityLock) {
+                startedActivities++;
+                activityLock.notifyAll();
+            }
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+            synchronized (activityLock) {
+                startedActivities--;
+            }
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {}
+    }
+}
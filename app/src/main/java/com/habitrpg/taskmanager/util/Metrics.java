@@ -0,0 +1,146 @@
+package com.habitrpg.taskmanager.util;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and latency histograms for repository calls and Firestore requests.
+ *
+ * Recording is lock-free. When metrics are disabled (the default outside debuggable builds)
+ * {@link #timed} returns the task unchanged and the Firestore hook is a shared no-op listener,
+ * so instrumented call sites cost one volatile read.
+ */
+public final class Metrics {
+
+    private static final String TAG = "Metrics";
+
+    private static final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final OnCompleteListener<Object> NO_OP = task -> { };
+
+    private static volatile boolean enabled;
+
+    private Metrics() {
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void increment(String name) {
+        if (enabled) {
+            counter(name).increment();
+        }
+    }
+
+    public static void recordMicros(String name, long micros) {
+        if (enabled) {
+            histogram(name).record(micros);
+        }
+    }
+
+    // Wraps a repository task so the time from submission to completion is recorded under name
+    public static Runnable timed(String name, Runnable task) {
+        if (!enabled) {
+            return task;
+        }
+        long submitted = SystemClock.elapsedRealtimeNanos();
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                histogram(name).record((SystemClock.elapsedRealtimeNanos() - submitted) / 1000);
+            }
+        };
+    }
+
+    // Listener for a Firestore Task that records its latency, and counts failures, under name
+    @SuppressWarnings("unchecked")
+    public static <T> OnCompleteListener<T> firestore(String name) {
+        if (!enabled) {
+            return (OnCompleteListener<T>) (Object) NO_OP;
+        }
+        long started = SystemClock.elapsedRealtimeNanos();
+        return task -> {
+            histogram("firestore." + name).record((SystemClock.elapsedRealtimeNanos() - started) / 1000);
+            if (!task.isSuccessful()) {
+                counter("firestore." + name + ".errors").increment();
+            }
+        };
+    }
+
+    // Latencies are in microseconds; names are sorted
+    public static JSONObject toJson() {
+        JSONObject root = new JSONObject();
+        try {
+            JSONObject counterJson = new JSONObject();
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+                counterJson.put(entry.getKey(), entry.getValue().sum());
+            }
+
+            JSONObject histogramJson = new JSONObject();
+            for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                JSONObject stats = new JSONObject();
+                stats.put("count", histogram.getCount());
+                stats.put("mean_us", histogram.getMean());
+                stats.put("p50_us", histogram.getPercentile(50));
+                stats.put("p90_us", histogram.getPercentile(90));
+                stats.put("p99_us", histogram.getPercentile(99));
+                stats.put("max_us", histogram.getMax());
+                histogramJson.put(entry.getKey(), stats);
+            }
+
+            root.put("enabled", enabled);
+            root.put("counters", counterJson);
+            root.put("latencies", histogramJson);
+        } catch (JSONException e) {
+            Log.e(TAG, "Failed to build metrics JSON", e);
+        }
+        return root;
+    }
+
+    public static void dumpToLog() {
+        // Logcat truncates long lines, so log one histogram per line
+        JSONObject json = toJson();
+        Log.i(TAG, "counters " + json.optJSONObject("counters"));
+        JSONObject latencies = json.optJSONObject("latencies");
+        if (latencies != null) {
+            Iterator<String> names = latencies.keys();
+            while (names.hasNext()) {
+                String name = names.next();
+                Log.i(TAG, name + " " + latencies.optJSONObject(name));
+            }
+        }
+    }
+
+    public static void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    private static LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    private static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+}
@@ -0,0 +1,127 @@
+package com.habitrpg.taskmanager.util;
+
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Tasks of one calendar month bucketed by day-of-month, with per-day status counts. Built once
+// per month off the main thread so that selecting a day is a plain array lookup.
+public final class MonthTaskIndex {
+
+    public static final String[] STATUSES = {"active", "completed", "incomplete", "paused", "cancelled"};
+
+    private final int year;
+    private final int month; // Calendar.MONTH, 0-based
+    private final List<Task>[] tasksByDay;
+    private final int[] statusCounts; // [(day - 1) * STATUSES.length + status]
+
+    @SuppressWarnings("unchecked")
+    private MonthTaskIndex(int year, int month, int daysInMonth) {
+        this.year = year;
+        this.month = month;
+        this.tasksByDay = new List[daysInMonth];
+        this.statusCounts = new int[daysInMonth * STATUSES.length];
+    }
+
+    // Tasks must all start in this month, as returned by the month range query
+    public static MonthTaskIndex build(int year, int month, List<Task> tasks) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, 1);
+        MonthTaskIndex index = new MonthTaskIndex(year, month, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
+
+        for (Task task : tasks) {
+            int day = dayOfMonth(task.getStartDate());
+            if (day < 1 || day > index.tasksByDay.length) {
+                continue;
+            }
+            if (index.tasksByDay[day - 1] == null) {
+                index.tasksByDay[day - 1] = new ArrayList<>();
+            }
+            index.tasksByDay[day - 1].add(task);
+
+            int status = statusIndex(task.getStatus());
+            if (status >= 0) {
+                index.statusCounts[(day - 1) * STATUSES.length + status]++;
+            }
+        }
+
+        Comparator<Task> byTime = Comparator.comparing(MonthTaskIndex::timeOf);
+        for (int i = 0; i < index.tasksByDay.length; i++) {
+            if (index.tasksByDay[i] != null) {
+                Collections.sort(index.tasksByDay[i], byTime);
+                index.tasksByDay[i] = Collections.unmodifiableList(index.tasksByDay[i]);
+            }
+        }
+        return index;
+    }
+
+    // Inclusive start and exclusive end of the month, comparable with start_date strings
+    public static String[] dateRange(int year, int month) {
+        int nextYear = month == Calendar.DECEMBER ? year + 1 : year;
+        int nextMonth = month == Calendar.DECEMBER ? Calendar.JANUARY : month + 1;
+        return new String[] {
+            String.format(Locale.US, "%04d-%02d-01", year, month + 1),
+            String.format(Locale.US, "%04d-%02d-01", nextYear, nextMonth + 1)
+        };
+    }
+
+    public static String key(int year, int month) {
+        return String.format(Locale.US, "%04d-%02d", year, month + 1);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public List<Task> getTasksForDay(int dayOfMonth) {
+        if (dayOfMonth < 1 || dayOfMonth > tasksByDay.length || tasksByDay[dayOfMonth - 1] == null) {
+            return Collections.emptyList();
+        }
+        return tasksByDay[dayOfMonth - 1];
+    }
+
+    public int getStatusCount(int dayOfMonth, String status) {
+        int statusIndex = statusIndex(status);
+        if (dayOfMonth < 1 || dayOfMonth > tasksByDay.length || statusIndex < 0) {
+            return 0;
+        }
+        return statusCounts[(dayOfMonth - 1) * STATUSES.length + statusIndex];
+    }
+
+    private static int dayOfMonth(String startDate) {
+        // start_date is "yyyy-MM-dd HH:mm" or "yyyy-MM-dd"
+        if (startDate == null || startDate.length() < 10) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(startDate.substring(8, 10));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Tasks without a time go last, as the calendar agenda always showed them
+    private static String timeOf(Task task) {
+        String startDate = task.getStartDate();
+        return startDate != null && startDate.length() > 11 ? startDate.substring(11) : "23:59";
+    }
+
+    private static int statusIndex(String status) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,34 +2,224 @@ package com.habitrpg.taskmanager.util;
 
 import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
 public class QRCodeGenerator {
-    
+
+    private static final int CACHE_SIZE_BYTES = 2 * 1024 * 1024;
+
+    // Friend payload v1: "TM1:" + Base45(UTF-8 user ID + 16-bit CRC). Every character is in the
+    // QR alphanumeric set, so the code stays small enough for a low version at error level L.
+    private static final String USER_PAYLOAD_PREFIX = "TM1:";
+    private static final String LEGACY_USER_PAYLOAD_PREFIX = "TaskManager:";
+    private static final String BASE45_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+    private static final int CHECKSUM_BYTES = 2;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static LruCache<String, Bitmap> bitmapCache;
+    private static Handler mainHandler;
+
     public static Bitmap generateQRCode(String data, int width, int height) {
-        QRCodeWriter writer = new QRCodeWriter();
+        String key = cacheKey(data, width, height);
+        Bitmap cached = getBitmapCache().get(key);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            BitMatrix bitMatrix = writer.encode(data, BarcodeFormat.QR_CODE, width, height);
+            int[] pixels = renderPixels(encodeModules(data), width, height);
             Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
-            
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
-                }
-            }
-            
+            bitmap.setPixels(pixels, 0, width, 0, 0, width, height);
+            getBitmapCache().put(key, bitmap);
             return bitmap;
         } catch (WriterException e) {
             e.printStackTrace();
             return null;
         }
     }
-    
-    public static String generateUserQRData(String userId, String username, String email) {
-        return String.format("TaskManager:%s:%s:%s", userId, username, email);
+
+    // Encodes and renders on a background thread; the listener is called on the main thread
+    public static void generateQRCodeAsync(String data, int width, int height, OnQRCodeGeneratedListener listener) {
+        Bitmap cached = getBitmapCache().get(cacheKey(data, width, height));
+        if (cached != null) {
+            listener.onQRCodeGenerated(cached);
+            return;
+        }
+
+        executor.execute(() -> {
+            Bitmap bitmap = generateQRCode(data, width, height);
+            getMainHandler().post(() -> listener.onQRCodeGenerated(bitmap));
+        });
+    }
+
+    // One bit per module, including the quiet zone; scaling happens in renderPixels
+    static BitMatrix encodeModules(String data) throws WriterException {
+        return new QRCodeWriter().encode(data, BarcodeFormat.QR_CODE, 0, 0);
     }
-}
 
+    // Scales the module grid to width x height the same way ZXing does (integer multiple,
+    // centred), building each module row once and copying it for the rows below
+    static int[] renderPixels(BitMatrix modules, int width, int height) {
+        int moduleWidth = modules.getWidth();
+        int moduleHeight = modules.getHeight();
+        int multiple = Math.max(1, Math.min(width / moduleWidth, height / moduleHeight));
+        int leftPadding = Math.max(0, (width - moduleWidth * multiple) / 2);
+        int topPadding = Math.max(0, (height - moduleHeight * multiple) / 2);
+
+        int[] pixels = new int[width * height];
+        Arrays.fill(pixels, Color.WHITE);
+
+        for (int moduleY = 0; moduleY < moduleHeight; moduleY++) {
+            int rowStart = (topPadding + moduleY * multiple) * width;
+            if (rowStart >= pixels.length) {
+                break;
+            }
+            for (int moduleX = 0; moduleX < moduleWidth; moduleX++) {
+                if (modules.get(moduleX, moduleY)) {
+                    int start = leftPadding + moduleX * multiple;
+                    int end = Math.min(start + multiple, width);
+                    if (start < end) {
+                        Arrays.fill(pixels, rowStart + start, rowStart + end, Color.BLACK);
+                    }
+                }
+            }
+            for (int i = 1; i < multiple && rowStart + i * width < pixels.length; i++) {
+                System.arraycopy(pixels, rowStart, pixels, rowStart + i * width, width);
+            }
+        }
+
+        return pixels;
+    }
+
+    private static String cacheKey(String data, int width, int height) {
+        return width + "x" + height + ":" + data;
+    }
+
+    private static synchronized LruCache<String, Bitmap> getBitmapCache() {
+        if (bitmapCache == null) {
+            bitmapCache = new LruCache<String, Bitmap>(CACHE_SIZE_BYTES) {
+                @Override
+                protected int sizeOf(String key, Bitmap bitmap) {
+                    return bitmap.getByteCount();
+                }
+            };
+        }
+        return bitmapCache;
+    }
+
+    private static synchronized Handler getMainHandler() {
+        if (mainHandler == null) {
+            mainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mainHandler;
+    }
+
+    public static String generateUserQRData(String userId) {
+        byte[] id = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = Arrays.copyOf(id, id.length + CHECKSUM_BYTES);
+        int checksum = checksum(id);
+        payload[id.length] = (byte) (checksum >> 8);
+        payload[id.length + 1] = (byte) checksum;
+        return USER_PAYLOAD_PREFIX + encodeBase45(payload);
+    }
+
+    // Returns the user ID from a friend QR code, or null if the code is not a valid payload.
+    // Codes printed before v1 ("TaskManager:<uid>:<username>:<email>") are still accepted.
+    public static String parseUserQRData(String qrData) {
+        if (qrData == null) {
+            return null;
+        }
+
+        if (qrData.startsWith(USER_PAYLOAD_PREFIX)) {
+            byte[] payload = decodeBase45(qrData.substring(USER_PAYLOAD_PREFIX.length()));
+            if (payload == null || payload.length <= CHECKSUM_BYTES) {
+                return null;
+            }
+            byte[] id = Arrays.copyOf(payload, payload.length - CHECKSUM_BYTES);
+            int expected = ((payload[id.length] & 0xFF) << 8) | (payload[id.length + 1] & 0xFF);
+            return checksum(id) == expected ? new String(id, StandardCharsets.UTF_8) : null;
+        }
+
+        if (qrData.startsWith(LEGACY_USER_PAYLOAD_PREFIX)) {
+            String[] qrParts = qrData.split(":");
+            return qrParts.length == 4 && !qrParts[1].isEmpty() ? qrParts[1] : null;
+        }
+
+        return null;
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) (crc.getValue() & 0xFFFF);
+    }
+
+    // RFC 9285: two bytes become three characters, a trailing byte becomes two
+    static String encodeBase45(byte[] data) {
+        StringBuilder builder = new StringBuilder((data.length + 1) / 2 * 3);
+        for (int i = 0; i < data.length; i += 2) {
+            if (i + 1 < data.length) {
+                int value = ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
+                builder.append(BASE45_ALPHABET.charAt(value % 45));
+                builder.append(BASE45_ALPHABET.charAt(value / 45 % 45));
+                builder.append(BASE45_ALPHABET.charAt(value / 2025));
+            } else {
+                int value = data[i] & 0xFF;
+                builder.append(BASE45_ALPHABET.charAt(value % 45));
+                builder.append(BASE45_ALPHABET.charAt(value / 45));
+            }
+        }
+        return builder.toString();
+    }
+
+    static byte[] decodeBase45(String text) {
+        if (text.length() % 3 == 1) {
+            return null;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream(text.length() / 3 * 2 + 1);
+        for (int i = 0; i < text.length(); i += 3) {
+            int c = BASE45_ALPHABET.indexOf(text.charAt(i));
+            int d = BASE45_ALPHABET.indexOf(text.charAt(i + 1));
+            if (c < 0 || d < 0) {
+                return null;
+            }
+            if (i + 2 < text.length()) {
+                int e = BASE45_ALPHABET.indexOf(text.charAt(i + 2));
+                if (e < 0) {
+                    return null;
+                }
+                int value = c + d * 45 + e * 2025;
+                if (value > 0xFFFF) {
+                    return null;
+                }
+                output.write(value >> 8);
+                output.write(value & 0xFF);
+            } else {
+                int value = c + d * 45;
+                if (value > 0xFF) {
+                    return null;
+                }
+                output.write(value);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    public interface OnQRCodeGeneratedListener {
+        void onQRCodeGenerated(Bitmap bitmap);
+    }
+}
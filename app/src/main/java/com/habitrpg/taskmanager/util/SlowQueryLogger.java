@@ -0,0 +1,155 @@
+package com.habitrpg.taskmanager.util;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-statement SQL statistics fed by {@link TimingOpenHelperFactory}, which times the
+ * statement's execution in SQLite: compiled statements until they return, queries until their
+ * cursor is closed, counting only the calls that fill the cursor window. Time the caller spends
+ * mapping rows or idling between statements is not charged to any statement.
+ *
+ * Statements slower than the threshold are logged with their bind arguments, and a top-N
+ * report by total time is logged periodically. Opt-in: debuggable builds enable it, other
+ * builds with "adb shell setprop debug.habitrpg.sqllog 1". The factory is only installed when
+ * enabled before the database is built.
+ */
+public final class SlowQueryLogger {
+
+    private static final String TAG = "SlowQuery";
+    private static final String RUNTIME_FLAG = "debug.habitrpg.sqllog";
+
+    public static final long DEFAULT_THRESHOLD_MS = 50;
+    private static final long REPORT_INTERVAL_MINUTES = 5;
+    private static final int REPORT_TOP_N = 10;
+    private static final int MAX_ARG_LENGTH = 64;
+
+    private static final ConcurrentHashMap<String, TemplateStats> templates = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+    private static volatile long thresholdMicros = DEFAULT_THRESHOLD_MS * 1000;
+    private static ScheduledExecutorService reporter;
+
+    private SlowQueryLogger() {
+    }
+
+    public static synchronized void setEnabled(boolean value) {
+        enabled = value;
+        if (value && reporter == null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SlowQueryReport");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleWithFixedDelay(SlowQueryLogger::logReport,
+                REPORT_INTERVAL_MINUTES, REPORT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static boolean isRuntimeFlagSet() {
+        return Tracing.isSystemFlagSet(RUNTIME_FLAG);
+    }
+
+    public static void setThresholdMillis(long millis) {
+        thresholdMicros = millis * 1000;
+    }
+
+    // Called by TimingOpenHelperFactory on the thread that ran the statement
+    static void record(String sql, Object[] bindArgs, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        String template = normalize(sql);
+        TemplateStats stats = stats(template);
+        long micros = nanos / 1000;
+        stats.executions.increment();
+        stats.totalMicros.add(micros);
+        stats.maxMicros.accumulateAndGet(micros, Math::max);
+        if (micros >= thresholdMicros) {
+            Log.w(TAG, String.format(Locale.US, "%.1f ms: %s args=%s",
+                micros / 1000.0, template, formatArgs(bindArgs)));
+        }
+    }
+
+    // The slowest templates by total time, one per line
+    public static String report(int topN) {
+        List<Map.Entry<String, TemplateStats>> entries = new ArrayList<>(templates.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().totalMicros.sum(), a.getValue().totalMicros.sum()));
+
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < Math.min(topN, entries.size()); i++) {
+            TemplateStats stats = entries.get(i).getValue();
+            long executions = stats.executions.sum();
+            long total = stats.totalMicros.sum();
+            report.append(String.format(Locale.US, "%d. total %.1f ms, %d runs, mean %.2f ms, max %.2f ms: %s%n",
+                i + 1, total / 1000.0, executions,
+                executions > 0 ? total / 1000.0 / executions : 0.0, stats.maxMicros.get() / 1000.0,
+                entries.get(i).getKey()));
+        }
+        return report.toString();
+    }
+
+    public static void logReport() {
+        if (templates.isEmpty()) {
+            return;
+        }
+        // Logcat truncates long lines, so log one template per line
+        Log.i(TAG, "Top " + REPORT_TOP_N + " statements by total time");
+        for (String line : report(REPORT_TOP_N).split("\n")) {
+            Log.i(TAG, line);
+        }
+    }
+
+    public static void reset() {
+        templates.clear();
+    }
+
+    private static String normalize(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String formatArgs(Object[] args) {
+        if (args == null) {
+            return "[]";
+        }
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            Object arg = args[i];
+            if (arg instanceof byte[]) {
+                formatted.append("<blob ").append(((byte[]) arg).length).append(" bytes>");
+            } else {
+                String value = String.valueOf(arg);
+                formatted.append(value.length() > MAX_ARG_LENGTH ? value.substring(0, MAX_ARG_LENGTH) + "..." : value);
+            }
+        }
+        return formatted.append(']').toString();
+    }
+
+    private static TemplateStats stats(String template) {
+        TemplateStats stats = templates.get(template);
+        return stats != null ? stats : templates.computeIfAbsent(template, key -> new TemplateStats());
+    }
+
+    private static final class TemplateStats {
+        final LongAdder executions = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final AtomicLong maxMicros = new AtomicLong();
+    }
+}
@@ -0,0 +1,72 @@
+package com.habitrpg.taskmanager.util;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Cold-start phases, timestamped in milliseconds since the process started. The summary is logged
+// once under the "Startup" tag so start-up time can be compared release over release.
+public final class StartupTimeline {
+
+    private static final String TAG = "Startup";
+
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> times = new ArrayList<>();
+    private static boolean reported;
+
+    private StartupTimeline() {
+    }
+
+    public static synchronized void mark(String phase) {
+        if (reported) {
+            return;
+        }
+        long sinceStart = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        phases.add(phase);
+        times.add(sinceStart);
+        Log.d(TAG, phase + " at " + sinceStart + " ms");
+    }
+
+    // Logs every phase on one line; later marks are ignored
+    public static synchronized void report() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        StringBuilder summary = new StringBuilder("Cold start:");
+        for (int i = 0; i < phases.size(); i++) {
+            summary.append(' ').append(phases.get(i)).append('=').append(times.get(i)).append("ms");
+        }
+        Log.i(TAG, summary.toString());
+    }
+
+    // Runs action on the main thread once the activity has drawn its first frame
+    public static void afterFirstDraw(Activity activity, Runnable action) {
+        View decorView = activity.getWindow().getDecorView();
+        Handler handler = new Handler(Looper.getMainLooper());
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (drawn) {
+                    return;
+                }
+                drawn = true;
+                // Listeners cannot be removed during dispatch, and the frame is not on screen yet
+                handler.post(() -> {
+                    decorView.getViewTreeObserver().removeOnDrawListener(this);
+                    action.run();
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.habitrpg.taskmanager.util;
+
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guard against SQL on the main thread, checked for every statement Room runs.
+ *
+ * Room's own check only covers generated DAO methods and transactions; statements issued through
+ * the open helper, and DAO calls with allowMainThreadQueries, pass it. This guard sees every
+ * statement through the database's query callback, so the mode must be set before the database
+ * is built. LOG writes one stack trace per statement template, THROW fails the call with an
+ * IllegalStateException. Debuggable builds use LOG; tests and
+ * "adb shell setprop debug.habitrpg.strictdb 1" use THROW.
+ */
+public final class StrictDatabaseMode {
+
+    public enum Mode { OFF, LOG, THROW }
+
+    private static final String TAG = "StrictDatabaseMode";
+    private static final String RUNTIME_FLAG = "debug.habitrpg.strictdb";
+
+    private static final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    private static volatile Mode mode = Mode.OFF;
+
+    private StrictDatabaseMode() {
+    }
+
+    public static void setMode(Mode value) {
+        mode = value;
+        reported.clear();
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static boolean isActive() {
+        return mode != Mode.OFF;
+    }
+
+    public static boolean isRuntimeFlagSet() {
+        return Tracing.isSystemFlagSet(RUNTIME_FLAG);
+    }
+
+    // Called on the querying thread before each statement
+    public static void check(String sql) {
+        Mode current = mode;
+        if (current == Mode.OFF || Looper.myLooper() != Looper.getMainLooper()) {
+            return;
+        }
+        IllegalStateException violation = new IllegalStateException("Database access on the main thread: " + sql);
+        if (current == Mode.THROW) {
+            throw violation;
+        }
+        Metrics.increment("db.main_thread_access");
+        if (reported.add(sql)) {
+            Log.w(TAG, violation.getMessage(), violation);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.habitrpg.taskmanager.util;
+
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The task list screen's tasks partitioned once per load, off the main thread, into the buckets
+// its filter tabs show. Switching tabs just picks a prebuilt list.
+public final class TaskListIndex {
+
+    public static final String FILTER_ALL = "all";
+    public static final String FILTER_SINGLE = "single";
+    public static final String FILTER_RECURRING = "recurring";
+
+    public static final TaskListIndex EMPTY = new TaskListIndex(
+        Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+    private final List<Task> all;
+    private final List<Task> single;
+    private final List<Task> recurring;
+
+    private TaskListIndex(List<Task> all, List<Task> single, List<Task> recurring) {
+        this.all = all;
+        this.single = single;
+        this.recurring = recurring;
+    }
+
+    // today is "yyyy-MM-dd"; tasks dated today or later are listed along with every active or
+    // paused task, whatever its date
+    public static TaskListIndex build(List<Task> tasks, String today) {
+        List<Task> all = new ArrayList<>();
+        List<Task> single = new ArrayList<>();
+        List<Task> recurring = new ArrayList<>();
+
+        for (Task task : tasks) {
+            String status = task.getStatus();
+            boolean paused = "paused".equals(status);
+            boolean listed = paused || (task.getStartDate() != null
+                && ("active".equals(status) || task.getStartDate().compareTo(today) >= 0));
+            if (!listed) {
+                continue;
+            }
+
+            all.add(task);
+            if (task.isRecurring()) {
+                recurring.add(task);
+            } else {
+                single.add(task);
+            }
+        }
+
+        return new TaskListIndex(Collections.unmodifiableList(all),
+            Collections.unmodifiableList(single), Collections.unmodifiableList(recurring));
+    }
+
+    public List<Task> getTasks(String filter) {
+        switch (filter) {
+            case FILTER_SINGLE:
+                return single;
+            case FILTER_RECURRING:
+                return recurring;
+            case FILTER_ALL:
+            default:
+                return all;
+        }
+    }
+}
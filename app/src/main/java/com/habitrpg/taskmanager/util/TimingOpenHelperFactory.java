@@ -0,0 +1,592 @@
+package com.habitrpg.taskmanager.util;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteTransactionListener;
+import android.os.CancellationSignal;
+import android.os.SystemClock;
+import android.util.Pair;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Open helper factory that times what SQLite actually executes and reports it to
+ * {@link SlowQueryLogger}: compiled statements from execute to return, queries from the query
+ * call through every cursor move that can fill the cursor window, until the cursor is closed.
+ * Time the caller spends between cursor moves, e.g. mapping rows, is not counted.
+ */
+public class TimingOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+
+    private static final String COMMIT = "COMMIT";
+
+    private final SupportSQLiteOpenHelper.Factory delegate;
+
+    public TimingOpenHelperFactory(SupportSQLiteOpenHelper.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public SupportSQLiteOpenHelper create(SupportSQLiteOpenHelper.Configuration configuration) {
+        return new TimingOpenHelper(delegate.create(configuration));
+    }
+
+    private static final class TimingOpenHelper implements SupportSQLiteOpenHelper {
+        private final SupportSQLiteOpenHelper delegate;
+        private TimingDatabase database;
+
+        TimingOpenHelper(SupportSQLiteOpenHelper delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getDatabaseName() {
+            return delegate.getDatabaseName();
+        }
+
+        @Override
+        public void setWriteAheadLoggingEnabled(boolean enabled) {
+            delegate.setWriteAheadLoggingEnabled(enabled);
+        }
+
+        @Override
+        public SupportSQLiteDatabase getWritableDatabase() {
+            return wrap(delegate.getWritableDatabase());
+        }
+
+        @Override
+        public SupportSQLiteDatabase getReadableDatabase() {
+            return wrap(delegate.getReadableDatabase());
+        }
+
+        // Room asks for the database on every transaction; the helper returns the same one
+        private synchronized SupportSQLiteDatabase wrap(SupportSQLiteDatabase db) {
+            if (database == null || database.delegate != db) {
+                database = new TimingDatabase(db);
+            }
+            return database;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    private static final class TimingDatabase implements SupportSQLiteDatabase {
+        private final SupportSQLiteDatabase delegate;
+
+        TimingDatabase(SupportSQLiteDatabase delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public SupportSQLiteStatement compileStatement(String sql) {
+            return new TimingStatement(delegate.compileStatement(sql), sql);
+        }
+
+        @Override
+        public Cursor query(String query) {
+            long started = SystemClock.elapsedRealtimeNanos();
+            return new TimingCursor(delegate.query(query), query, null, started);
+        }
+
+        @Override
+        public Cursor query(String query, Object[] bindArgs) {
+            long started = SystemClock.elapsedRealtimeNanos();
+            return new TimingCursor(delegate.query(query, bindArgs), query, bindArgs, started);
+        }
+
+        @Override
+        public Cursor query(SupportSQLiteQuery query) {
+            Object[] bindArgs = capture(query);
+            long started = SystemClock.elapsedRealtimeNanos();
+            return new TimingCursor(delegate.query(query), query.getSql(), bindArgs, started);
+        }
+
+        @Override
+        public Cursor query(SupportSQLiteQuery query, CancellationSignal cancellationSignal) {
+            Object[] bindArgs = capture(query);
+            long started = SystemClock.elapsedRealtimeNanos();
+            return new TimingCursor(delegate.query(query, cancellationSignal), query.getSql(), bindArgs, started);
+        }
+
+        @Override
+        public void execSQL(String sql) throws SQLException {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                delegate.execSQL(sql);
+            } finally {
+                SlowQueryLogger.record(sql, null, SystemClock.elapsedRealtimeNanos() - started);
+            }
+        }
+
+        @Override
+        public void execSQL(String sql, Object[] bindArgs) throws SQLException {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                delegate.execSQL(sql, bindArgs);
+            } finally {
+                SlowQueryLogger.record(sql, bindArgs, SystemClock.elapsedRealtimeNanos() - started);
+            }
+        }
+
+        @Override
+        public long insert(String table, int conflictAlgorithm, ContentValues values) throws SQLException {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.insert(table, conflictAlgorithm, values);
+            } finally {
+                SlowQueryLogger.record("INSERT INTO " + table, null, SystemClock.elapsedRealtimeNanos() - started);
+            }
+        }
+
+        @Override
+        public int delete(String table, String whereClause, Object[] whereArgs) {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.delete(table, whereClause, whereArgs);
+            } finally {
+                SlowQueryLogger.record("DELETE FROM " + table + (whereClause != null ? " WHERE " + whereClause : ""),
+                    whereArgs, SystemClock.elapsedRealtimeNanos() - started);
+            }
+        }
+
+        @Override
+        public int update(String table, int conflictAlgorithm, ContentValues values, String whereClause, Object[] whereArgs) {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.update(table, conflictAlgorithm, values, whereClause, whereArgs);
+            } finally {
+                SlowQueryLogger.record("UPDATE " + table + (whereClause != null ? " WHERE " + whereClause : ""),
+                    whereArgs, SystemClock.elapsedRealtimeNanos() - started);
+            }
+        }
+
+        // The commit is where a write transaction pays for its fsync
+        @Override
+        public void endTransaction() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                delegate.endTransaction();
+            } finally {
+                SlowQueryLogger.record(COMMIT, null, SystemClock.elapsedRealtimeNanos() - started);
+            }
+        }
+
+        @Override
+        public void beginTransaction() {
+            delegate.beginTransaction();
+        }
+
+        @Override
+        public void beginTransactionNonExclusive() {
+            delegate.beginTransactionNonExclusive();
+        }
+
+        @Override
+        public void beginTransactionWithListener(SQLiteTransactionListener transactionListener) {
+            delegate.beginTransactionWithListener(transactionListener);
+        }
+
+        @Override
+        public void beginTransactionWithListenerNonExclusive(SQLiteTransactionListener transactionListener) {
+            delegate.beginTransactionWithListenerNonExclusive(transactionListener);
+        }
+
+        @Override
+        public void setTransactionSuccessful() {
+            delegate.setTransactionSuccessful();
+        }
+
+        @Override
+        public boolean inTransaction() {
+            return delegate.inTransaction();
+        }
+
+        @Override
+        public boolean isDbLockedByCurrentThread() {
+            return delegate.isDbLockedByCurrentThread();
+        }
+
+        @Override
+        public boolean yieldIfContendedSafely() {
+            return delegate.yieldIfContendedSafely();
+        }
+
+        @Override
+        public boolean yieldIfContendedSafely(long sleepAfterYieldDelayMillis) {
+            return delegate.yieldIfContendedSafely(sleepAfterYieldDelayMillis);
+        }
+
+        @Override
+        public boolean isExecPerConnectionSQLSupported() {
+            return delegate.isExecPerConnectionSQLSupported();
+        }
+
+        @Override
+        public void execPerConnectionSQL(String sql, Object[] bindArgs) {
+            delegate.execPerConnectionSQL(sql, bindArgs);
+        }
+
+        @Override
+        public int getVersion() {
+            return delegate.getVersion();
+        }
+
+        @Override
+        public void setVersion(int version) {
+            delegate.setVersion(version);
+        }
+
+        @Override
+        public long getMaximumSize() {
+            return delegate.getMaximumSize();
+        }
+
+        @Override
+        public long setMaximumSize(long numBytes) {
+            return delegate.setMaximumSize(numBytes);
+        }
+
+        @Override
+        public long getPageSize() {
+            return delegate.getPageSize();
+        }
+
+        @Override
+        public void setPageSize(long numBytes) {
+            delegate.setPageSize(numBytes);
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return delegate.isReadOnly();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public boolean needUpgrade(int newVersion) {
+            return delegate.needUpgrade(newVersion);
+        }
+
+        @Override
+        public String getPath() {
+            return delegate.getPath();
+        }
+
+        @Override
+        public void setLocale(Locale locale) {
+            delegate.setLocale(locale);
+        }
+
+        @Override
+        public void setMaxSqlCacheSize(int cacheSize) {
+            delegate.setMaxSqlCacheSize(cacheSize);
+        }
+
+        @Override
+        public void setForeignKeyConstraintsEnabled(boolean enabled) {
+            delegate.setForeignKeyConstraintsEnabled(enabled);
+        }
+
+        @Override
+        public boolean enableWriteAheadLogging() {
+            return delegate.enableWriteAheadLogging();
+        }
+
+        @Override
+        public void disableWriteAheadLogging() {
+            delegate.disableWriteAheadLogging();
+        }
+
+        @Override
+        public boolean isWriteAheadLoggingEnabled() {
+            return delegate.isWriteAheadLoggingEnabled();
+        }
+
+        @Override
+        public List<Pair<String, String>> getAttachedDbs() {
+            return delegate.getAttachedDbs();
+        }
+
+        @Override
+        public boolean isDatabaseIntegrityOk() {
+            return delegate.isDatabaseIntegrityOk();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    // Room binds every argument before each execution of a cached statement, so the captured
+    // arguments are those of the execution being timed
+    private static final class TimingStatement implements SupportSQLiteStatement {
+        private final SupportSQLiteStatement delegate;
+        private final String sql;
+        private final List<Object> bindArgs = new ArrayList<>();
+
+        TimingStatement(SupportSQLiteStatement delegate, String sql) {
+            this.delegate = delegate;
+            this.sql = sql;
+        }
+
+        @Override
+        public void execute() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                delegate.execute();
+            } finally {
+                finish(started);
+            }
+        }
+
+        @Override
+        public int executeUpdateDelete() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.executeUpdateDelete();
+            } finally {
+                finish(started);
+            }
+        }
+
+        @Override
+        public long executeInsert() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.executeInsert();
+            } finally {
+                finish(started);
+            }
+        }
+
+        @Override
+        public long simpleQueryForLong() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.simpleQueryForLong();
+            } finally {
+                finish(started);
+            }
+        }
+
+        @Override
+        public String simpleQueryForString() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return delegate.simpleQueryForString();
+            } finally {
+                finish(started);
+            }
+        }
+
+        private void finish(long started) {
+            SlowQueryLogger.record(sql, bindArgs.isEmpty() ? null : bindArgs.toArray(),
+                SystemClock.elapsedRealtimeNanos() - started);
+        }
+
+        @Override
+        public void bindNull(int index) {
+            bind(index, null);
+            delegate.bindNull(index);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            bind(index, value);
+            delegate.bindLong(index, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            bind(index, value);
+            delegate.bindDouble(index, value);
+        }
+
+        @Override
+        public void bindString(int index, String value) {
+            bind(index, value);
+            delegate.bindString(index, value);
+        }
+
+        @Override
+        public void bindBlob(int index, byte[] value) {
+            bind(index, value);
+            delegate.bindBlob(index, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            bindArgs.clear();
+            delegate.clearBindings();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        private void bind(int index, Object value) {
+            while (bindArgs.size() < index) {
+                bindArgs.add(null);
+            }
+            bindArgs.set(index - 1, value);
+        }
+    }
+
+    // SQLite steps the statement while filling the cursor window, which happens in getCount()
+    // and in moves that leave the current window
+    private static final class TimingCursor extends CursorWrapper {
+        private final String sql;
+        private final Object[] bindArgs;
+        private long executionNanos;
+        private boolean recorded;
+
+        TimingCursor(Cursor cursor, String sql, Object[] bindArgs, long started) {
+            super(cursor);
+            this.sql = sql;
+            this.bindArgs = bindArgs;
+            this.executionNanos = SystemClock.elapsedRealtimeNanos() - started;
+        }
+
+        @Override
+        public int getCount() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.getCount();
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public boolean move(int offset) {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.move(offset);
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public boolean moveToPosition(int position) {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.moveToPosition(position);
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public boolean moveToFirst() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.moveToFirst();
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public boolean moveToLast() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.moveToLast();
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public boolean moveToNext() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.moveToNext();
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public boolean moveToPrevious() {
+            long started = SystemClock.elapsedRealtimeNanos();
+            try {
+                return super.moveToPrevious();
+            } finally {
+                executionNanos += SystemClock.elapsedRealtimeNanos() - started;
+            }
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            if (!recorded) {
+                recorded = true;
+                SlowQueryLogger.record(sql, bindArgs, executionNanos);
+            }
+        }
+    }
+
+    private static Object[] capture(SupportSQLiteQuery query) {
+        if (query.getArgCount() == 0) {
+            return null;
+        }
+        Object[] bindArgs = new Object[query.getArgCount()];
+        query.bindTo(new SupportSQLiteProgram() {
+            @Override
+            public void bindNull(int index) {
+                bindArgs[index - 1] = null;
+            }
+
+            @Override
+            public void bindLong(int index, long value) {
+                bindArgs[index - 1] = value;
+            }
+
+            @Override
+            public void bindDouble(int index, double value) {
+                bindArgs[index - 1] = value;
+            }
+
+            @Override
+            public void bindString(int index, String value) {
+                bindArgs[index - 1] = value;
+            }
+
+            @Override
+            public void bindBlob(int index, byte[] value) {
+                bindArgs[index - 1] = value;
+            }
+
+            @Override
+            public void clearBindings() {
+                Arrays.fill(bindArgs, null);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return bindArgs;
+    }
+}
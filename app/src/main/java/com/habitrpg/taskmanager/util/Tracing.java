@@ -0,0 +1,88 @@
+package com.habitrpg.taskmanager.util;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named android.os.Trace sections for Perfetto/systrace captures.
+ *
+ * Disabled unless {@link #setEnabled} is called, which the application does for debuggable
+ * builds, or for any build when the "debug.habitrpg.trace" system property is 1
+ * (adb shell setprop debug.habitrpg.trace 1). While disabled every method returns after one
+ * volatile read.
+ *
+ * Synchronous sections must begin and end on the same thread. Async sections span callbacks and
+ * threads; they need Android 10, and are skipped on older releases.
+ */
+public final class Tracing {
+
+    private static final String TAG = "Tracing";
+    private static final String RUNTIME_FLAG = "debug.habitrpg.trace";
+    private static final int MAX_NAME_LENGTH = 127;
+
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+    private static volatile boolean enabled;
+
+    private Tracing() {
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // The system property lets release builds be traced without a rebuild
+    public static boolean isRuntimeFlagSet() {
+        return isSystemFlagSet(RUNTIME_FLAG);
+    }
+
+    // Also read by the other opt-in diagnostics in this package
+    static boolean isSystemFlagSet(String key) {
+        try {
+            Class<?> systemProperties = Class.forName("android.os.SystemProperties");
+            Object value = systemProperties.getMethod("get", String.class).invoke(null, key);
+            return "1".equals(value) || "true".equals(value);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read " + key, e);
+            return false;
+        }
+    }
+
+    public static void begin(String name) {
+        if (enabled) {
+            Trace.beginSection(truncate(name));
+        }
+    }
+
+    public static void end() {
+        if (enabled) {
+            Trace.endSection();
+        }
+    }
+
+    // Returns the cookie to pass to endAsync, or 0 when nothing was started
+    public static int beginAsync(String name) {
+        if (!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return 0;
+        }
+        int cookie = nextCookie.incrementAndGet();
+        Trace.beginAsyncSection(truncate(name), cookie);
+        return cookie;
+    }
+
+    public static void endAsync(String name, int cookie) {
+        if (cookie != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(truncate(name), cookie);
+        }
+    }
+
+    private static String truncate(String name) {
+        return name.length() <= MAX_NAME_LENGTH ? name : name.substring(0, MAX_NAME_LENGTH);
+    }
+}
@@ -0,0 +1,31 @@
+package com.habitrpg.taskmanager;
+
+import android.app.Application;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.habitrpg.taskmanager.util.StrictDatabaseMode;
+
+/**
+ * Application for Robolectric tests that drive real screens against AppDatabase.getDatabase.
+ *
+ * StrictDatabaseMode is set to THROW before any test code runs, so the shared database is built
+ * with the strict query callback and a statement on the main thread fails the test. Services
+ * create FirebaseManager in their constructors, which needs a FirebaseApp; this one never
+ * reaches a server.
+ */
+public class StrictDatabaseTestApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StrictDatabaseMode.setMode(StrictDatabaseMode.Mode.THROW);
+        if (FirebaseApp.getApps(this).isEmpty()) {
+            FirebaseApp.initializeApp(this, new FirebaseOptions.Builder()
+                .setApplicationId("1:000000000000:android:0000000000000000")
+                .setApiKey("test-api-key")
+                .setProjectId("habitrpg-test")
+                .build());
+        }
+    }
+}
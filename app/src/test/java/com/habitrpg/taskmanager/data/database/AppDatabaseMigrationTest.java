@@ -0,0 +1,120 @@
+package com.habitrpg.taskmanager.data.database;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Upgrades a version 8 database with MIGRATION_8_16. There is no exported schema for 8, so it is
+ * made from a current database by removing what 8 did not have. Room validates every table, index
+ * and the FTS table after the migration and throws if one differs from the entities.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class AppDatabaseMigrationTest {
+
+    private static final String DATABASE_NAME = "migration-test.db";
+
+    // Room rejects DAO calls on the main thread, which is the test thread under Robolectric
+    private final ExecutorService background = Executors.newSingleThreadExecutor();
+    private Context context;
+    private AppDatabase database;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        background.shutdown();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void migration8To16_keepsTasksAndIndexesThem() throws Exception {
+        database = Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME).build();
+        Task task = new Task("user", 1, "Trening snage", "easy", "normal", 4);
+        task.setStartDate("2025-06-30 09:00");
+        int taskId = (int) (long) onBackground(() -> database.taskDao().insertTask(task));
+        database.close();
+
+        downgradeToVersion8();
+
+        database = Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
+            .addMigrations(AppDatabase.MIGRATION_8_16)
+            .build();
+        Task migrated = onBackground(() -> database.taskDao().getTaskById(taskId));
+        assertEquals("Trening snage", migrated.getName());
+        assertNull(migrated.getSeriesId());
+
+        List<Task> found = onBackground(() -> database.taskDao().searchTasks("user", "trening*", 10, 0));
+        assertEquals(1, found.size());
+        assertEquals(taskId, found.get(0).getId());
+        assertEquals(0, (int) onBackground(() -> database.outboxDao().getPendingCount()));
+    }
+
+    private void downgradeToVersion8() {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(context.getDatabasePath(DATABASE_NAME).getPath(),
+            null, SQLiteDatabase.OPEN_READWRITE);
+        try {
+            for (String suffix : new String[] {"BEFORE_UPDATE", "BEFORE_DELETE", "AFTER_UPDATE", "AFTER_INSERT"}) {
+                db.execSQL("DROP TRIGGER room_fts_content_sync_tasks_fts_" + suffix);
+            }
+            for (String table : new String[] {"tasks_fts", "outbox", "sync_watermarks", "daily_xp", "user_stages"}) {
+                db.execSQL("DROP TABLE `" + table + "`");
+            }
+            for (String index : new String[] {"index_tasks_user_id_start_date", "index_tasks_series_id_start_date",
+                    "index_task_completions_task_id_completed_date", "index_guild_messages_guild_id_timestamp"}) {
+                db.execSQL("DROP INDEX `" + index + "`");
+            }
+
+            // tasks as Room created it, without series_id
+            String createTasks;
+            try (Cursor cursor = db.rawQuery("SELECT sql FROM sqlite_master WHERE type = 'table' AND name = 'tasks'", null)) {
+                cursor.moveToFirst();
+                createTasks = cursor.getString(0);
+            }
+            assertTrue(createTasks, createTasks.contains(", `series_id` TEXT"));
+            db.execSQL(createTasks.replace(", `series_id` TEXT", "").replace("`tasks`", "`tasks_v8`"));
+            String columns = "`id`, `user_id`, `category_id`, `name`, `description`, `difficulty`, `importance`, "
+                + "`xp_value`, `is_recurring`, `recurrence_interval`, `recurrence_unit`, `start_date`, `end_date`, `status`";
+            db.execSQL("INSERT INTO `tasks_v8` (" + columns + ") SELECT " + columns + " FROM `tasks`");
+            db.execSQL("DROP TABLE `tasks`");
+            db.execSQL("ALTER TABLE `tasks_v8` RENAME TO `tasks`");
+            db.setVersion(8);
+        } finally {
+            db.close();
+        }
+    }
+
+    private <T> T onBackground(Callable<T> work) throws Exception {
+        return background.submit(work).get();
+    }
+}
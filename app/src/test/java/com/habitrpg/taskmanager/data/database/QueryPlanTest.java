@@ -0,0 +1,133 @@
+package com.habitrpg.taskmanager.data.database;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EXPLAIN QUERY PLAN for the queries RoomQueryPerformanceTest times: each must search through
+ * its index rather than scan the table. Unlike the timings this holds on any machine.
+ * The SQL and arguments are captured from the DAO calls themselves, so the plans follow the @Query strings.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class QueryPlanTest {
+
+    private static final String TASKS_INDEX = "index_tasks_user_id_start_date";
+    private static final String COMPLETIONS_INDEX = "index_task_completions_task_id_completed_date";
+    private static final String MESSAGES_INDEX = "index_guild_messages_guild_id_timestamp";
+
+    // Room rejects DAO calls on the main thread, which is the test thread under Robolectric
+    private final ExecutorService background = Executors.newSingleThreadExecutor();
+    private final List<CapturedQuery> captured = new ArrayList<>();
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+            .setQueryCallback((sql, bindArgs) -> {
+                synchronized (captured) {
+                    captured.add(new CapturedQuery(sql, bindArgs.toArray()));
+                }
+            }, Runnable::run)
+            .build();
+        // Through the open helper: Room's main thread check does not apply to it
+        db = database.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        background.shutdown();
+    }
+
+    @Test
+    public void getActiveTasksByUserId_usesUserIndex() throws Exception {
+        assertUsesIndexes(capture(() -> database.taskDao().getActiveTasksByUserId("u")), TASKS_INDEX);
+    }
+
+    @Test
+    public void dailyQuotaCounts_useUserIndex() throws Exception {
+        assertUsesIndexes(capture(() -> database.taskDao()
+            .getTaskCountByDifficultyAndImportanceForDate("u", "easy", "normal", "2025-01-01")), TASKS_INDEX);
+        assertUsesIndexes(capture(() -> database.taskDao()
+            .getSpecialTaskCountForMonth("u", "2025-01-01", "2025-01-31")), TASKS_INDEX);
+        assertUsesIndexes(capture(() -> database.taskDao()
+            .getExtremeTaskCountForWeek("u", "2025-01-01", "2025-01-07")), TASKS_INDEX);
+    }
+
+    @Test
+    public void getCompletionsByUserIdAndDateRange_usesBothIndexes() throws Exception {
+        assertUsesIndexes(capture(() -> database.taskCompletionDao()
+            .getCompletionsByUserIdAndDateRange("u", "2025-01-01", "2025-01-31")), TASKS_INDEX, COMPLETIONS_INDEX);
+    }
+
+    @Test
+    public void getGuildMessages_usesGuildIndex() throws Exception {
+        assertUsesIndexes(capture(() -> database.guildDao().getGuildMessages("g")), MESSAGES_INDEX);
+    }
+
+    // Runs the DAO call and returns the SELECT it sent to SQLite
+    private CapturedQuery capture(Runnable daoCall) throws Exception {
+        synchronized (captured) {
+            captured.clear();
+        }
+        background.submit(daoCall).get();
+        CapturedQuery select = null;
+        synchronized (captured) {
+            for (CapturedQuery query : captured) {
+                if (query.sql.trim().toUpperCase().startsWith("SELECT")) {
+                    select = query;
+                }
+            }
+        }
+        assertNotNull("No SELECT captured, got " + captured.size() + " statements", select);
+        return select;
+    }
+
+    private void assertUsesIndexes(CapturedQuery query, String... indexes) {
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + query.sql, query.args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        for (String index : indexes) {
+            boolean used = false;
+            for (String step : plan) {
+                used |= step.contains(" INDEX " + index);
+            }
+            assertTrue(index + " not used by " + query.sql + "\nPlan: " + plan, used);
+        }
+    }
+
+    private static class CapturedQuery {
+        final String sql;
+        final Object[] args;
+
+        CapturedQuery(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+    }
+}
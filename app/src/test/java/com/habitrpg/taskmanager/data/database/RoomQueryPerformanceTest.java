@@ -0,0 +1,179 @@
+package com.habitrpg.taskmanager.data.database;
+
+import android.app.Application;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.habitrpg.taskmanager.data.database.dao.GuildDao;
+import com.habitrpg.taskmanager.data.database.dao.TaskCompletionDao;
+import com.habitrpg.taskmanager.data.database.dao.TaskDao;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Times the hot DAO queries against an in-memory AppDatabase filled by SyntheticDataGenerator
+ * with 10k, 100k and 1M rows, and fails when a median exceeds the stored baseline by more than
+ * the tolerance.
+ *
+ * Timings depend on the machine, so the suite only runs when Gradle is given -Pperf;
+ * QueryPlanTest checks on every run that the same queries use their indexes.
+ *
+ * Knobs, passed through from Gradle properties (see app/build.gradle):
+ * perf.maxRows limits the largest dataset (100k by default, 1M takes minutes);
+ * perf.recordBaseline=true writes the measured medians to the baseline file instead of checking
+ * them. A query without a baseline entry fails the check, so new queries and scales have to be
+ * recorded before they count as covered.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class RoomQueryPerformanceTest {
+
+    private static final int[] SCALES = {10_000, 100_000, 1_000_000};
+    private static final long SEED = 42;
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 15;
+    private static final double DEFAULT_TOLERANCE = 1.5;
+    private static final double DEFAULT_SLACK_MS = 2.0;
+
+    // Room rejects queries on the main thread, which is the test thread under Robolectric
+    private final ExecutorService background = Executors.newSingleThreadExecutor();
+    private AppDatabase database;
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        background.shutdown();
+    }
+
+    @Test
+    public void hotQueries_stayWithinBaseline() throws Exception {
+        assumeTrue("Run with -Pperf", Boolean.getBoolean("perf.enabled"));
+        int maxRows = Integer.parseInt(System.getProperty("perf.maxRows", "100000"));
+        boolean record = Boolean.parseBoolean(System.getProperty("perf.recordBaseline", "false"));
+        File baselineFile = new File(System.getProperty("perf.baselineFile", "src/test/resources/room-perf-baseline.json"));
+        JSONObject baseline = baselineFile.exists()
+            ? new JSONObject(new String(Files.readAllBytes(baselineFile.toPath()), StandardCharsets.UTF_8))
+            : new JSONObject();
+        double tolerance = baseline.optDouble("tolerance", DEFAULT_TOLERANCE);
+        double slackMs = baseline.optDouble("slack_ms", DEFAULT_SLACK_MS);
+        JSONObject results = baseline.optJSONObject("results") != null ? baseline.getJSONObject("results") : new JSONObject();
+
+        List<String> regressions = new ArrayList<>();
+        for (int rows : SCALES) {
+            if (rows > maxRows) {
+                continue;
+            }
+            Map<String, Double> medians = measureScale(rows);
+            JSONObject expected = results.optJSONObject(String.valueOf(rows));
+            JSONObject measured = new JSONObject();
+
+            for (Map.Entry<String, Double> entry : medians.entrySet()) {
+                String query = entry.getKey();
+                double median = entry.getValue();
+                measured.put(query, Math.round(median * 1000) / 1000.0);
+
+                if (expected == null || !expected.has(query)) {
+                    System.out.println(String.format(Locale.US, "%7d rows %-40s %8.3f ms (no baseline)", rows, query, median));
+                    regressions.add(String.format(Locale.US, "%s at %d rows: no baseline, record it with -Pperf.recordBaseline=true", query, rows));
+                    continue;
+                }
+                double limit = expected.getDouble(query) * tolerance + slackMs;
+                System.out.println(String.format(Locale.US, "%7d rows %-40s %8.3f ms (limit %.3f)", rows, query, median, limit));
+                if (median > limit) {
+                    regressions.add(String.format(Locale.US, "%s at %d rows: %.3f ms > %.3f ms", query, rows, median, limit));
+                }
+            }
+            results.put(String.valueOf(rows), measured);
+        }
+
+        if (record) {
+            baseline.put("tolerance", tolerance);
+            baseline.put("slack_ms", slackMs);
+            baseline.put("results", results);
+            Files.write(baselineFile.toPath(), baseline.toString(2).getBytes(StandardCharsets.UTF_8));
+            System.out.println("Recorded baseline in " + baselineFile);
+            return;
+        }
+        assertTrue("Query regressions:\n" + String.join("\n", regressions), regressions.isEmpty());
+    }
+
+    private Map<String, Double> measureScale(int rows) throws Exception {
+        if (database != null) {
+            database.close();
+        }
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+            .build();
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.ofRows(SEED, rows, null);
+        SyntheticDataGenerator.Result generated = onBackground(() -> SyntheticDataGenerator.generate(database, config));
+        System.out.println("Generated " + generated);
+
+        TaskDao taskDao = database.taskDao();
+        TaskCompletionDao completionDao = database.taskCompletionDao();
+        GuildDao guildDao = database.guildDao();
+        String user = SyntheticDataGenerator.userId(config, 7);
+        String guild = SyntheticDataGenerator.guildId(7);
+        LocalDate anchor = LocalDate.parse(SyntheticDataGenerator.ANCHOR_DATE);
+        String day = anchor.minusDays(400).toString();
+        String weekEnd = anchor.minusDays(394).toString();
+        String monthEnd = anchor.minusDays(371).toString();
+
+        Map<String, Double> medians = new LinkedHashMap<>();
+        medians.put("getActiveTasksByUserId", median(() -> taskDao.getActiveTasksByUserId(user).size()));
+        medians.put("getTaskCountByDifficultyAndImportanceForDate",
+            median(() -> taskDao.getTaskCountByDifficultyAndImportanceForDate(user, "easy", "normal", day)));
+        medians.put("getSpecialTaskCountForMonth",
+            median(() -> taskDao.getSpecialTaskCountForMonth(user, day.substring(0, 8) + "01", day.substring(0, 8) + "31")));
+        medians.put("getExtremeTaskCountForWeek",
+            median(() -> taskDao.getExtremeTaskCountForWeek(user, day, weekEnd)));
+        medians.put("getCompletionsByUserIdAndDateRange",
+            median(() -> completionDao.getCompletionsByUserIdAndDateRange(user, day, monthEnd).size()));
+        medians.put("getGuildMessages", median(() -> guildDao.getGuildMessages(guild).size()));
+        return medians;
+    }
+
+    private double median(Callable<Integer> query) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            onBackground(query);
+        }
+        double[] millis = new double[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            millis[i] = onBackground(() -> {
+                long start = System.nanoTime();
+                query.call();
+                return (System.nanoTime() - start) / 1_000_000.0;
+            });
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_ROUNDS / 2];
+    }
+
+    private <T> T onBackground(Callable<T> work) throws Exception {
+        return background.submit(work).get();
+    }
+}
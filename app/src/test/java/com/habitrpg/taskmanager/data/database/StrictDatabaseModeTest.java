@@ -0,0 +1,74 @@
+package com.habitrpg.taskmanager.data.database;
+
+import android.app.Application;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.habitrpg.taskmanager.util.StrictDatabaseMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Robolectric runs tests on the main Looper's thread, so statements issued directly by a test
+ * are main thread access. Statements through the open helper bypass Room's own check.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class StrictDatabaseModeTest {
+
+    private final ExecutorService background = Executors.newSingleThreadExecutor();
+    private AppDatabase database;
+
+    @Before
+    public void setUp() throws Exception {
+        StrictDatabaseMode.setMode(StrictDatabaseMode.Mode.THROW);
+        database = AppDatabase.installDiagnostics(
+            Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)).build();
+        // Open off the main thread, as the app does at start-up
+        background.submit(() -> database.getOpenHelper().getWritableDatabase()).get();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        background.shutdown();
+        StrictDatabaseMode.setMode(StrictDatabaseMode.Mode.OFF);
+    }
+
+    @Test
+    public void throwMode_rejectsOpenHelperQueryOnMainThread() {
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        try {
+            db.query("SELECT COUNT(*) FROM tasks").close();
+            fail("Expected main thread access to throw");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("FROM tasks"));
+        }
+    }
+
+    @Test
+    public void throwMode_allowsBackgroundQuery() throws Exception {
+        int count = background.submit(() -> database.taskDao().getTasksByUserId("user").size()).get();
+        assertEquals(0, count);
+    }
+
+    @Test
+    public void logMode_doesNotThrowOnMainThread() {
+        StrictDatabaseMode.setMode(StrictDatabaseMode.Mode.LOG);
+        database.getOpenHelper().getWritableDatabase().query("SELECT COUNT(*) FROM tasks").close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.habitrpg.taskmanager.presentation.adapters;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the DiffUtil cost of a task list reload with 5k rows, as computed by the
+ * adapters' background differ, and checks that status-only edits produce status payloads.
+ */
+public class TaskDiffBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private final TaskDiffCallback callback = new TaskDiffCallback();
+
+    @Test
+    public void statusChange_producesStatusPayload() {
+        Task oldTask = createTask(1, "active");
+        Task newTask = createTask(1, "completed");
+
+        assertEquals(TaskDiffCallback.PAYLOAD_STATUS, callback.getChangePayload(oldTask, newTask));
+    }
+
+    @Test
+    public void benchmark_diff5kRows() {
+        List<Task> oldList = createTasks(ROWS, 0);
+        Random random = new Random(42);
+
+        // Typical reload: a few completed tasks, a few removed and a few new ones
+        List<Task> unchanged = copyTasks(oldList);
+        List<Task> edited = copyTasks(oldList);
+        for (int i = 0; i < 50; i++) {
+            edited.get(random.nextInt(edited.size())).setStatus("completed");
+        }
+        for (int i = 0; i < 20; i++) {
+            edited.remove(random.nextInt(edited.size()));
+        }
+        edited.addAll(createTasks(20, ROWS));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            diff(oldList, unchanged);
+            diff(oldList, edited);
+        }
+
+        System.out.println(String.format("Task diff %d rows: unchanged %.2f ms, edited %.2f ms",
+            ROWS, measure(oldList, unchanged), measure(oldList, edited)));
+    }
+
+    private double measure(List<Task> oldList, List<Task> newList) {
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            diff(oldList, newList);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    private DiffUtil.DiffResult diff(List<Task> oldList, List<Task> newList) {
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return callback.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return callback.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public Object getChangePayload(int oldPosition, int newPosition) {
+                return callback.getChangePayload(oldList.get(oldPosition), newList.get(newPosition));
+            }
+        });
+    }
+
+    private static List<Task> createTasks(int count, int firstId) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(createTask(firstId + i + 1, "active"));
+        }
+        return tasks;
+    }
+
+    private static List<Task> copyTasks(List<Task> tasks) {
+        List<Task> copy = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copy.add(createTask(task.getId(), task.getStatus()));
+        }
+        return copy;
+    }
+
+    private static Task createTask(int id, String status) {
+        Task task = new Task("user", id % 8, "Task " + id, "easy", "normal", 3);
+        task.setId(id);
+        task.setDescription("Description " + id);
+        task.setStartDate("2025-01-01 09:00");
+        task.setStatus(status);
+        return task;
+    }
+}
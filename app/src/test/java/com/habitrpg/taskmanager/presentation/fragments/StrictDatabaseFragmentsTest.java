@@ -0,0 +1,144 @@
+package com.habitrpg.taskmanager.presentation.fragments;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Looper;
+import android.widget.TextView;
+
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.testing.FragmentScenario;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.habitrpg.taskmanager.R;
+import com.habitrpg.taskmanager.StrictDatabaseTestApplication;
+import com.habitrpg.taskmanager.data.database.AppDatabase;
+import com.habitrpg.taskmanager.data.database.entities.Task;
+import com.habitrpg.taskmanager.data.preferences.UserPreferences;
+import com.habitrpg.taskmanager.util.DateUtils;
+import com.habitrpg.taskmanager.util.StrictDatabaseMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Opens the task and statistics screens with StrictDatabaseMode in THROW mode and waits for their
+ * data to show. A DAO call or statement on the main thread throws on the main Looper, which
+ * fails the test; the services' own threads are allowed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = StrictDatabaseTestApplication.class)
+public class StrictDatabaseFragmentsTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Rule
+    public final TestName testName = new TestName();
+
+    // Room rejects DAO calls on the main thread, which is the test thread under Robolectric
+    private final ExecutorService background = Executors.newSingleThreadExecutor();
+    private AppDatabase database;
+    private String userId;
+
+    @Before
+    public void setUp() {
+        assertEquals(StrictDatabaseMode.Mode.THROW, StrictDatabaseMode.getMode());
+        Context context = ApplicationProvider.getApplicationContext();
+        database = AppDatabase.getDatabase(context);
+        // The database and the services outlive a test, so every test has its own user
+        userId = "strict-" + testName.getMethodName();
+        UserPreferences.getInstance(context).setCurrentUserId(userId);
+    }
+
+    @After
+    public void tearDown() {
+        background.shutdown();
+    }
+
+    @Test
+    public void tasksFragment_loadsOffTheMainThread() throws Exception {
+        insertTaskToday("Trening");
+
+        FragmentScenario<TasksFragment> scenario = launch(TasksFragment.class, null);
+        awaitView(scenario, fragment -> itemCount(fragment) == 1);
+    }
+
+    @Test
+    public void calendarFragment_loadsOffTheMainThread() throws Exception {
+        insertTaskToday("Trening");
+
+        FragmentScenario<CalendarFragment> scenario = launch(CalendarFragment.class, null);
+        awaitView(scenario, fragment -> itemCount(fragment) == 1);
+    }
+
+    @Test
+    public void taskDetailFragment_loadsOffTheMainThread() throws Exception {
+        int taskId = insertTaskToday("Trening");
+
+        Bundle args = new Bundle();
+        args.putInt("taskId", taskId);
+        FragmentScenario<TaskDetailFragment> scenario = launch(TaskDetailFragment.class, args);
+        awaitView(scenario, fragment -> "Trening".contentEquals(text(fragment, R.id.tvTaskName)));
+    }
+
+    @Test
+    public void statisticsFragment_loadsOffTheMainThread() throws Exception {
+        insertTaskToday("Trening");
+
+        FragmentScenario<StatisticsFragment> scenario = launch(StatisticsFragment.class, null);
+        awaitView(scenario, fragment -> "1".contentEquals(text(fragment, R.id.tvTasksCreated)));
+    }
+
+    private int insertTaskToday(String name) throws Exception {
+        Task task = new Task(userId, 1, name, "easy", "normal", 4);
+        task.setStartDate(DateUtils.getCurrentDateString() + " 10:00");
+        long id = background.submit(() -> database.taskDao().insertTask(task)).get();
+        return (int) id;
+    }
+
+    private static <F extends Fragment> FragmentScenario<F> launch(Class<F> fragmentClass, Bundle args) {
+        return FragmentScenario.launchInContainer(fragmentClass, args, R.style.Theme_TaskManager);
+    }
+
+    // Runs the main Looper until the condition holds; the services post their results to it
+    // from their executors, and any main thread database access throws while it runs
+    private static <F extends Fragment> void awaitView(FragmentScenario<F> scenario, Predicate<F> condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        boolean[] done = new boolean[1];
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            scenario.onFragment(fragment -> done[0] = condition.test(fragment));
+            if (done[0]) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Screen did not show its data within " + TIMEOUT_MS + " ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static int itemCount(Fragment fragment) {
+        RecyclerView list = fragment.requireView().findViewById(R.id.recyclerViewTasks);
+        return list.getAdapter() != null ? list.getAdapter().getItemCount() : 0;
+    }
+
+    private static CharSequence text(Fragment fragment, int viewId) {
+        return ((TextView) fragment.requireView().findViewById(viewId)).getText();
+    }
+}
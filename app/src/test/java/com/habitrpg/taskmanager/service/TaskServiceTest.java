@@ -0,0 +1,77 @@
+package com.habitrpg.taskmanager.service;
+
+import com.habitrpg.taskmanager.data.database.entities.Task;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskServiceTest {
+
+    @Test
+    public void toMatchQuery_prefixMatchesEveryWord() {
+        assertEquals("trening* teretana*", TaskService.toMatchQuery("Trening teretana"));
+    }
+
+    @Test
+    public void toMatchQuery_keepsNonAsciiLettersAndDigits() {
+        assertEquals("čitanje* 20*", TaskService.toMatchQuery("Čitanje 20"));
+    }
+
+    // Operators are upper case in FTS4; lower-cased they are plain words
+    @Test
+    public void toMatchQuery_dropsOperatorsAndPunctuation() {
+        assertEquals("a* or* b* c*", TaskService.toMatchQuery("\"a\" OR-b* (c)"));
+        assertEquals("near* 3* x*", TaskService.toMatchQuery("NEAR/3 x:"));
+    }
+
+    @Test
+    public void toMatchQuery_blankInputIsEmpty() {
+        assertEquals("", TaskService.toMatchQuery(null));
+        assertEquals("", TaskService.toMatchQuery("   "));
+        assertEquals("", TaskService.toMatchQuery("*-\"()"));
+    }
+
+    @Test
+    public void seriesBaseName_stripsOccurrenceDate() {
+        assertEquals("Trening", TaskService.seriesBaseName("Trening (2025-06-30)"));
+        assertEquals("Trening (jutro)", TaskService.seriesBaseName("Trening (jutro) (2025-06-30)"));
+    }
+
+    @Test
+    public void seriesBaseName_keepsNamesWithoutTrailingDate() {
+        assertEquals("Trening", TaskService.seriesBaseName("Trening"));
+        assertEquals("Trening (2025-06-30) ujutru", TaskService.seriesBaseName("Trening (2025-06-30) ujutru"));
+        assertEquals("Trening(2025-06-30)", TaskService.seriesBaseName("Trening(2025-06-30)"));
+        assertEquals("Trening (30.06.2025)", TaskService.seriesBaseName("Trening (30.06.2025)"));
+    }
+
+    @Test
+    public void seriesDay_isDatePartOfStartDate() {
+        assertEquals("2025-06-30", TaskService.seriesDay(taskStarting("2025-06-30 09:15")));
+        assertEquals("2025-06-30", TaskService.seriesDay(taskStarting("2025-06-30")));
+    }
+
+    @Test
+    public void seriesDay_isEmptyWithoutFullDate() {
+        assertEquals("", TaskService.seriesDay(taskStarting(null)));
+        assertEquals("", TaskService.seriesDay(taskStarting("2025-06")));
+    }
+
+    @Test
+    public void isSeriesDay_rejectsEmptyAndPartialDays() {
+        assertTrue(TaskService.isSeriesDay("2025-06-30"));
+        assertFalse(TaskService.isSeriesDay(null));
+        assertFalse(TaskService.isSeriesDay(""));
+        assertFalse(TaskService.isSeriesDay(TaskService.seriesDay(taskStarting("2025-06"))));
+        assertFalse(TaskService.isSeriesDay(TaskService.seriesDay(taskStarting("30.06.2025 09:15"))));
+    }
+
+    private static Task taskStarting(String startDate) {
+        Task task = new Task("user", 1, "Trening", "easy", "normal", 4);
+        task.setStartDate(startDate);
+        return task;
+    }
+}
@@ -0,0 +1,99 @@
+package com.habitrpg.taskmanager.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QRCodeGeneratorTest {
+
+    private static final String USER_ID = "Xq3vLr8NcTbWm2ZpK7aYd1EoFs94";
+
+    // Examples from RFC 9285
+    @Test
+    public void encodeBase45_matchesRfcExamples() {
+        assertEquals("BB8", QRCodeGenerator.encodeBase45(bytes("AB")));
+        assertEquals("%69 VD92EX0", QRCodeGenerator.encodeBase45(bytes("Hello!!")));
+        assertEquals("UJCLQE7W581", QRCodeGenerator.encodeBase45(bytes("base-45")));
+    }
+
+    @Test
+    public void decodeBase45_matchesRfcExamples() {
+        assertArrayEquals(bytes("ietf!"), QRCodeGenerator.decodeBase45("QED8WEX0"));
+        assertArrayEquals(bytes("Hello!!"), QRCodeGenerator.decodeBase45("%69 VD92EX0"));
+    }
+
+    @Test
+    public void decodeBase45_rejectsMalformedInput() {
+        // A single trailing character cannot encode a byte
+        assertNull(QRCodeGenerator.decodeBase45("BB8B"));
+        // Lower case is outside the alphabet
+        assertNull(QRCodeGenerator.decodeBase45("bb8"));
+        // Triples above 0xFFFF and pairs above 0xFF
+        assertNull(QRCodeGenerator.decodeBase45(":::"));
+        assertNull(QRCodeGenerator.decodeBase45("::"));
+    }
+
+    @Test
+    public void base45_roundTripsEveryByte() {
+        byte[] data = new byte[257];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        assertArrayEquals(data, QRCodeGenerator.decodeBase45(QRCodeGenerator.encodeBase45(data)));
+    }
+
+    @Test
+    public void userQRData_roundTrips() {
+        assertEquals(USER_ID, QRCodeGenerator.parseUserQRData(QRCodeGenerator.generateUserQRData(USER_ID)));
+        assertEquals("korisnik-čšž", QRCodeGenerator.parseUserQRData(QRCodeGenerator.generateUserQRData("korisnik-čšž")));
+    }
+
+    @Test
+    public void userQRData_staysInQrAlphanumericSet() {
+        assertTrue(QRCodeGenerator.generateUserQRData(USER_ID).matches("[0-9A-Z $%*+\\-./:]+"));
+    }
+
+    @Test
+    public void parseUserQRData_rejectsBadChecksum() {
+        byte[] id = bytes(USER_ID);
+        byte[] payload = new byte[id.length + 2];
+        System.arraycopy(id, 0, payload, 0, id.length);
+        assertNull(QRCodeGenerator.parseUserQRData("TM1:" + QRCodeGenerator.encodeBase45(payload)));
+
+        String data = QRCodeGenerator.generateUserQRData(USER_ID);
+        char last = data.charAt(data.length() - 1);
+        assertNull(QRCodeGenerator.parseUserQRData(data.substring(0, data.length() - 1) + (last == '0' ? '1' : '0')));
+    }
+
+    @Test
+    public void parseUserQRData_rejectsTruncatedPayload() {
+        String data = QRCodeGenerator.generateUserQRData(USER_ID);
+        assertNull(QRCodeGenerator.parseUserQRData(data.substring(0, data.length() - 3)));
+        assertNull(QRCodeGenerator.parseUserQRData(data.substring(0, data.length() - 1)));
+        assertNull(QRCodeGenerator.parseUserQRData("TM1:"));
+        assertNull(QRCodeGenerator.parseUserQRData("TM1:" + QRCodeGenerator.encodeBase45(new byte[2])));
+    }
+
+    @Test
+    public void parseUserQRData_acceptsLegacyFormat() {
+        assertEquals(USER_ID, QRCodeGenerator.parseUserQRData("TaskManager:" + USER_ID + ":username:user@example.com"));
+        assertNull(QRCodeGenerator.parseUserQRData("TaskManager:" + USER_ID + ":username"));
+        assertNull(QRCodeGenerator.parseUserQRData("TaskManager::username:user@example.com"));
+    }
+
+    @Test
+    public void parseUserQRData_rejectsOtherCodes() {
+        assertNull(QRCodeGenerator.parseUserQRData(null));
+        assertNull(QRCodeGenerator.parseUserQRData("https://example.com"));
+        assertNull(QRCodeGenerator.parseUserQRData(USER_ID));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package com.habitrpg.taskmanager.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Compares the old per-pixel QR rendering with the module-resolution renderer.
+ *
+ * Bitmap is not available on the JVM, so both paths render into an int[]; the old path
+ * reproduces the 400x400 per-pixel BitMatrix walk that fed Bitmap.setPixel.
+ */
+public class QRCodeRenderBenchmarkTest {
+
+    // What the profile screen encodes
+    private static final String PAYLOAD = QRCodeGenerator.generateUserQRData("Xq3vLr8NcTbWm2ZpK7aYd1EoFs94");
+    private static final int SIZE = 400;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Test
+    public void moduleRenderer_matchesPerPixelRenderer() throws Exception {
+        int[] expected = renderPerPixel(PAYLOAD, SIZE, SIZE);
+        int[] actual = QRCodeGenerator.renderPixels(QRCodeGenerator.encodeModules(PAYLOAD), SIZE, SIZE);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void benchmark_perPixelVersusModuleRenderer() throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            renderPerPixel(PAYLOAD, SIZE, SIZE);
+            QRCodeGenerator.renderPixels(QRCodeGenerator.encodeModules(PAYLOAD), SIZE, SIZE);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            renderPerPixel(PAYLOAD, SIZE, SIZE);
+        }
+        long perPixelNanos = (System.nanoTime() - start) / MEASURED_ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            QRCodeGenerator.renderPixels(QRCodeGenerator.encodeModules(PAYLOAD), SIZE, SIZE);
+        }
+        long moduleNanos = (System.nanoTime() - start) / MEASURED_ROUNDS;
+
+        System.out.println(String.format("QR render %dx%d: per-pixel %.1f us, module rows %.1f us",
+            SIZE, SIZE, perPixelNanos / 1000.0, moduleNanos / 1000.0));
+    }
+
+    private static int[] renderPerPixel(String data, int width, int height) throws Exception {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(data, BarcodeFormat.QR_CODE, width, height);
+        int[] pixels = new int[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                pixels[y * width + x] = bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF;
+            }
+        }
+        return pixels;
+    }
+}